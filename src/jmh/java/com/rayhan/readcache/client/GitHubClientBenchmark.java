@@ -0,0 +1,92 @@
+package com.rayhan.readcache.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.rayhan.readcache.benchmark.PageMergeAllocationBenchmark;
+import com.rayhan.readcache.utils.JsonArrayMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the per-page work of a paginated read: extracting the pagination links of a page, and
+ * merging the pages of 150 to 15,000 synthetic repositories into one JSON array.
+ * Run it with: ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=GitHubClientBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHubClientBenchmark {
+
+    /**
+     * A page in the middle of a paginated read, with the four links GitHub sends.
+     */
+    @State(Scope.Benchmark)
+    public static class LinkedPage {
+
+        // Response of page 5 of 10
+        final ResponseEntity<String> page;
+
+        public LinkedPage() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add(HttpHeaders.LINK, "<https://api.github.com/organizations/913567/repos?per_page=150&page=4>; rel=\"prev\", "
+                    + "<https://api.github.com/organizations/913567/repos?per_page=150&page=6>; rel=\"next\", "
+                    + "<https://api.github.com/organizations/913567/repos?per_page=150&page=10>; rel=\"last\", "
+                    + "<https://api.github.com/organizations/913567/repos?per_page=150&page=1>; rel=\"first\"");
+            page = new ResponseEntity<>("[]", headers, HttpStatus.OK);
+        }
+    }
+
+    /**
+     * The pages of a paginated read of repositories.
+     */
+    @State(Scope.Benchmark)
+    public static class Pages {
+
+        // Number of repositories, 150 per page
+        @Param({"150", "1500", "15000"})
+        int repoCount;
+
+        // Factory of the streaming merge
+        final JsonFactory jsonFactory = new JsonFactory();
+
+        // Bodies of the pages
+        List<String> bodies;
+
+        @Setup
+        public void setUp() {
+            bodies = PageMergeAllocationBenchmark.generatePages(repoCount);
+        }
+    }
+
+    @Benchmark
+    public URI getNextPageLinkFromResponseHeader(LinkedPage linkedPage) {
+        return GitHubClient.getNextPageLinkFromResponseHeader(linkedPage.page);
+    }
+
+    @Benchmark
+    public List<URI> getRemainingPageUris(LinkedPage linkedPage) {
+        return GitHubClient.getRemainingPageUris(linkedPage.page);
+    }
+
+    @Benchmark
+    public String mergePages(Pages pages) {
+        return JsonArrayMerger.merge(pages.jsonFactory, pages.bodies);
+    }
+}
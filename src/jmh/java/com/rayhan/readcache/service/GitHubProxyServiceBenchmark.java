@@ -0,0 +1,95 @@
+package com.rayhan.readcache.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.rayhan.readcache.AppConfig;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.benchmark.PageMergeAllocationBenchmark;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.utils.JsonArrayMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_FORKS;
+
+/**
+ * Measures the throughput of the request paths served from warm caches: proxyGet on a cached organization and on the
+ * cached repositories of an organization of 10,000 repositories, and getBottomNRepos for various N.
+ * The caches are filled at setup with a TTL outliving the run and refresh-ahead disabled, so GitHub is never called.
+ * Run it with: ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=GitHubProxyServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHubProxyServiceBenchmark {
+    private static final int REPO_COUNT = 10_000;
+
+    // Service wired with the caches of the application, without upstream clients
+    private final GitHubProxyService service = new GitHubProxyService();
+
+    @Setup
+    public void setUp() {
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getCache().setTtl(Duration.ofDays(1));
+        properties.getCache().getRefreshAhead().setEnabled(false);
+
+        AppConfig appConfig = new AppConfig();
+        service.properties = properties;
+        service.offHeapStore = appConfig.provideOffHeapStore(properties);
+        service.staleStore = appConfig.provideStaleStore(properties);
+        service.routeTable = appConfig.provideRouteTable(properties, service.offHeapStore, service.staleStore);
+        service.gitHubRepoViewCache = appConfig.provideGitHubRepoViewCache(properties, service.routeTable);
+        service.passthroughCache = appConfig.providePassthroughCache(properties);
+        service.repoViewBuilder = appConfig.provideRepoViewBuilder(properties);
+
+        String repos = JsonArrayMerger.merge(new JsonFactory(), PageMergeAllocationBenchmark.generatePages(REPO_COUNT));
+        int gzipMinSize = properties.getCache().getGzipMinSize();
+        service.routeTable.require(GITHUB_NETFLIX_ORG).getCache().put(GITHUB_NETFLIX_ORG,
+                CachedResponse.of("{\"login\":\"Netflix\",\"id\":913567,\"public_repos\":" + REPO_COUNT + "}", gzipMinSize));
+        service.routeTable.require(GITHUB_REPOS_PATH).getCache().put(GITHUB_REPOS_PATH, CachedResponse.of(repos, gzipMinSize));
+        service.gitHubRepoViewCache.put(GITHUB_DEFAULT_ORG, service.repoViewBuilder.build(repos));
+    }
+
+    /**
+     * The size of the rendered view slices.
+     */
+    @State(Scope.Benchmark)
+    public static class Slice {
+
+        // Number of repositories rendered by getBottomNRepos
+        @Param({"1", "10", "100", "1000"})
+        int limit;
+    }
+
+    @Benchmark
+    public CachedResponse proxyGetWarmOrg() {
+        return service.proxyGet(GITHUB_NETFLIX_ORG);
+    }
+
+    @Benchmark
+    public CachedResponse proxyGetWarmRepos() {
+        return service.proxyGet(GITHUB_REPOS_PATH);
+    }
+
+    @Benchmark
+    public String getBottomNRepos(Slice slice) {
+        return service.getBottomNRepos(GITHUB_DEFAULT_ORG, slice.limit, ORDER_BY_FORKS);
+    }
+}
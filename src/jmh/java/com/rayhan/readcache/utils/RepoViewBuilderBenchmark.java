@@ -0,0 +1,78 @@
+package com.rayhan.readcache.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.benchmark.PageMergeAllocationBenchmark;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the throughput of building the repository views of an organization from its merged repositories, for
+ * synthetic organizations of 100 to 100,000 repositories. Organizations from the parallel sort threshold up are sorted
+ * in parallel, so their gc.alloc.rate.norm only counts the calling thread.
+ * The refresh benchmark updates the views of the organization after 1% of its repositories gained stars, to compare
+ * the incremental update of a refresh with a full build.
+ * Run it with: ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=RepoViewBuilderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepoViewBuilderBenchmark {
+
+    // Number of repositories of the organization
+    @Param({"100", "1000", "10000", "100000"})
+    int repoCount;
+
+    // Builder of the default orderings
+    private final RepoViewBuilder builder = new RepoViewBuilder(new ReadCacheProperties().getView());
+
+    // Merged JSON array of the repositories
+    private String json;
+
+    // Merged JSON array of the repositories after 1% of them gained stars
+    private String refreshedJson;
+
+    // Views built from the repositories, before the refresh
+    private GitHubRepoViewData previous;
+
+    @Setup
+    public void setUp() {
+        json = JsonArrayMerger.merge(new JsonFactory(), PageMergeAllocationBenchmark.generatePages(repoCount));
+        previous = builder.build(json);
+
+        Matcher stars = Pattern.compile("\"stargazers_count\": (\\d+)").matcher(json);
+        StringBuilder refreshed = new StringBuilder();
+        for (int repo = 0; stars.find(); repo++) {
+            int count = Integer.parseInt(stars.group(1)) + (repo % 100 == 0 ? 1 : 0);
+            stars.appendReplacement(refreshed, "\"stargazers_count\": " + count);
+        }
+        refreshedJson = stars.appendTail(refreshed).toString();
+    }
+
+    @Benchmark
+    public GitHubRepoViewData build() {
+        return builder.build(json);
+    }
+
+    @Benchmark
+    public GitHubRepoViewData refresh() {
+        return builder.build(refreshedJson, previous);
+    }
+}
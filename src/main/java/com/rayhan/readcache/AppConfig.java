@@ -3,71 +3,287 @@ package com.rayhan.readcache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.rayhan.readcache.ReadCacheProperties.HttpClientProperties;
+import com.rayhan.readcache.ReadCacheProperties.OffHeapProperties;
+import com.rayhan.readcache.ReadCacheProperties.PassthroughProperties;
+import com.rayhan.readcache.ReadCacheProperties.StaleProperties;
+import com.rayhan.readcache.ReadCacheProperties.UpstreamProperties;
+import com.rayhan.readcache.cache.CacheMetrics;
+import com.rayhan.readcache.cache.CacheWeigher;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.PassthroughExpiry;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.RouteTable.RoutePolicy;
+import com.rayhan.readcache.cache.StaleStore;
+import com.rayhan.readcache.cache.ViewExpiry;
+import com.rayhan.readcache.client.CachedPage;
+import com.rayhan.readcache.client.CircuitBreaker;
 import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.client.PeerClient;
+import com.rayhan.readcache.client.UpstreamMetrics;
+import com.rayhan.readcache.client.UpstreamScheduler;
+import com.rayhan.readcache.controller.ByteBufferHttpMessageConverter;
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.concurrent.TimeUnit;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_TTL_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_REFRESH_EXECUTOR;
 import static com.rayhan.readcache.constants.ApplicationConstant.ENV_GITHUB_API_TOKEN;
-import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_BASE_URL;
 import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_SIZE;
+import static com.rayhan.readcache.constants.ApplicationConstant.UPSTREAM_PAGE_EXECUTOR;
 
 /**
  * AppConfig is a configuration class for creating and configuring beans used in the application.
  */
 @Configuration
+@EnableConfigurationProperties(ReadCacheProperties.class)
 public class AppConfig {
 
     /**
-     * Creates and provides a RestTemplate bean for making HTTP requests.
+     * Creates and provides a RestTemplate bean for making HTTP requests, shared by GitHubClient and the health check.
      *
+     * @param properties The application properties.
      * @return RestTemplate instance.
      */
     @Bean
-    public RestTemplate provideRestTemplate() {
-        return new RestTemplate();
+    public RestTemplate provideRestTemplate(ReadCacheProperties properties) {
+        return new RestTemplate(provideClientHttpRequestFactory(properties));
     }
 
     /**
-     * Creates and provides a shared read cache bean using Caffeine.
+     * Creates and provides the client reading cacheable responses from the peer owning them in cluster mode.
+     * With cluster mode disabled, this instance owns every path.
      *
-     * @return Cache instance for common key-value data with a specified time-to-live (TTL) for entries.
+     * @param properties   The application properties.
+     * @param restTemplate The RestTemplate for requests to the peers.
+     * @return PeerClient for the configured cluster.
      */
     @Bean
-    public Cache<String, String> provideSharedReadCache() {
+    public PeerClient providePeerClient(ReadCacheProperties properties, RestTemplate restTemplate) {
+        return new PeerClient(properties.getCluster(), restTemplate, Clock.systemUTC());
+    }
+
+    /**
+     * Creates and provides the HTTP client implementation selected with readcache.upstream.http-client.type.
+     * It's a bean, so a connection pool is closed with the application context.
+     *
+     * @param properties The application properties.
+     * @return ClientHttpRequestFactory with the configured timeouts, HTTP version and connection pool.
+     */
+    @Bean
+    public ClientHttpRequestFactory provideClientHttpRequestFactory(ReadCacheProperties properties) {
+        HttpClientProperties httpClient = properties.getUpstream().getHttpClient();
+
+        return switch (httpClient.getType()) {
+            case JDK -> jdkRequestFactory(httpClient);
+            case APACHE -> apacheRequestFactory(httpClient);
+            case SIMPLE -> simpleRequestFactory(httpClient);
+        };
+    }
+
+    /**
+     * Creates and provides the converter writing the ByteBuffer bodies of proxied responses in Spring MVC.
+     * Spring Boot adds converter beans in front of the default ones, so it's used before Jackson would serialize the buffer.
+     *
+     * @return ByteBufferHttpMessageConverter instance.
+     */
+    @Bean
+    public ByteBufferHttpMessageConverter provideByteBufferHttpMessageConverter() {
+        return new ByteBufferHttpMessageConverter();
+    }
+
+    /**
+     * Creates and provides the route table of the cacheable endpoints, with a Caffeine cache for each route.
+     * With refresh-ahead enabled, entries live until the hard TTL and are reloaded in the background after the soft TTL.
+     * Each cache is bounded by the memory budget of its route, weighing responses by their size, so a few large
+     * paginated responses evict more entries than many small ones. Responses evicted for lack of memory are demoted to
+     * the off-heap tier, where they are served until their route would have reloaded them. The stale store then keeps
+     * their off-heap copy instead of the heap one.
+     *
+     * @param properties   The application properties.
+     * @param offHeapStore The off-heap tier behind the route caches.
+     * @param staleStore   The store of the last good responses.
+     * @return RouteTable with a cache bounded by the TTL and max weight of each route.
+     */
+    @Bean
+    public RouteTable<Cache<String, CachedResponse>> provideRouteTable(ReadCacheProperties properties, OffHeapStore offHeapStore, StaleStore staleStore) {
+        return RouteTable.of(properties, policy -> Caffeine.newBuilder()
+                .expireAfterWrite(policy.getExpireAfterWrite())
+                .maximumWeight(policy.getMaxWeight())
+                .weigher(CacheWeigher::weighResponse)
+                .evictionListener((String path, CachedResponse response, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        CachedResponse offHeapResponse = offHeapStore.demote(path, response, policy.getFreshTtl());
+                        if (offHeapResponse != null) {
+                            staleStore.demoted(path, response, offHeapResponse);
+                        }
+                    }
+                })
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Creates and provides the off-heap tier receiving the responses evicted from the route caches.
+     *
+     * @param properties The application properties.
+     * @return OffHeapStore bounded by readcache.cache.off-heap.max-size, or a disabled store if the tier is not enabled.
+     */
+    @Bean
+    public OffHeapStore provideOffHeapStore(ReadCacheProperties properties) {
+        OffHeapProperties offHeap = properties.getCache().getOffHeap();
+        return new OffHeapStore(offHeap.isEnabled() ? offHeap.getMaxSize().toBytes() : 0);
+    }
+
+    /**
+     * Creates and provides a cache bean for GitHubRepoViewData using Caffeine, keyed by organization.
+     * The views expire with the repositories response they are built from, so they follow the policy of the route
+     * caching the repositories of their organization.
+     * The cache is bounded by the estimated size of the views, and Caffeine's W-TinyLFU policy keeps the views of
+     * frequently requested organizations while the cold ones are evicted and rebuilt on demand.
+     *
+     * @param properties The application properties.
+     * @param routeTable The route table of the cacheable endpoints.
+     * @return Cache instance for specific GitHub RepoView data with a specified time-to-live (TTL) for entries.
+     */
+    @Bean
+    public Cache<String, GitHubRepoViewData> provideGitHubRepoViewCache(ReadCacheProperties properties, RouteTable<Cache<String, CachedResponse>> routeTable) {
         return Caffeine.newBuilder()
-                .expireAfterWrite(CACHE_TTL_IN_SECONDS, TimeUnit.SECONDS)
+                .expireAfter(new ViewExpiry(routeTable, RoutePolicy::getExpireAfterWrite))
+                .maximumWeight(properties.getView().getCacheMaxWeight().toBytes())
+                .weigher(CacheWeigher::weighViewData)
+                .recordStats()
                 .build();
     }
 
     /**
-     * Creates and provides a cache bean for GitHubRepoViewData using Caffeine.
+     * Creates and provides the short-lived cache of the passthrough endpoints, which no route caches. Successful
+     * responses expire after the micro-cache TTL, and 404 or 410 answers after the negative TTL, so a burst of
+     * requests for the same resource costs one GitHub call per TTL.
      *
-     * @return Cache instance for specific GitHub RepoView data with a specified time-to-live (TTL) for entries.
+     * @param properties The application properties.
+     * @return Cache of passthrough responses keyed by path, bounded by readcache.cache.passthrough.max-weight.
      */
     @Bean
-    public Cache<String, GitHubRepoViewData> provideGitHubRepoViewCache() {
+    public Cache<String, CachedResponse> providePassthroughCache(ReadCacheProperties properties) {
+        PassthroughProperties passthrough = properties.getCache().getPassthrough();
         return Caffeine.newBuilder()
-                .expireAfterWrite(CACHE_TTL_IN_SECONDS, TimeUnit.SECONDS)
+                .expireAfter(new PassthroughExpiry(passthrough.getTtl(), passthrough.getNegativeTtl()))
+                .maximumWeight(passthrough.getMaxWeight().toBytes())
+                .weigher(CacheWeigher::weighResponse)
+                .recordStats()
                 .build();
     }
 
+    /**
+     * Creates and provides the store of the last good responses, served when loading a cacheable path from GitHub fails.
+     *
+     * @param properties The application properties.
+     * @return StaleStore bounded by readcache.cache.stale.max-weight, or a disabled store if it's not enabled.
+     */
+    @Bean
+    public StaleStore provideStaleStore(ReadCacheProperties properties) {
+        StaleProperties stale = properties.getCache().getStale();
+        return new StaleStore(stale.isEnabled() ? stale.getMaxWeight().toBytes() : 0, stale.getMaxAge());
+    }
+
+    /**
+     * Creates and provides the RepoViewBuilder generating the repository views of the configured orderings.
+     *
+     * @param properties The application properties.
+     * @return RepoViewBuilder instance, shared by the servlet and reactive stacks.
+     */
+    @Bean
+    public RepoViewBuilder provideRepoViewBuilder(ReadCacheProperties properties) {
+        return new RepoViewBuilder(properties.getView());
+    }
+
+    /**
+     * Creates and provides the executor reloading cache entries in the background for refresh-ahead.
+     *
+     * @param properties  The application properties.
+     * @param environment The environment, telling if virtual threads are enabled.
+     * @return Executor running a small, fixed number of reloads at a time.
+     */
+    @Bean(name = CACHE_REFRESH_EXECUTOR)
+    public Executor provideCacheRefreshExecutor(ReadCacheProperties properties, Environment environment) {
+        return newExecutor(CACHE_REFRESH_EXECUTOR, properties.getCache().getRefreshAhead().getThreads(), environment);
+    }
+
+    /**
+     * Creates and provides the executor fetching pages of a paginated read concurrently.
+     * Its size caps the number of concurrent page requests to GitHub; threads are only started when pages are fetched.
+     *
+     * @param properties  The application properties.
+     * @param environment The environment, telling if virtual threads are enabled.
+     * @return Executor running a fixed number of page requests at a time.
+     */
+    @Bean(name = UPSTREAM_PAGE_EXECUTOR)
+    public Executor provideUpstreamPageExecutor(ReadCacheProperties properties, Environment environment) {
+        return newExecutor(UPSTREAM_PAGE_EXECUTOR, properties.getUpstream().getPageConcurrency(), environment);
+    }
+
     /**
      * Creates and provides a GitHubClient bean with configured properties.
      *
+     * @param properties        The application properties.
+     * @param environment       The environment, telling if virtual threads are enabled.
+     * @param upstreamScheduler The scheduler admitting requests against the rate-limit quota.
+     * @param circuitBreaker    The circuit breaker rejecting requests while GitHub is failing.
+     * @param upstreamMetrics   The metrics of the GitHub requests.
      * @return GitHubClient instance for interacting with the GitHub API.
      */
     @Bean
-    public GitHubClient provideGitHubClient() {
+    public GitHubClient provideGitHubClient(ReadCacheProperties properties, Environment environment, UpstreamScheduler upstreamScheduler,
+                                            CircuitBreaker circuitBreaker, UpstreamMetrics upstreamMetrics) {
+        UpstreamProperties upstream = properties.getUpstream();
         GitHubClient.GitHubClientBuilder builder = GitHubClient.builder()
-                .baseUrl(GITHUB_BASE_URL)
+                .baseUrl(upstream.getBaseUrl())
                 .mapper(new ObjectMapper())
                 .pageSize(PAGE_SIZE)
-                .restTemplate(provideRestTemplate());
+                .restTemplate(provideRestTemplate(properties))
+                .upstreamScheduler(upstreamScheduler)
+                .circuitBreaker(circuitBreaker)
+                .upstreamMetrics(upstreamMetrics);
+
+        // Fan out the pages of a paginated read when more than one concurrent page request is allowed
+        if (upstream.getPageConcurrency() > 1) {
+            builder.pageExecutor(provideUpstreamPageExecutor(properties, environment));
+        }
+
+        // Keep page validators to revalidate pages with conditional requests
+        if (upstream.isConditionalRequests()) {
+            builder.pageCache(providePageCache(properties));
+        }
 
         // Retrieve GitHub API token from environment variables
         String gitHubApiToken = System.getenv(ENV_GITHUB_API_TOKEN);
@@ -79,4 +295,192 @@ public class AppConfig {
 
         return builder.build();
     }
+
+    /**
+     * Creates and provides the scheduler admitting GitHub requests against the rate-limit quota. As a MeterBinder bean,
+     * its quota state is published under /actuator/metrics.
+     *
+     * @param properties The application properties.
+     * @return UpstreamScheduler for the configured passthrough reserve and maximum wait.
+     */
+    @Bean
+    public UpstreamScheduler provideUpstreamScheduler(ReadCacheProperties properties) {
+        return new UpstreamScheduler(properties.getUpstream().getRateLimit(), Clock.systemUTC());
+    }
+
+    /**
+     * Creates and provides the circuit breaker of the GitHub requests. As a MeterBinder bean, its state is published
+     * under /actuator/metrics.
+     *
+     * @param properties The application properties.
+     * @return CircuitBreaker for the configured thresholds and open duration.
+     */
+    @Bean
+    public CircuitBreaker provideCircuitBreaker(ReadCacheProperties properties) {
+        return new CircuitBreaker(properties.getUpstream().getCircuitBreaker(), Clock.systemUTC());
+    }
+
+    /**
+     * Creates and provides the metrics of the GitHub requests: page and paginated read latency histograms, pages per
+     * read, received bytes and requests in flight. As a MeterBinder bean, they are published under /actuator/metrics
+     * and /actuator/prometheus.
+     *
+     * @return UpstreamMetrics recording to the application's meter registry once bound.
+     */
+    @Bean
+    public UpstreamMetrics provideUpstreamMetrics() {
+        return new UpstreamMetrics();
+    }
+
+    /**
+     * Creates and provides the statistics of the servlet stack's caches: hits, misses, evictions and weighed size of
+     * each route cache, the view, passthrough and page caches, the stale store and the off-heap tier.
+     *
+     * @param routeTable          The route table of the cacheable endpoints.
+     * @param gitHubRepoViewCache The cache of the repository views.
+     * @param passthroughCache    The cache of the passthrough endpoints.
+     * @param offHeapStore        The off-heap tier.
+     * @param staleStore          The store of the last good responses.
+     * @param gitHubClient        The GitHubClient holding the page cache.
+     * @return CacheMetrics of every cache, published as a MeterBinder bean.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public CacheMetrics provideCacheMetrics(RouteTable<Cache<String, CachedResponse>> routeTable, Cache<String, GitHubRepoViewData> gitHubRepoViewCache,
+                                            Cache<String, CachedResponse> passthroughCache, OffHeapStore offHeapStore, StaleStore staleStore,
+                                            GitHubClient gitHubClient) {
+        CacheMetrics cacheMetrics = new CacheMetrics()
+                .monitor("route", routeTable, cache -> cache)
+                .monitor("view", gitHubRepoViewCache)
+                .monitor("passthrough", passthroughCache)
+                .monitor(offHeapStore)
+                .monitor(staleStore);
+
+        if (gitHubClient.getPageCache() != null) {
+            cacheMetrics.monitor("page", gitHubClient.getPageCache());
+        }
+        return cacheMetrics;
+    }
+
+    /**
+     * Creates the cache of the pages revalidated with conditional requests, shared by the servlet and reactive clients.
+     * Pages keep their bodies to serve them again on 304 Not Modified, so the cache is bounded by their size.
+     *
+     * @param properties The application properties.
+     * @return Cache of pages keyed by URI, bounded by readcache.upstream.page-cache-max-weight.
+     */
+    static Cache<URI, CachedPage> providePageCache(ReadCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumWeight(properties.getUpstream().getPageCacheMaxWeight().toBytes())
+                .weigher(CacheWeigher::weighPage)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Creates a request factory on java.net.http.HttpClient. Connections are kept alive and reused by the client,
+     * and with HTTP/2 all requests to GitHub are multiplexed over a single connection.
+     *
+     * @param properties The HTTP client properties.
+     * @return JdkClientHttpRequestFactory instance.
+     */
+    private static ClientHttpRequestFactory jdkRequestFactory(HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(properties.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Creates a request factory on Apache HttpClient 5 with a bounded pool of keep-alive connections.
+     * Idle connections are closed after the keep-alive time, before GitHub or a load balancer drops them.
+     *
+     * @param properties The HTTP client properties.
+     * @return HttpComponentsClientHttpRequestFactory instance.
+     */
+    private static ClientHttpRequestFactory apacheRequestFactory(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getKeepAlive()))
+                        .build())
+                .build();
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .evictIdleConnections(TimeValue.of(properties.getKeepAlive()))
+                .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        // Waiting for a pooled connection counts against the connect timeout
+        requestFactory.setConnectionRequestTimeout(properties.getConnectTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Creates a request factory on HttpURLConnection, with the configured timeouts.
+     *
+     * @param properties The HTTP client properties.
+     * @return SimpleClientHttpRequestFactory instance.
+     */
+    private static ClientHttpRequestFactory simpleRequestFactory(HttpClientProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeout());
+        requestFactory.setReadTimeout(properties.getReadTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Creates an executor running at most the given number of tasks at a time.
+     * With virtual threads enabled (spring.threads.virtual.enabled on Java 21+), every task gets its own virtual thread
+     * and waits for a permit of a semaphore, which parks the virtual thread instead of pinning its carrier.
+     * Otherwise, it's a fixed pool of daemon platform threads.
+     *
+     * @param name        The name of the executor, used as thread name prefix.
+     * @param concurrency The maximum number of tasks running at a time.
+     * @param environment The environment, telling if virtual threads are enabled.
+     * @return Executor for the given concurrency.
+     */
+    private static Executor newExecutor(String name, int concurrency, Environment environment) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newFixedThreadPool(concurrency, daemonThreadFactory(name));
+        }
+
+        SimpleAsyncTaskExecutor virtualThreadExecutor = new SimpleAsyncTaskExecutor(name + "-");
+        virtualThreadExecutor.setVirtualThreads(true);
+        Semaphore permits = new Semaphore(concurrency);
+
+        return task -> virtualThreadExecutor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Creates a thread factory for daemon threads named after their executor.
+     *
+     * @param name The name of the executor.
+     * @return ThreadFactory creating daemon threads named "name-N".
+     */
+    public static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
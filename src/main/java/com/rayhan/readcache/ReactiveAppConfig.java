@@ -0,0 +1,146 @@
+package com.rayhan.readcache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.rayhan.readcache.ReadCacheProperties.UpstreamProperties;
+import com.rayhan.readcache.cache.CacheMetrics;
+import com.rayhan.readcache.cache.CacheWeigher;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.RouteTable.RoutePolicy;
+import com.rayhan.readcache.cache.ViewExpiry;
+import com.rayhan.readcache.client.ReactiveGitHubClient;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.ENV_GITHUB_API_TOKEN;
+import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_SIZE;
+import static com.rayhan.readcache.constants.ApplicationConstant.WEB_CLIENT_MAX_IN_MEMORY_SIZE;
+
+/**
+ * ReactiveAppConfig is a configuration class for the beans of the reactive stack.
+ * They are only created when the application runs as a reactive web application, e.g. with the "reactive" profile.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAppConfig {
+
+    /**
+     * Creates and provides a WebClient bean for making non-blocking HTTP requests.
+     * A page of repositories easily exceeds the default in-memory buffer limit of 256KB, so the limit is raised.
+     *
+     * @return WebClient instance.
+     */
+    @Bean
+    public WebClient provideWebClient() {
+        return WebClient.builder()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(WEB_CLIENT_MAX_IN_MEMORY_SIZE))
+                .build();
+    }
+
+    /**
+     * Creates and provides the route table of the cacheable endpoints, with an asynchronous Caffeine cache for each route.
+     * Entries are futures, so concurrent misses on a key share the in-flight load instead of blocking on it.
+     * Responses evicted for lack of memory are demoted to the off-heap tier, like in the servlet stack.
+     *
+     * @param properties   The application properties.
+     * @param offHeapStore The off-heap tier behind the route caches.
+     * @return RouteTable with an AsyncCache bounded by the TTL and max weight of each route.
+     */
+    @Bean
+    public RouteTable<AsyncCache<String, CachedResponse>> provideAsyncRouteTable(ReadCacheProperties properties, OffHeapStore offHeapStore) {
+        return RouteTable.of(properties, policy -> Caffeine.newBuilder()
+                .expireAfterWrite(policy.getTtl())
+                .maximumWeight(policy.getMaxWeight())
+                .weigher(CacheWeigher::weighResponse)
+                .evictionListener((String path, CachedResponse response, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        offHeapStore.demote(path, response, policy.getTtl());
+                    }
+                })
+                .recordStats()
+                .buildAsync());
+    }
+
+    /**
+     * Creates and provides an asynchronous cache bean for GitHubRepoViewData using Caffeine, keyed by organization.
+     * The views expire with the repositories response they are built from, so they follow the TTL of the route
+     * caching the repositories of their organization, and a view built from an aged response only lives for its rest.
+     * The cache is bounded by the estimated size of the views, like the servlet stack's view cache.
+     *
+     * @param properties The application properties.
+     * @param routeTable The route table of the cacheable endpoints.
+     * @return AsyncCache instance for specific GitHub RepoView data with a specified time-to-live (TTL) for entries.
+     */
+    @Bean
+    public AsyncCache<String, GitHubRepoViewData> provideAsyncGitHubRepoViewCache(ReadCacheProperties properties, RouteTable<AsyncCache<String, CachedResponse>> routeTable) {
+        return Caffeine.newBuilder()
+                .expireAfter(new ViewExpiry(routeTable, RoutePolicy::getTtl))
+                .maximumWeight(properties.getView().getCacheMaxWeight().toBytes())
+                .weigher(CacheWeigher::weighViewData)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Creates and provides the statistics of the reactive stack's caches: hits, misses, evictions and weighed size of
+     * each route cache, the view and page caches and the off-heap tier.
+     *
+     * @param routeTable          The route table of the cacheable endpoints.
+     * @param gitHubRepoViewCache The cache of the repository views.
+     * @param offHeapStore        The off-heap tier.
+     * @param gitHubClient        The ReactiveGitHubClient holding the page cache.
+     * @return CacheMetrics of every cache, published as a MeterBinder bean.
+     */
+    @Bean
+    public CacheMetrics provideAsyncCacheMetrics(RouteTable<AsyncCache<String, CachedResponse>> routeTable, AsyncCache<String, GitHubRepoViewData> gitHubRepoViewCache,
+                                                 OffHeapStore offHeapStore, ReactiveGitHubClient gitHubClient) {
+        CacheMetrics cacheMetrics = new CacheMetrics()
+                .monitor("route", routeTable, AsyncCache::synchronous)
+                .monitor("view", gitHubRepoViewCache.synchronous())
+                .monitor(offHeapStore);
+
+        if (gitHubClient.getPageCache() != null) {
+            cacheMetrics.monitor("page", gitHubClient.getPageCache());
+        }
+        return cacheMetrics;
+    }
+
+    /**
+     * Creates and provides a ReactiveGitHubClient bean with configured properties.
+     *
+     * @param properties The application properties.
+     * @return ReactiveGitHubClient instance for interacting with the GitHub API.
+     */
+    @Bean
+    public ReactiveGitHubClient provideReactiveGitHubClient(ReadCacheProperties properties) {
+        UpstreamProperties upstream = properties.getUpstream();
+        ReactiveGitHubClient.ReactiveGitHubClientBuilder builder = ReactiveGitHubClient.builder()
+                .baseUrl(upstream.getBaseUrl())
+                .mapper(new ObjectMapper())
+                .pageSize(PAGE_SIZE)
+                .pageConcurrency(upstream.getPageConcurrency())
+                .webClient(provideWebClient());
+
+        // Keep page validators to revalidate pages with conditional requests
+        if (upstream.isConditionalRequests()) {
+            builder.pageCache(AppConfig.providePageCache(properties));
+        }
+
+        // Retrieve GitHub API token from environment variables
+        String gitHubApiToken = System.getenv(ENV_GITHUB_API_TOKEN);
+
+        // Set API token if available
+        if (gitHubApiToken != null) {
+            builder.apiToken(gitHubApiToken);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,421 @@
+package com.rayhan.readcache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_HARD_TTL_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_MAX_WEIGHT_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_REFRESH_THREADS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_TTL_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CIRCUIT_FAILURE_RATE_THRESHOLD;
+import static com.rayhan.readcache.constants.ApplicationConstant.CIRCUIT_MINIMUM_CALLS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CIRCUIT_OPEN_DURATION_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CIRCUIT_SLOW_CALL_THRESHOLD_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CIRCUIT_WINDOW_SIZE;
+import static com.rayhan.readcache.constants.ApplicationConstant.CLUSTER_PEER_BACKOFF_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.CLUSTER_VIRTUAL_NODES;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_BASE_URL;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_ORG_PATTERN;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static com.rayhan.readcache.constants.ApplicationConstant.GZIP_MIN_SIZE_IN_BYTES;
+import static com.rayhan.readcache.constants.ApplicationConstant.HTTP_CONNECT_TIMEOUT_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.HTTP_KEEP_ALIVE_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.HTTP_MAX_CONNECTIONS;
+import static com.rayhan.readcache.constants.ApplicationConstant.HTTP_READ_TIMEOUT_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.OFF_HEAP_MAX_SIZE_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_FORKS;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_LAST_UPDATED;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_OPEN_ISSUES;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_STARS;
+import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_CACHE_MAX_WEIGHT_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_CONCURRENCY;
+import static com.rayhan.readcache.constants.ApplicationConstant.PASSTHROUGH_MAX_WEIGHT_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.PASSTHROUGH_NEGATIVE_TTL_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.PASSTHROUGH_TTL_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_MAX_WAIT_IN_SECONDS;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_PASSTHROUGH_RESERVE_PERCENT;
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_FORK_COUNT;
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_ISSUE_COUNT;
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_LAST_UPDATED;
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_STAR_COUNT;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_MEMBERS;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_REPOS;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_ROOT;
+import static com.rayhan.readcache.constants.ApplicationConstant.SNAPSHOT_FILE;
+import static com.rayhan.readcache.constants.ApplicationConstant.SNAPSHOT_MAX_AGE_IN_MINUTES;
+import static com.rayhan.readcache.constants.ApplicationConstant.STALE_MAX_AGE_IN_HOURS;
+import static com.rayhan.readcache.constants.ApplicationConstant.STALE_MAX_WEIGHT_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.VIEW_CACHE_MAX_WEIGHT_IN_MB;
+import static com.rayhan.readcache.constants.ApplicationConstant.VIEW_PARALLEL_SORT_THRESHOLD;
+import static com.rayhan.readcache.constants.ApplicationConstant.WARMUP_CONCURRENCY;
+import static com.rayhan.readcache.constants.ApplicationConstant.WARMUP_TIMEOUT_IN_SECONDS;
+
+/**
+ * ReadCacheProperties holds the tunable settings of the proxy, bound from the "readcache" prefix in application.properties.
+ * Every property falls back to the defaults in ApplicationConstant, so the application runs without any configuration.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "readcache")
+public class ReadCacheProperties {
+
+    // Settings for the in-memory caches
+    private CacheProperties cache = new CacheProperties();
+
+    // Settings for the calls to the upstream GitHub API
+    private UpstreamProperties upstream = new UpstreamProperties();
+
+    // Settings for the repository views served under /view
+    private ViewProperties view = new ViewProperties();
+
+    // Cacheable endpoints, keyed by route name. Configured routes are added to the defaults.
+    private Map<String, RouteProperties> routes = defaultRoutes();
+
+    // Settings for the cache snapshot written on shutdown and restored on startup
+    private SnapshotProperties snapshot = new SnapshotProperties();
+
+    // Settings for loading the cacheable endpoints on startup, before the health check reports ready
+    private WarmupProperties warmup = new WarmupProperties();
+
+    // Settings for sharing the cache keys between several proxy instances
+    private ClusterProperties cluster = new ClusterProperties();
+
+    /**
+     * Returns the routes cached before any configuration: the organization, its members and its repositories.
+     *
+     * @return Map of the default routes, keyed by route name.
+     */
+    private static Map<String, RouteProperties> defaultRoutes() {
+        Map<String, RouteProperties> routes = new LinkedHashMap<>();
+        routes.put(ROUTE_ROOT, new RouteProperties("/"));
+        routes.put(ROUTE_ORG, new RouteProperties(GITHUB_ORG_PATTERN));
+        routes.put(ROUTE_MEMBERS, new RouteProperties(GITHUB_ORG_PATTERN + "/members"));
+        routes.put(ROUTE_REPOS, new RouteProperties(GITHUB_ORG_PATTERN + "/repos"));
+        return routes;
+    }
+
+    @Getter
+    @Setter
+    public static class CacheProperties {
+
+        // Time after which a cached entry expires when refresh-ahead is disabled, unless its route sets its own
+        private Duration ttl = Duration.ofSeconds(CACHE_TTL_IN_SECONDS);
+
+        // Memory budget of the cached responses of each route, unless the route sets its own
+        private DataSize maxWeight = DataSize.ofMegabytes(CACHE_MAX_WEIGHT_IN_MB);
+
+        // Minimum size in bytes of a cached response to keep a pre-compressed gzip variant of it, negative to disable
+        private int gzipMinSize = GZIP_MIN_SIZE_IN_BYTES;
+
+        // Settings for serving cached entries while they are reloaded in the background, unless their route sets its own
+        private RefreshAheadProperties refreshAhead = new RefreshAheadProperties();
+
+        // Settings for the off-heap tier receiving the responses evicted from the route caches
+        private OffHeapProperties offHeap = new OffHeapProperties();
+
+        // Settings for the short-lived cache of the endpoints no route caches
+        private PassthroughProperties passthrough = new PassthroughProperties();
+
+        // Settings for the last good responses served when GitHub is failing
+        private StaleProperties stale = new StaleProperties();
+    }
+
+    @Getter
+    @Setter
+    public static class StaleProperties {
+
+        // Keep the last good response of every cacheable path, to serve it when loading the path from GitHub fails
+        private boolean enabled = true;
+
+        // Memory budget of the last good responses, once they have left their route caches
+        private DataSize maxWeight = DataSize.ofMegabytes(STALE_MAX_WEIGHT_IN_MB);
+
+        // Age after which a last good response is too stale to be served
+        private Duration maxAge = Duration.ofHours(STALE_MAX_AGE_IN_HOURS);
+    }
+
+    @Getter
+    @Setter
+    public static class PassthroughProperties {
+
+        // Cache passthrough responses briefly, and their 404 and 410 answers for the negative TTL
+        private boolean enabled = false;
+
+        // Time a successful passthrough response is served from the cache, zero to only cache errors
+        private Duration ttl = Duration.ofSeconds(PASSTHROUGH_TTL_IN_SECONDS);
+
+        // Time a 404 or 410 answer is served from the cache, zero to only cache successful responses
+        private Duration negativeTtl = Duration.ofSeconds(PASSTHROUGH_NEGATIVE_TTL_IN_SECONDS);
+
+        // Memory budget of the cached passthrough responses
+        private DataSize maxWeight = DataSize.ofMegabytes(PASSTHROUGH_MAX_WEIGHT_IN_MB);
+    }
+
+    @Getter
+    @Setter
+    public static class OffHeapProperties {
+
+        // Demote responses evicted from the route caches to off-heap memory instead of dropping them
+        private boolean enabled = false;
+
+        // Off-heap memory the demoted responses may hold. Direct memory has to be allowed above it, see -XX:MaxDirectMemorySize.
+        private DataSize maxSize = DataSize.ofMegabytes(OFF_HEAP_MAX_SIZE_IN_MB);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class RouteProperties {
+
+        // Path pattern of the cacheable endpoint, e.g. /orgs/{org}/repos or /users/{user}/orgs
+        private String pattern;
+
+        // Time after which a cached response expires when refresh-ahead is disabled, cache.ttl when not set
+        private Duration ttl;
+
+        // Memory budget of the cached responses of the route, weighed by their size, cache.max-weight when not set
+        private DataSize maxWeight;
+
+        // Serve cached responses while they are reloaded in the background, cache.refresh-ahead.enabled when not set
+        private Boolean refreshAhead;
+
+        // Age after which a cache hit triggers a background reload, cache.refresh-ahead.soft-ttl when not set
+        private Duration softTtl;
+
+        // Age after which a response is evicted with refresh-ahead, cache.refresh-ahead.hard-ttl when not set
+        private Duration hardTtl;
+
+        public RouteProperties(String pattern) {
+            this.pattern = pattern;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class RefreshAheadProperties {
+
+        // Serve the current value and reload it in the background once it is older than the soft TTL
+        private boolean enabled = false;
+
+        // Age after which a cache hit triggers a background reload
+        private Duration softTtl = Duration.ofSeconds(CACHE_TTL_IN_SECONDS);
+
+        // Age after which the entry is evicted, bounding how stale a served value can get
+        private Duration hardTtl = Duration.ofSeconds(CACHE_HARD_TTL_IN_SECONDS);
+
+        // Number of threads reloading entries in the background
+        private int threads = CACHE_REFRESH_THREADS;
+    }
+
+    @Getter
+    @Setter
+    public static class SnapshotProperties {
+
+        // Write the caches to the snapshot file on graceful shutdown, and restore them from it on startup
+        private boolean enabled = false;
+
+        // Local file the snapshot is written to
+        private Path file = Path.of(SNAPSHOT_FILE);
+
+        // Maximum age of a restored response. Older responses are dropped instead of served while they are revalidated.
+        private Duration maxAge = Duration.ofMinutes(SNAPSHOT_MAX_AGE_IN_MINUTES);
+    }
+
+    @Getter
+    @Setter
+    public static class WarmupProperties {
+
+        // Load the warm-up paths on startup, reporting the application as not ready until they are cached
+        private boolean enabled = false;
+
+        // Cacheable paths to load. Repositories paths also build the views of their organization.
+        private List<String> paths = List.of("/", GITHUB_NETFLIX_ORG, GITHUB_NETFLIX_ORG + "/members", GITHUB_REPOS_PATH);
+
+        // Number of paths loaded concurrently
+        private int concurrency = WARMUP_CONCURRENCY;
+
+        // Maximum duration of the warm-up. Paths still loading then are left to the first requests.
+        private Duration timeout = Duration.ofSeconds(WARMUP_TIMEOUT_IN_SECONDS);
+    }
+
+    @Getter
+    @Setter
+    public static class ClusterProperties {
+
+        // Assign each cache key to one instance, which alone loads it from GitHub; the others read it from that instance
+        private boolean enabled = false;
+
+        // Base URL the other instances reach this one at, e.g. http://localhost:8080. It must match its entry in peers.
+        private String self;
+
+        // Base URLs of all instances of the cluster, the same list on every instance
+        private List<String> peers = List.of();
+
+        // Number of positions of each instance on the hash ring
+        private int virtualNodes = CLUSTER_VIRTUAL_NODES;
+
+        // Time a peer that failed to answer is skipped for, its paths being loaded from GitHub meanwhile
+        private Duration peerBackoff = Duration.ofSeconds(CLUSTER_PEER_BACKOFF_IN_SECONDS);
+    }
+
+    @Getter
+    @Setter
+    public static class UpstreamProperties {
+
+        // Base URL of the GitHub API, e.g. a local GitHub stand-in for load tests
+        private String baseUrl = GITHUB_BASE_URL;
+
+        // Revalidate previously fetched pages with If-None-Match/If-Modified-Since instead of downloading them again
+        private boolean conditionalRequests = true;
+
+        // Memory budget of the pages whose validators and bodies are kept for conditional requests
+        private DataSize pageCacheMaxWeight = DataSize.ofMegabytes(PAGE_CACHE_MAX_WEIGHT_IN_MB);
+
+        // Maximum number of pages fetched concurrently across all paginated reads. Pages are read one by one when 1.
+        private int pageConcurrency = PAGE_CONCURRENCY;
+
+        // Settings for the HTTP client shared by GitHubClient and the health check
+        private HttpClientProperties httpClient = new HttpClientProperties();
+
+        // Settings for scheduling GitHub requests against the rate-limit quota
+        private RateLimitProperties rateLimit = new RateLimitProperties();
+
+        // Settings for the circuit breaker stopping GitHub requests while it's failing
+        private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreakerProperties {
+
+        // Reject GitHub requests right away while most recent requests failed or were slow
+        private boolean enabled = true;
+
+        // Percentage of failed or slow calls in the window at which the circuit opens
+        private int failureRateThreshold = CIRCUIT_FAILURE_RATE_THRESHOLD;
+
+        // Duration from which a call counts as slow, like a failed one
+        private Duration slowCallThreshold = Duration.ofSeconds(CIRCUIT_SLOW_CALL_THRESHOLD_IN_SECONDS);
+
+        // Number of most recent calls the failure rate is computed on
+        private int windowSize = CIRCUIT_WINDOW_SIZE;
+
+        // Minimum number of calls in the window before the circuit may open
+        private int minimumCalls = CIRCUIT_MINIMUM_CALLS;
+
+        // Time the circuit stays open before a probe call is let through
+        private Duration openDuration = Duration.ofSeconds(CIRCUIT_OPEN_DURATION_IN_SECONDS);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimitProperties {
+
+        // Track the quota from the X-RateLimit-* and Retry-After headers, and hold requests back when it runs out
+        private boolean enabled = true;
+
+        // Percentage of the quota only cacheable data may use: passthrough requests wait or are rejected below it
+        private int passthroughReservePercent = RATE_LIMIT_PASSTHROUGH_RESERVE_PERCENT;
+
+        // Longest wait for the quota to reset. Requests are rejected, or served from cached pages, if it's further away.
+        private Duration maxWait = Duration.ofSeconds(RATE_LIMIT_MAX_WAIT_IN_SECONDS);
+    }
+
+    @Getter
+    @Setter
+    public static class HttpClientProperties {
+
+        // HTTP client implementation used by RestTemplate
+        private HttpClientType type = HttpClientType.JDK;
+
+        // Maximum time to establish a connection to GitHub
+        private Duration connectTimeout = Duration.ofSeconds(HTTP_CONNECT_TIMEOUT_IN_SECONDS);
+
+        // Maximum time to wait for a response from GitHub
+        private Duration readTimeout = Duration.ofSeconds(HTTP_READ_TIMEOUT_IN_SECONDS);
+
+        // Negotiate HTTP/2, so concurrent page requests are multiplexed over one connection (JDK client only)
+        private boolean http2 = true;
+
+        // Maximum number of pooled connections (Apache client only)
+        private int maxConnections = HTTP_MAX_CONNECTIONS;
+
+        // Maximum number of pooled connections per host (Apache client only)
+        private int maxConnectionsPerRoute = HTTP_MAX_CONNECTIONS;
+
+        // Time after which an idle pooled connection is closed (Apache client only)
+        private Duration keepAlive = Duration.ofSeconds(HTTP_KEEP_ALIVE_IN_SECONDS);
+    }
+
+    public enum HttpClientType {
+        // java.net.http.HttpClient, with HTTP/2 and keep-alive connections
+        JDK,
+        // Apache HttpClient 5 with a bounded pool of keep-alive HTTP/1.1 connections
+        APACHE,
+        // HttpURLConnection, as used by a bare RestTemplate
+        SIMPLE
+    }
+
+    @Getter
+    @Setter
+    public static class ViewProperties {
+
+        // Orderings of the repository views, keyed by the orderedBy path segment. Configured orderings are added to the defaults.
+        private Map<String, ViewOrdering> orderings = defaultOrderings();
+
+        // Minimum number of repositories for a view to be sorted in parallel
+        private int parallelSortThreshold = VIEW_PARALLEL_SORT_THRESHOLD;
+
+        // Keep the rows of the views, so a refresh only sorts and renders the repositories that changed
+        private boolean incremental = true;
+
+        // Memory budget of the views of all organizations. Views of the least valuable organizations are evicted first.
+        private DataSize cacheMaxWeight = DataSize.ofMegabytes(VIEW_CACHE_MAX_WEIGHT_IN_MB);
+
+        /**
+         * Returns the orderings served before any configuration: forks, stars, open_issues and last_updated.
+         *
+         * @return Map of the default orderings, keyed by the orderedBy path segment.
+         */
+        private static Map<String, ViewOrdering> defaultOrderings() {
+            Map<String, ViewOrdering> orderings = new LinkedHashMap<>();
+            orderings.put(ORDER_BY_FORKS, new ViewOrdering(REPO_FORK_COUNT, ViewOrderingType.NUMBER));
+            orderings.put(ORDER_BY_STARS, new ViewOrdering(REPO_STAR_COUNT, ViewOrderingType.NUMBER));
+            orderings.put(ORDER_BY_OPEN_ISSUES, new ViewOrdering(REPO_ISSUE_COUNT, ViewOrderingType.NUMBER));
+            orderings.put(ORDER_BY_LAST_UPDATED, new ViewOrdering(REPO_LAST_UPDATED, ViewOrderingType.STRING));
+            return orderings;
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ViewOrdering {
+
+        // Top-level field of a repository the view is ordered by, in descending order
+        private String field;
+
+        // How the values of the field are compared
+        private ViewOrderingType type = ViewOrderingType.NUMBER;
+    }
+
+    public enum ViewOrderingType {
+        // Integer values like forks_count; missing values count as 0
+        NUMBER,
+        // Text values like updated_at, compared lexicographically; missing values sort last
+        STRING
+    }
+}
@@ -1,6 +1,8 @@
 package com.rayhan.readcache;
 
+import com.rayhan.readcache.service.WarmupService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,6 +14,10 @@ import static com.rayhan.readcache.constants.ApplicationConstant.ENV_SERVER_PORT
 @Slf4j
 @SpringBootApplication
 public class VendorApiProxyAndCachingApplication implements CommandLineRunner {
+	// Service warming the caches up on startup, absent for the reactive web application
+	@Autowired(required = false)
+	WarmupService warmupService;
+
 	public static void main(String[] args) {
 		String serverPort = System.getenv(ENV_SERVER_PORT);
 		SpringApplication application = new SpringApplication(VendorApiProxyAndCachingApplication.class);
@@ -26,7 +32,15 @@ public class VendorApiProxyAndCachingApplication implements CommandLineRunner {
 		application.run(args);
 	}
 
+	/**
+	 * Warms the caches up once the web server is started. The health check reports not ready until it's done.
+	 *
+	 * @param args The command line arguments.
+	 */
 	@Override
 	public void run(String... args) {
+		if (warmupService != null) {
+			warmupService.warmUp();
+		}
 	}
 }
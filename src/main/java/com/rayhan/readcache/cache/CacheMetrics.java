@@ -0,0 +1,133 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.METRICS_NO_ROUTE;
+
+/**
+ * CacheMetrics publishes the statistics of the Caffeine caches: the cache.gets hits and misses, the cache.evictions
+ * and the cache.size of each cache, plus its weighed size as readcache.cache.weight. Every meter is tagged with the
+ * cache name and the route of the cache, "none" for the caches shared by every route, so the hit ratio and memory use
+ * of each route can be tuned on its own.
+ * The hit, miss and eviction counts need the caches to be built with Caffeine.recordStats.
+ */
+public class CacheMetrics implements MeterBinder {
+
+    // Caches to publish, in the order they were added
+    private final List<MonitoredCache> caches = new ArrayList<>();
+
+    /**
+     * Adds a cache shared by every route.
+     *
+     * @param name  The name of the cache.
+     * @param cache The cache.
+     * @return This CacheMetrics.
+     */
+    public CacheMetrics monitor(String name, Cache<?, ?> cache) {
+        return monitor(name, METRICS_NO_ROUTE, cache);
+    }
+
+    /**
+     * Adds the cache of a route.
+     *
+     * @param name  The name of the cache.
+     * @param route The name of the route.
+     * @param cache The cache.
+     * @return This CacheMetrics.
+     */
+    public CacheMetrics monitor(String name, String route, Cache<?, ?> cache) {
+        caches.add(new MonitoredCache(name, Tags.of("route", route), cache));
+        return this;
+    }
+
+    /**
+     * Adds the cache of every route of a route table.
+     *
+     * @param name       The name of the route caches.
+     * @param routeTable The route table.
+     * @param toCache    The function returning the Caffeine cache of a route, e.g. the synchronous view of an AsyncCache.
+     * @return This CacheMetrics.
+     */
+    public <C> CacheMetrics monitor(String name, RouteTable<C> routeTable, Function<C, Cache<?, ?>> toCache) {
+        for (RouteTable.Route<C> route : routeTable.getRoutes()) {
+            monitor(name, route.getPolicy().getName(), toCache.apply(route.getCache()));
+        }
+        return this;
+    }
+
+    /**
+     * Adds the off-heap tier. Its weighed size is the off-heap memory it holds.
+     *
+     * @param offHeapStore The off-heap tier.
+     * @return This CacheMetrics.
+     */
+    public CacheMetrics monitor(OffHeapStore offHeapStore) {
+        return monitor("offheap", offHeapStore.getEntries());
+    }
+
+    /**
+     * Adds the store of the last good responses.
+     *
+     * @param staleStore The stale store.
+     * @return This CacheMetrics.
+     */
+    public CacheMetrics monitor(StaleStore staleStore) {
+        return monitor("stale", staleStore.getResponses());
+    }
+
+    /**
+     * Registers the statistics and the weighed size of every added cache.
+     *
+     * @param registry The registry to register the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (MonitoredCache monitoredCache : caches) {
+            new CaffeineCacheMetrics<>(monitoredCache.cache, monitoredCache.name, monitoredCache.tags).bindTo(registry);
+            Gauge.builder("readcache.cache.weight", monitoredCache.cache, CacheMetrics::weightedSize)
+                    .description("Weighed size of the entries of the cache")
+                    .tag("cache", monitoredCache.name)
+                    .tags(monitoredCache.tags)
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Returns the weighed size of a cache.
+     *
+     * @param cache The cache.
+     * @return The sum of the weights of its entries, or 0 if it's not bounded by weight.
+     */
+    private static double weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    /**
+     * MonitoredCache is a cache to publish, with its name and tags.
+     */
+    @AllArgsConstructor
+    private static class MonitoredCache {
+
+        // Name of the cache, the cache tag of its meters
+        private final String name;
+
+        // Other tags of its meters
+        private final Tags tags;
+
+        // The cache
+        private final Cache<?, ?> cache;
+    }
+}
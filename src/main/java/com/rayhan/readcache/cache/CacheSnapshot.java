@@ -0,0 +1,197 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.client.CachedPage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CacheSnapshot is a point-in-time copy of the cached responses and of the pages kept for conditional requests,
+ * written to local disk on shutdown and read back on startup.
+ * The file is a gzip compressed stream of length-prefixed records. Responses are stored without their gzip variant,
+ * which is cheaper to compress again on restore than to keep on disk.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheSnapshot {
+
+    // Marks the file as a snapshot, "RCSN"
+    private static final int MAGIC = 0x5243534E;
+
+    // Format version, changed whenever the record layout changes
+    private static final int VERSION = 1;
+
+    // Wall-clock time the snapshot was taken, in epoch milliseconds
+    private final long takenAt;
+
+    // Cached responses with their age when the snapshot was taken
+    private final List<SnapshotResponse> responses;
+
+    // Pages with their validators, keyed by page URI
+    private final Map<URI, CachedPage> pages;
+
+    /**
+     * Writes the snapshot to a file. It's written to a temporary file first and moved in place, so a crash while
+     * writing leaves the previous snapshot intact.
+     *
+     * @param file The snapshot file.
+     * @throws IOException If the file can't be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+                write(output);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot.
+     * @throws IOException If the file can't be read, or isn't a snapshot of this version.
+     */
+    public static CacheSnapshot readFrom(Path file) throws IOException {
+        try (InputStream fileInput = Files.newInputStream(file);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(fileInput)))) {
+            return read(input);
+        }
+    }
+
+    /**
+     * Writes the records of the snapshot.
+     */
+    private void write(DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(takenAt);
+
+        output.writeInt(responses.size());
+        for (SnapshotResponse response : responses) {
+            writeString(output, response.getPath());
+            output.writeLong(response.getAgeInMillis());
+            writeBytes(output, response.getBody());
+        }
+
+        output.writeInt(pages.size());
+        for (Map.Entry<URI, CachedPage> entry : pages.entrySet()) {
+            CachedPage page = entry.getValue();
+            writeString(output, entry.getKey().toString());
+            writeString(output, page.getEtag());
+            writeString(output, page.getLastModified());
+            writeString(output, page.getLink());
+            writeString(output, page.getBody());
+        }
+    }
+
+    /**
+     * Reads the records of a snapshot.
+     */
+    private static CacheSnapshot read(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a cache snapshot");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cache snapshot version " + version);
+        }
+        long takenAt = input.readLong();
+
+        int responseCount = input.readInt();
+        List<SnapshotResponse> responses = new ArrayList<>(Math.min(responseCount, 1024));
+        for (int i = 0; i < responseCount; i++) {
+            responses.add(new SnapshotResponse(readString(input), input.readLong(), readBytes(input)));
+        }
+
+        int pageCount = input.readInt();
+        Map<URI, CachedPage> pages = new LinkedHashMap<>();
+        for (int i = 0; i < pageCount; i++) {
+            URI uri = URI.create(readString(input));
+            pages.put(uri, new CachedPage(readString(input), readString(input), readString(input), readString(input)));
+        }
+
+        return new CacheSnapshot(takenAt, responses, pages);
+    }
+
+    /**
+     * Writes a nullable UTF-8 string. Unlike DataOutputStream.writeUTF, it's not limited to 64KB.
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        writeBytes(output, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Reads a nullable UTF-8 string.
+     */
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = readBytes(input);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Writes a nullable byte array, prefixed with its length or -1 for null.
+     */
+    private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    /**
+     * Reads a nullable byte array.
+     */
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * SnapshotResponse is a cached response of the snapshot.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SnapshotResponse {
+
+        // Normalized request path the response is cached for
+        private final String path;
+
+        // Time since the response was loaded from GitHub when the snapshot was taken
+        private final long ageInMillis;
+
+        // UTF-8 encoded response body
+        private final byte[] body;
+    }
+}
@@ -0,0 +1,99 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.client.CachedPage;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+
+import java.net.URI;
+
+/**
+ * CacheWeigher estimates the heap retained by cache entries, so Caffeine caches can be bounded by a memory budget
+ * instead of an entry count. A single paginated response can be megabytes while an organization is a few hundred
+ * bytes, so counting entries says little about the heap a cache holds.
+ * Estimates assume a 64-bit JVM with compressed oops and compact strings.
+ */
+public final class CacheWeigher {
+
+    // Heap overhead of a Caffeine cache entry: the node, its key and value references and its policy fields
+    static final int ENTRY_OVERHEAD_IN_BYTES = 64;
+
+    // Heap overhead of a String besides its characters: the String object and the header of its byte array
+    static final int STRING_OVERHEAD_IN_BYTES = 40;
+
+    // Heap overhead of a byte array besides its elements
+    static final int BYTE_ARRAY_OVERHEAD_IN_BYTES = 16;
+
+    private CacheWeigher() {
+    }
+
+    /**
+     * Weighs a cached response with its path.
+     *
+     * @param path     The path of the response.
+     * @param response The cached response.
+     * @return The weight of the entry in bytes.
+     */
+    public static int weighResponse(String path, CachedResponse response) {
+        return toWeight(ENTRY_OVERHEAD_IN_BYTES + sizeOf(path) + response.estimatedSizeInBytes());
+    }
+
+    /**
+     * Weighs the views of an organization.
+     *
+     * @param org      The organization owning the repositories.
+     * @param viewData The views of the organization.
+     * @return The weight of the entry in bytes.
+     */
+    public static int weighViewData(String org, GitHubRepoViewData viewData) {
+        return toWeight(ENTRY_OVERHEAD_IN_BYTES + sizeOf(org) + viewData.estimatedSizeInBytes());
+    }
+
+    /**
+     * Weighs a page kept for conditional requests with its URI.
+     *
+     * @param uri  The URI of the page.
+     * @param page The page with its validators and body.
+     * @return The weight of the entry in bytes.
+     */
+    public static int weighPage(URI uri, CachedPage page) {
+        return toWeight(ENTRY_OVERHEAD_IN_BYTES + sizeOf(uri.toString()) + page.estimatedSizeInBytes());
+    }
+
+    /**
+     * Estimates the heap retained by a String. Compact strings store Latin-1 text with one byte per character and
+     * any other text with two, so the characters are scanned once for the encoding.
+     *
+     * @param value The string, may be null.
+     * @return The approximate size of the string in bytes, 0 for null.
+     */
+    public static long sizeOf(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0xFF) {
+                return STRING_OVERHEAD_IN_BYTES + 2L * length;
+            }
+        }
+        return STRING_OVERHEAD_IN_BYTES + length;
+    }
+
+    /**
+     * Estimates the heap retained by a byte array.
+     *
+     * @param value The array, may be null.
+     * @return The approximate size of the array in bytes, 0 for null.
+     */
+    public static long sizeOf(byte[] value) {
+        return value == null ? 0 : BYTE_ARRAY_OVERHEAD_IN_BYTES + value.length;
+    }
+
+    /**
+     * Caps a size to the int range Caffeine weights use.
+     */
+    private static int toWeight(long sizeInBytes) {
+        return (int) Math.min(Integer.MAX_VALUE, sizeInBytes);
+    }
+}
@@ -0,0 +1,67 @@
+package com.rayhan.readcache.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * ConsistentHashRing assigns each key to one of a set of nodes. Every node is placed on a hash ring at several
+ * virtual positions, and a key belongs to the first node found clockwise from its hash.
+ * Nodes built from the same list agree on the owner of every key, and adding or removing a node only moves the keys
+ * of its own positions.
+ */
+public class ConsistentHashRing {
+
+    // Nodes keyed by their virtual positions on the ring
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * Creates a ring of the given nodes.
+     *
+     * @param nodes        The nodes sharing the keys, e.g. base URLs of the instances. Duplicates are ignored.
+     * @param virtualNodes The number of positions of each node on the ring. More positions spread keys more evenly.
+     */
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+
+        for (String node : nodes) {
+            for (int i = 0; i < Math.max(1, virtualNodes); i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Returns the node owning a key.
+     *
+     * @param key The key, e.g. a normalized request path.
+     * @return The node at or after the hash of the key on the ring.
+     */
+    public String ownerOf(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Hashes a value to a position on the ring, from the first 8 bytes of its MD5 digest. MD5 spreads similar keys
+     * such as /orgs/a and /orgs/b evenly, and every JVM computes the same position.
+     */
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = hash << 8 | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
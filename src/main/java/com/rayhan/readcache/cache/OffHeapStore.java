@@ -0,0 +1,152 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rayhan.readcache.model.CachedResponse;
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+
+/**
+ * OffHeapStore is the second cache tier behind the route caches. Responses evicted from a route cache for lack of
+ * memory are demoted here, with their bodies copied to direct buffers outside the Java heap, so they no longer add to
+ * the live set the garbage collector has to trace. A hit is served from the direct buffers without a reload from GitHub.
+ * The store has its own W-TinyLFU eviction bounded by its capacity. Evicted buffers are released when they are garbage
+ * collected, so -XX:MaxDirectMemorySize has to leave room above the capacity.
+ */
+public class OffHeapStore {
+
+    // Off-heap memory the store may hold in bytes, 0 when the tier is disabled
+    private final long capacity;
+
+    // Demoted responses keyed by path, each expiring when its route would have reloaded it
+    private final Cache<String, Entry> entries;
+
+    /**
+     * Creates an OffHeapStore holding at most the given amount of off-heap memory.
+     *
+     * @param capacity The capacity of the store in bytes, 0 to disable the tier.
+     */
+    public OffHeapStore(long capacity) {
+        this.capacity = capacity;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(capacity)
+                .weigher((String path, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, entry.response.offHeapSizeInBytes()))
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Checks if the tier is enabled.
+     *
+     * @return True if responses are demoted to the store, false otherwise.
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Copies an evicted response to off-heap memory, if it's still fresh. It expires when it reaches the given age.
+     *
+     * @param path     The path of the response.
+     * @param response The response evicted from its route cache.
+     * @param maxAge   The age after which the route reloads the response from GitHub.
+     * @return The off-heap copy of the response, or null if it was not demoted.
+     */
+    public CachedResponse demote(String path, CachedResponse response, Duration maxAge) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Duration timeToLive = maxAge.minusNanos(System.nanoTime() - response.getLoadedAt());
+        if (timeToLive.isNegative() || timeToLive.isZero() || response.getBodyBuffer().remaining() > capacity) {
+            return null;
+        }
+
+        CachedResponse offHeapResponse = response.toOffHeap();
+        entries.put(path, new Entry(offHeapResponse, timeToLive));
+        return offHeapResponse;
+    }
+
+    /**
+     * Returns the demoted response of a path.
+     *
+     * @param path The path of the response.
+     * @return The response with off-heap bodies, or null if the path is not in the store.
+     */
+    public CachedResponse get(String path) {
+        Entry entry = entries.getIfPresent(path);
+        return entry != null ? entry.response : null;
+    }
+
+    /**
+     * Performs an action for each demoted response, e.g. to write it to a cache snapshot.
+     *
+     * @param action The action taking the path and the response with off-heap bodies.
+     */
+    public void forEach(BiConsumer<String, CachedResponse> action) {
+        entries.asMap().forEach((path, entry) -> action.accept(path, entry.response));
+    }
+
+    /**
+     * Removes the demoted response of a path, once its route cache holds a newer one.
+     *
+     * @param path The path of the response.
+     */
+    public void invalidate(String path) {
+        if (isEnabled()) {
+            entries.invalidate(path);
+        }
+    }
+
+    /**
+     * Returns the cache of the demoted responses, to publish its statistics.
+     *
+     * @return The Caffeine cache of the store.
+     */
+    Cache<String, ?> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the off-heap memory held by the demoted responses.
+     *
+     * @return The size of the stored bodies in bytes.
+     */
+    public long getSizeInBytes() {
+        return entries.policy().eviction().orElseThrow().weightedSize().orElse(0L);
+    }
+
+    /**
+     * Entry is a demoted response with the time it may live in the store.
+     */
+    @AllArgsConstructor
+    private static class Entry {
+        private final CachedResponse response;
+        private final Duration timeToLive;
+    }
+
+    /**
+     * EntryExpiry expires an entry after its time to live. Reads don't extend it, and entries are never updated.
+     */
+    private static class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String path, Entry entry, long currentTime) {
+            return entry.timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String path, Entry entry, long currentTime, long currentDuration) {
+            return entry.timeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String path, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
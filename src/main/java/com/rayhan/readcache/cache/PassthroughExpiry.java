@@ -0,0 +1,39 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rayhan.readcache.model.CachedResponse;
+
+import java.time.Duration;
+
+/**
+ * PassthroughExpiry expires a passthrough response after the micro-cache TTL if it's successful, or after the negative
+ * TTL if it's an error kept by negative caching. Reads don't extend it.
+ */
+public class PassthroughExpiry implements Expiry<String, CachedResponse> {
+
+    // Time to live of a successful response
+    private final long ttlInNanos;
+
+    // Time to live of an error response
+    private final long negativeTtlInNanos;
+
+    public PassthroughExpiry(Duration ttl, Duration negativeTtl) {
+        this.ttlInNanos = ttl.toNanos();
+        this.negativeTtlInNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(String path, CachedResponse response, long currentTime) {
+        return response.isSuccessful() ? ttlInNanos : negativeTtlInNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(String path, CachedResponse response, long currentTime, long currentDuration) {
+        return expireAfterCreate(path, response, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String path, CachedResponse response, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.rayhan.readcache.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * RequestCoalescer deduplicates concurrent loads of the same key (single-flight).
+ * The first caller for a key runs the loader, every other caller arriving while that load is
+ * in flight waits for it and shares its result (or its failure).
+ * No monitor is held while loading or waiting, so on virtual threads neither the leader's upstream call nor the
+ * waiting followers pin a carrier thread.
+ *
+ * @param <K> The type of the key.
+ * @param <V> The type of the loaded value.
+ */
+public class RequestCoalescer<K, V> {
+
+    // Loads currently in progress, keyed by the key they are loading
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the loader for the given key unless a load for the same key is already in flight,
+     * in which case the result of that load is returned instead.
+     *
+     * @param key    The key to load.
+     * @param loader The function producing the value. It only runs on the leading caller's thread.
+     * @return The loaded value, shared by all concurrent callers for the key.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Waits for an in-flight load and rethrows its failure as is, so followers see the same exception as the leader.
+     */
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
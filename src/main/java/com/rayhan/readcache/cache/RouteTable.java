@@ -0,0 +1,205 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.RefreshAheadProperties;
+import com.rayhan.readcache.ReadCacheProperties.RouteProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * RouteTable maps request paths to the cacheable routes configured under "readcache.routes", each with its own cache.
+ * Patterns are compiled once when the table is built. Literal patterns are matched with a hash lookup, the others are
+ * tried from the most specific to the least specific, so "/orgs/Netflix/repos" wins over "/orgs/{org}/repos".
+ *
+ * @param <C> The type of the cache of each route.
+ */
+public class RouteTable<C> {
+
+    // Routes with a literal pattern, keyed by path
+    private final Map<String, Route<C>> literalRoutes = new HashMap<>();
+
+    // Routes with variables or wildcards, most specific first
+    private final List<Route<C>> patternRoutes = new ArrayList<>();
+
+    /**
+     * Creates a RouteTable from the configured routes, resolving the settings each route doesn't set from the
+     * cache-wide settings and creating the cache of each route.
+     *
+     * @param properties   The application properties, including the routes.
+     * @param cacheFactory The function creating the cache of a route from its resolved policy.
+     * @return RouteTable of the configured routes.
+     * @throws IllegalArgumentException If a route has no pattern, or two routes have the same pattern.
+     */
+    public static <C> RouteTable<C> of(ReadCacheProperties properties, Function<RoutePolicy, C> cacheFactory) {
+        RouteTable<C> routeTable = new RouteTable<>();
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+
+        properties.getRoutes().forEach((name, route) -> {
+            if (route.getPattern() == null) {
+                throw new IllegalArgumentException("Route " + name + " has no pattern");
+            }
+
+            RoutePolicy policy = RoutePolicy.of(name, route, properties.getCache());
+            PathPattern pattern = parser.parse(route.getPattern());
+            routeTable.add(new Route<>(pattern, policy, cacheFactory.apply(policy)));
+        });
+        routeTable.patternRoutes.sort(Comparator.comparing(Route::getPattern, PathPattern.SPECIFICITY_COMPARATOR));
+
+        return routeTable;
+    }
+
+    /**
+     * Finds the route caching the given path.
+     *
+     * @param path The normalized request path.
+     * @return The most specific route matching the path, or null if the path is not cacheable.
+     */
+    public Route<C> match(String path) {
+        Route<C> route = literalRoutes.get(path);
+        if (route != null || patternRoutes.isEmpty()) {
+            return route;
+        }
+
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (Route<C> patternRoute : patternRoutes) {
+            if (patternRoute.getPattern().matches(pathContainer)) {
+                return patternRoute;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the route caching a path the application depends on.
+     *
+     * @param path The normalized request path.
+     * @return The most specific route matching the path.
+     * @throws IllegalStateException If no route matches the path.
+     */
+    public Route<C> require(String path) {
+        Route<C> route = match(path);
+        if (route == null) {
+            throw new IllegalStateException("No route in readcache.routes matches " + path);
+        }
+        return route;
+    }
+
+    /**
+     * Returns every route of the table, literal routes first.
+     *
+     * @return Unmodifiable list of the routes.
+     */
+    public List<Route<C>> getRoutes() {
+        List<Route<C>> routes = new ArrayList<>(literalRoutes.values());
+        routes.addAll(patternRoutes);
+        return Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * Adds a route to the literal or pattern routes.
+     */
+    private void add(Route<C> route) {
+        if (!route.getPattern().hasPatternSyntax()) {
+            Route<C> existing = literalRoutes.putIfAbsent(route.getPattern().getPatternString(), route);
+            if (existing != null) {
+                throw new IllegalArgumentException("Routes " + existing.getPolicy().getName() + " and "
+                        + route.getPolicy().getName() + " have the same pattern " + route.getPattern());
+            }
+            return;
+        }
+        patternRoutes.add(route);
+    }
+
+    /**
+     * Route is a compiled route of the table, with the cache of the responses it matches.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Route<C> {
+
+        // Compiled path pattern of the route
+        private final PathPattern pattern;
+
+        // Resolved caching policy of the route
+        private final RoutePolicy policy;
+
+        // Cache of the responses of the route, keyed by path
+        private final C cache;
+    }
+
+    /**
+     * RoutePolicy is the caching policy of a route, with the settings the route doesn't set taken from the cache settings.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RoutePolicy {
+
+        // Name of the route in the configuration
+        private final String name;
+
+        // Time after which a cached response expires when refresh-ahead is disabled
+        private final Duration ttl;
+
+        // Memory budget of the cached responses in bytes
+        private final long maxWeight;
+
+        // Serve cached responses while they are reloaded in the background
+        private final boolean refreshAhead;
+
+        // Age after which a cache hit triggers a background reload
+        private final Duration softTtl;
+
+        // Age after which a response is evicted with refresh-ahead
+        private final Duration hardTtl;
+
+        /**
+         * Resolves the policy of a route.
+         *
+         * @param name  The name of the route.
+         * @param route The settings of the route.
+         * @param cache The cache-wide settings used for the settings the route doesn't set.
+         * @return RoutePolicy of the route.
+         */
+        static RoutePolicy of(String name, RouteProperties route, ReadCacheProperties.CacheProperties cache) {
+            RefreshAheadProperties refreshAhead = cache.getRefreshAhead();
+
+            return new RoutePolicy(name,
+                    route.getTtl() != null ? route.getTtl() : cache.getTtl(),
+                    (route.getMaxWeight() != null ? route.getMaxWeight() : cache.getMaxWeight()).toBytes(),
+                    route.getRefreshAhead() != null ? route.getRefreshAhead() : refreshAhead.isEnabled(),
+                    route.getSoftTtl() != null ? route.getSoftTtl() : refreshAhead.getSoftTtl(),
+                    route.getHardTtl() != null ? route.getHardTtl() : refreshAhead.getHardTtl());
+        }
+
+        /**
+         * Returns the time after which a cached response is evicted and has to be loaded on the request path.
+         *
+         * @return The hard TTL when refresh-ahead is enabled, the plain TTL otherwise.
+         */
+        public Duration getExpireAfterWrite() {
+            return refreshAhead ? hardTtl : ttl;
+        }
+
+        /**
+         * Returns the age until which a cached response is served without being reloaded from GitHub.
+         *
+         * @return The soft TTL when refresh-ahead is enabled, the plain TTL otherwise.
+         */
+        public Duration getFreshTtl() {
+            return refreshAhead ? softTtl : ttl;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rayhan.readcache.model.CachedResponse;
+import lombok.AllArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * StaleStore keeps the last good response of every cacheable path past the TTL of its route, to serve it when GitHub
+ * is failing or the circuit breaker is open. It shares the response objects with the route caches, so a response only
+ * adds to the heap once it has left its route cache. A response demoted to the off-heap tier is swapped for its
+ * off-heap copy, so the heap bodies are released instead of being held here.
+ * The store has its own W-TinyLFU eviction bounded by its capacity, counting off-heap bodies too, and drops responses
+ * once they are older than the maximum age since they were loaded.
+ */
+public class StaleStore {
+
+    // Heap the stored responses may hold in bytes, 0 when the store is disabled
+    private final long capacity;
+
+    // Last good responses keyed by path
+    private final Cache<String, CachedResponse> responses;
+
+    /**
+     * Creates a StaleStore holding at most the given amount of memory.
+     *
+     * @param capacity The capacity of the store in bytes, 0 to disable the store.
+     * @param maxAge   The age after which a response is too stale to be served.
+     */
+    public StaleStore(long capacity, Duration maxAge) {
+        this.capacity = capacity;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(capacity)
+                .weigher((String path, CachedResponse response) -> (int) Math.min(Integer.MAX_VALUE,
+                        (long) CacheWeigher.weighResponse(path, response) + response.offHeapSizeInBytes()))
+                .expireAfter(new AgeExpiry(maxAge))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Checks if the store is enabled.
+     *
+     * @return True if last good responses are kept, false otherwise.
+     */
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Keeps a successfully loaded response as the last good response of its path.
+     *
+     * @param path     The path of the response.
+     * @param response The response loaded from GitHub.
+     */
+    public void put(String path, CachedResponse response) {
+        if (isEnabled() && response.isSuccessful()) {
+            responses.put(path, response);
+        }
+    }
+
+    /**
+     * Swaps a response demoted to the off-heap tier for its off-heap copy, if it's still the last good response of its
+     * path, so the store no longer holds its heap bodies.
+     *
+     * @param path            The path of the response.
+     * @param response        The heap response evicted from its route cache.
+     * @param offHeapResponse The off-heap copy of the response.
+     */
+    public void demoted(String path, CachedResponse response, CachedResponse offHeapResponse) {
+        if (isEnabled()) {
+            responses.asMap().replace(path, response, offHeapResponse);
+        }
+    }
+
+    /**
+     * Returns the last good response of a path.
+     *
+     * @param path The path of the response.
+     * @return The last good response, or null if the path is not in the store.
+     */
+    public CachedResponse get(String path) {
+        return isEnabled() ? responses.getIfPresent(path) : null;
+    }
+
+    /**
+     * Returns the cache of the last good responses, to publish its statistics.
+     *
+     * @return The Caffeine cache of the store.
+     */
+    Cache<String, CachedResponse> getResponses() {
+        return responses;
+    }
+
+    /**
+     * AgeExpiry expires a response when it reaches the maximum age since it was loaded, so swapping it for its off-heap
+     * copy doesn't extend its life. Reads don't extend it either.
+     */
+    @AllArgsConstructor
+    private static class AgeExpiry implements Expiry<String, CachedResponse> {
+        private final Duration maxAge;
+
+        @Override
+        public long expireAfterCreate(String path, CachedResponse response, long currentTime) {
+            return Math.max(0, maxAge.toNanos() - (currentTime - response.getLoadedAt()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String path, CachedResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(path, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String path, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
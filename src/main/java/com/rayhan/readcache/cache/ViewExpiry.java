@@ -0,0 +1,81 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rayhan.readcache.cache.RouteTable.Route;
+import com.rayhan.readcache.cache.RouteTable.RoutePolicy;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.utils.GitHubPaths;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * ViewExpiry expires the views of an organization with the repositories response they were built from: once that
+ * response reaches the TTL of the route caching the repositories of the organization. Each organization follows its
+ * own route, and views built from an aged response only live for what's left of its TTL. Reads don't extend it.
+ */
+public class ViewExpiry implements Expiry<String, GitHubRepoViewData> {
+
+    // Cacheable endpoints, matched against the repositories path of each organization
+    private final RouteTable<?> routeTable;
+
+    // Time to live of the responses of a route
+    private final Function<RoutePolicy, Duration> ttlOfPolicy;
+
+    /**
+     * Creates an expiry of views under the routes of a route table.
+     *
+     * @param routeTable  The route table caching the repositories of each organization.
+     * @param ttlOfPolicy The time to live of the responses of a route, from its policy.
+     */
+    public ViewExpiry(RouteTable<?> routeTable, Function<RoutePolicy, Duration> ttlOfPolicy) {
+        this.routeTable = routeTable;
+        this.ttlOfPolicy = ttlOfPolicy;
+    }
+
+    /**
+     * Returns what's left of the TTL of the repositories response the views were built from.
+     *
+     * @param org         The organization owning the repositories.
+     * @param viewData    The views of the organization.
+     * @param currentTime The current ticker time, in nanoseconds.
+     * @return The nanoseconds until the views expire.
+     */
+    @Override
+    public long expireAfterCreate(String org, GitHubRepoViewData viewData, long currentTime) {
+        Route<?> route = routeTable.match(GitHubPaths.reposPath(org));
+        // Views of repositories no route caches are not kept
+        if (route == null) {
+            return 0;
+        }
+        return Math.max(0, ttlOfPolicy.apply(route.getPolicy()).toNanos() - (currentTime - viewData.getLoadedAt()));
+    }
+
+    /**
+     * Returns what's left of the TTL of the repositories response the new views were built from.
+     *
+     * @param org             The organization owning the repositories.
+     * @param viewData        The new views of the organization.
+     * @param currentTime     The current ticker time, in nanoseconds.
+     * @param currentDuration The nanoseconds until the previous views expired.
+     * @return The nanoseconds until the views expire.
+     */
+    @Override
+    public long expireAfterUpdate(String org, GitHubRepoViewData viewData, long currentTime, long currentDuration) {
+        return expireAfterCreate(org, viewData, currentTime);
+    }
+
+    /**
+     * Keeps the expiry of the views, as reads don't make their repositories any fresher.
+     *
+     * @param org             The organization owning the repositories.
+     * @param viewData        The views of the organization.
+     * @param currentTime     The current ticker time, in nanoseconds.
+     * @param currentDuration The nanoseconds until the views expire.
+     * @return The unchanged nanoseconds until the views expire.
+     */
+    @Override
+    public long expireAfterRead(String org, GitHubRepoViewData viewData, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,84 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.cache.CacheWeigher;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * CachedPage keeps the validators and the body of a previously fetched page of a GitHub API resource.
+ * It's used to send conditional requests and to serve the page body again when GitHub answers with 304 Not Modified.
+ */
+@AllArgsConstructor
+@Getter
+public class CachedPage {
+
+    // Value of the ETag response header, sent back as If-None-Match
+    private final String etag;
+
+    // Value of the Last-Modified response header, sent back as If-Modified-Since when there is no ETag
+    private final String lastModified;
+
+    // Value of the Link response header, needed to follow pagination when the page is not modified
+    private final String link;
+
+    // Body of the page
+    private final String body;
+
+    /**
+     * Creates a CachedPage from a response if it carries a body and at least one validator.
+     *
+     * @param response The HTTP response.
+     * @return The CachedPage, or null if the response can't be revalidated.
+     */
+    static CachedPage fromResponse(ResponseEntity<String> response) {
+        HttpHeaders headers = response.getHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        if (response.getBody() == null || (etag == null && lastModified == null)) {
+            return null;
+        }
+
+        return new CachedPage(etag, lastModified, headers.getFirst(HttpHeaders.LINK), response.getBody());
+    }
+
+    /**
+     * Estimates the heap retained by the page, to weigh it against the memory budget of the page cache.
+     *
+     * @return The approximate size of the validators and the body in bytes.
+     */
+    public long estimatedSizeInBytes() {
+        return 24 + CacheWeigher.sizeOf(etag) + CacheWeigher.sizeOf(lastModified) + CacheWeigher.sizeOf(link) + CacheWeigher.sizeOf(body);
+    }
+
+    /**
+     * Adds the conditional request headers for this page.
+     *
+     * @param headers The request headers.
+     */
+    void addConditionalHeaders(HttpHeaders headers) {
+        if (etag != null) {
+            headers.add(HttpHeaders.IF_NONE_MATCH, etag);
+        } else {
+            headers.add(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * Rebuilds the response of this page for a 304 Not Modified answer, with the cached body and Link header.
+     *
+     * @return The HTTP response with status NOT_MODIFIED.
+     */
+    ResponseEntity<String> toNotModifiedResponse() {
+        HttpHeaders headers = new HttpHeaders();
+
+        if (link != null) {
+            headers.add(HttpHeaders.LINK, link);
+        }
+
+        return new ResponseEntity<>(body, headers, HttpStatus.NOT_MODIFIED);
+    }
+}
@@ -0,0 +1,221 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.CircuitBreakerProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CircuitBreaker stops sending requests to GitHub while it's failing or too slow.
+ * The outcomes of the last calls are kept in a sliding window. Once it holds the minimum number of calls and the share
+ * of failed or slow calls reaches the threshold, the circuit opens and every call is rejected right away. After the
+ * open duration, the circuit is half-open: a single probe call is let through, closing the circuit if it succeeds and
+ * opening it again otherwise.
+ * Each state change starts a new generation, and acquire returns the generation a call is admitted in. Outcomes of
+ * calls admitted in an earlier generation are ignored, so a straggler can't decide the probe or count in a new window.
+ * The state is guarded by the monitor of the breaker, which is never held while a call is running.
+ */
+@Slf4j
+public class CircuitBreaker implements MeterBinder {
+
+    /**
+     * State of the circuit.
+     */
+    public enum State {
+        // Calls are sent and their outcomes recorded
+        CLOSED,
+        // Calls are rejected until the open duration elapses
+        OPEN,
+        // A single probe call is sent to find out if GitHub recovered
+        HALF_OPEN
+    }
+
+    // Thresholds, window size and open duration of the breaker
+    private final CircuitBreakerProperties properties;
+
+    // Clock telling how long the circuit has been open
+    private final Clock clock;
+
+    // Outcomes of the last calls in a ring, true for a failed or slow call
+    private final boolean[] outcomes;
+
+    // Number of outcomes in the window, up to its size
+    private int recordedCalls;
+
+    // Number of failed or slow calls in the window
+    private int failedCalls;
+
+    // Position of the next outcome in the ring
+    private int nextOutcome;
+
+    // Current state of the circuit
+    private State state = State.CLOSED;
+
+    // Time the circuit opened, in epoch milliseconds
+    private long openedAt;
+
+    // True while the probe call of the half-open circuit is running
+    private boolean probeInFlight;
+
+    // Generation of the current state, incremented on every state change
+    private long generation;
+
+    // Number of calls rejected while the circuit was open or half-open
+    private final AtomicLong rejectedCalls = new AtomicLong();
+
+    public CircuitBreaker(CircuitBreakerProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.outcomes = new boolean[Math.max(1, properties.getWindowSize())];
+    }
+
+    /**
+     * Admits a call to GitHub. Every admitted call has to be followed by onSuccess or onFailure with the returned
+     * generation.
+     *
+     * @return The generation the call is admitted in.
+     * @throws CircuitOpenException If the circuit is open, or half-open with its probe call running.
+     */
+    public synchronized long acquire() {
+        if (!properties.isEnabled()) {
+            return generation;
+        }
+
+        if (state == State.OPEN) {
+            if (clock.millis() - openedAt < properties.getOpenDuration().toMillis()) {
+                reject();
+            }
+            log.info("Circuit breaker half-open, probing GitHub");
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            generation++;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                reject();
+            }
+            probeInFlight = true;
+        }
+        return generation;
+    }
+
+    /**
+     * Records a call GitHub answered, including client errors. A call slower than the slow call threshold counts as failed.
+     *
+     * @param generation      The generation acquire admitted the call in.
+     * @param durationInNanos The duration of the call.
+     */
+    public void onSuccess(long generation, long durationInNanos) {
+        record(generation, durationInNanos >= properties.getSlowCallThreshold().toNanos());
+    }
+
+    /**
+     * Records a call that failed with a server error, a timeout or an I/O error.
+     *
+     * @param generation The generation acquire admitted the call in.
+     */
+    public void onFailure(long generation) {
+        record(generation, true);
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return The state, OPEN until a call is admitted after the open duration.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Registers the state of the circuit and the rejected calls as metrics.
+     *
+     * @param registry The registry to register the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("readcache.upstream.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("State of the GitHub circuit breaker: 0 closed, 1 open, 2 half-open")
+                .register(registry);
+        FunctionCounter.builder("readcache.upstream.circuit.rejected", rejectedCalls, AtomicLong::get)
+                .description("GitHub calls rejected by the open circuit breaker")
+                .register(registry);
+    }
+
+    /**
+     * Records the outcome of an admitted call, and opens or closes the circuit accordingly.
+     *
+     * @param generation The generation acquire admitted the call in.
+     * @param failed     True for a failed or slow call.
+     */
+    private synchronized void record(long generation, boolean failed) {
+        // Calls admitted before the last state change, like the ones still running when the circuit opened, don't
+        // decide the probe nor count for the next window
+        if (!properties.isEnabled() || generation != this.generation) {
+            return;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open("the probe call failed");
+            } else {
+                log.info("Circuit breaker closed, GitHub recovered");
+                state = State.CLOSED;
+                probeInFlight = false;
+                this.generation++;
+                clearWindow();
+            }
+            return;
+        }
+
+        if (recordedCalls == outcomes.length) {
+            failedCalls -= outcomes[nextOutcome] ? 1 : 0;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextOutcome] = failed;
+        failedCalls += failed ? 1 : 0;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+
+        if (recordedCalls >= properties.getMinimumCalls() && failedCalls * 100 >= properties.getFailureRateThreshold() * recordedCalls) {
+            open(failedCalls + " failed or slow calls of " + recordedCalls);
+        }
+    }
+
+    /**
+     * Opens the circuit for the open duration.
+     *
+     * @param reason Why the circuit opens, for the log.
+     */
+    private void open(String reason) {
+        log.warn("Circuit breaker opened after {}, rejecting GitHub calls for {}", reason, properties.getOpenDuration());
+        state = State.OPEN;
+        openedAt = clock.millis();
+        probeInFlight = false;
+        generation++;
+        clearWindow();
+    }
+
+    /**
+     * Forgets the outcomes of the window.
+     */
+    private void clearWindow() {
+        recordedCalls = 0;
+        failedCalls = 0;
+        nextOutcome = 0;
+    }
+
+    /**
+     * Rejects a call.
+     */
+    private void reject() {
+        rejectedCalls.incrementAndGet();
+        throw new CircuitOpenException("GitHub circuit breaker is " + state);
+    }
+}
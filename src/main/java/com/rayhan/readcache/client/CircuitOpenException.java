@@ -0,0 +1,16 @@
+package com.rayhan.readcache.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * CircuitOpenException is thrown when a GitHub request is not sent because the circuit breaker is open.
+ * It's answered with 503 Service Unavailable, also when it's the cause of another exception.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
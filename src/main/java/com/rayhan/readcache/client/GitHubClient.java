@@ -1,23 +1,33 @@
 package com.rayhan.readcache.client;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.rayhan.readcache.client.UpstreamScheduler.Priority;
+import com.rayhan.readcache.utils.JsonArrayMerger;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
 
 import static com.rayhan.readcache.constants.ApplicationConstant.ACCEPT_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_NUMBER_REGEX;
+import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_PARAM;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_REMAINING_HEADER;
 import static com.rayhan.readcache.constants.ApplicationConstant.TOKEN_PREFIX;
 
 /**
@@ -28,6 +38,9 @@ import static com.rayhan.readcache.constants.ApplicationConstant.TOKEN_PREFIX;
 @Slf4j
 @Getter
 public class GitHubClient {
+    // Page number of a rel="last" link the pages can be fetched concurrently for: non-empty and within int range
+    private static final Pattern PAGE_NUMBER = Pattern.compile(PAGE_NUMBER_REGEX);
+
 
     // Base URL for GitHub API
     private final String baseUrl;
@@ -44,72 +57,347 @@ public class GitHubClient {
     // ObjectMapper for JSON processing
     private final ObjectMapper mapper;
 
+    // Validators and bodies of previously fetched pages, keyed by page URI. Conditional requests are disabled when null.
+    private final Cache<URI, CachedPage> pageCache;
+
+    // Bounded executor fetching the pages after the first one concurrently. Pages are read sequentially when null.
+    private final Executor pageExecutor;
+
+    // Scheduler admitting requests against the rate-limit quota. Requests are sent unconditionally when null.
+    private final UpstreamScheduler upstreamScheduler;
+
+    // Circuit breaker rejecting requests while GitHub is failing or too slow. Requests are always sent when null.
+    private final CircuitBreaker circuitBreaker;
+
+    // Latency, size and in-flight metrics of the requests, recorded to no registry until bound to one
+    @Builder.Default
+    private final UpstreamMetrics upstreamMetrics = new UpstreamMetrics();
+
     /**
-     * Reads paginated data from the specified path in the GitHub API.
+     * Reads paginated data from the specified path in the GitHub API, for a passthrough request. It leaves the reserve
+     * of the rate-limit quota to cacheable data.
      *
      * @param path The path to the GitHub API resource.
      * @return A JSON string containing paginated data.
      */
     public String readPaginatedData(String path) {
+        return read(path, false, Priority.PASSTHROUGH).getBody();
+    }
+
+    /**
+     * Reads paginated data from the specified path in the GitHub API, revalidating previously fetched pages.
+     * Pages GitHub answers with 304 Not Modified are served from the page cache. If every page is unchanged and the
+     * caller still holds the result of the previous read, the pages are not merged again and no body is returned.
+     * With a page executor, the pages after the first one are fetched concurrently and merged in page order.
+     * It loads cacheable data, which may use the whole rate-limit quota.
+     *
+     * @param path            The path to the GitHub API resource.
+     * @param hasPreviousBody True if the caller holds the result of the previous read of the path and can reuse it.
+     * @return The paginated data, and whether it's unchanged since the previous read.
+     */
+    public PaginatedResponse readPaginatedDataIfModified(String path, boolean hasPreviousBody) {
+        return read(path, hasPreviousBody, Priority.CACHE);
+    }
+
+    /**
+     * Reads paginated data from the specified path in the GitHub API, revalidating previously fetched pages.
+     *
+     * @param path            The path to the GitHub API resource.
+     * @param hasPreviousBody True if the caller holds the result of the previous read of the path and can reuse it.
+     * @param priority        The priority of the page requests against the rate-limit quota.
+     * @return The paginated data, and whether it's unchanged since the previous read.
+     */
+    private PaginatedResponse read(String path, boolean hasPreviousBody, Priority priority) {
+        long start = upstreamMetrics.startRead();
+        try {
+            return readPages(path, hasPreviousBody, priority);
+        } finally {
+            upstreamMetrics.endRead(start, priority);
+        }
+    }
+
+    /**
+     * Reads and merges the pages of paginated data, revalidating previously fetched pages.
+     *
+     * @param path            The path to the GitHub API resource.
+     * @param hasPreviousBody True if the caller holds the result of the previous read of the path and can reuse it.
+     * @param priority        The priority of the page requests against the rate-limit quota.
+     * @return The paginated data, and whether it's unchanged since the previous read.
+     */
+    private PaginatedResponse readPages(String path, boolean hasPreviousBody, Priority priority) {
         URI uri = UriComponentsBuilder.fromUriString(baseUrl + path)
                 .queryParam("per_page", pageSize)
                 .build()
                 .toUri();
 
-        var result = mapper.createArrayNode();
+        ResponseEntity<String> firstPage = send(uri, priority);
+        List<ResponseEntity<String>> pages = pageExecutor != null ? readRemainingPagesInParallel(firstPage, priority) : null;
 
-        while (uri != null) {
-            ResponseEntity<String> response = send(uri);
-            try {
-                // If the response body is null or not an array, we don't need pagination check. Just return.
-                if (response.getBody() == null || !isArrayResponse(response)) {
-                    return response.getBody();
-                }
-            } catch (JsonProcessingException e) {
-                log.error("Malformatted JSON response: {}", response);
-                throw new RuntimeException(e);
-            }
-            uri = getNextPageLinkFromResponseHeader(response);
-            try {
-                result.addAll(mapper.readValue(response.getBody(), ArrayNode.class));
-            } catch (JsonProcessingException e) {
-                log.error("Failed to process JSON response");
-                throw new RuntimeException(e);
-            }
+        if (pages == null) {
+            pages = readRemainingPagesSequentially(firstPage, priority);
         }
 
-        return result.toString();
+        upstreamMetrics.recordPages(pages.size());
+        boolean notModified = pages.stream().allMatch(GitHubClient::isNotModified);
+
+        if (notModified && hasPreviousBody) {
+            return new PaginatedResponse(null, true);
+        }
+
+        // If a response body is null or not an array, it's not paginated and is returned as is
+        return new PaginatedResponse(JsonArrayMerger.merge(mapper.getFactory(), pages.stream().map(ResponseEntity::getBody).toList()), notModified);
     }
 
     /**
-     * Checks if the response body is an array.
+     * Fetches all pages after the first one by following the rel="next" link of each page.
      *
-     * @param response The HTTP response.
-     * @return True if the response body is an array, false otherwise.
-     * @throws JsonProcessingException If there is an issue processing the JSON response.
+     * @param firstPage The HTTP response of the first page.
+     * @param priority  The priority of the page requests.
+     * @return The HTTP responses of all pages in page order.
      */
-    private boolean isArrayResponse(ResponseEntity<String> response) throws JsonProcessingException {
-        JsonNode jsonNode = mapper.readTree(response.getBody());
-        return jsonNode != null && jsonNode.isArray();
+    private List<ResponseEntity<String>> readRemainingPagesSequentially(ResponseEntity<String> firstPage, Priority priority) {
+        List<ResponseEntity<String>> pages = new ArrayList<>();
+        ResponseEntity<String> page = firstPage;
+
+        while (page != null) {
+            pages.add(page);
+            URI uri = getNextPageLinkFromResponseHeader(page);
+            page = uri != null ? send(uri, priority) : null;
+        }
+
+        return pages;
+    }
+
+    /**
+     * Fetches all pages after the first one concurrently on the page executor.
+     * The page count is taken from the rel="last" link of the first page, so no page has to wait for the previous one.
+     *
+     * @param firstPage The HTTP response of the first page.
+     * @param priority  The priority of the page requests.
+     * @return The HTTP responses of all pages in page order, or null if the page count is unknown.
+     */
+    private List<ResponseEntity<String>> readRemainingPagesInParallel(ResponseEntity<String> firstPage, Priority priority) {
+        List<URI> remainingPageUris = getRemainingPageUris(firstPage);
+        if (remainingPageUris == null) {
+            return null;
+        }
+
+        List<CompletableFuture<ResponseEntity<String>>> remainingPages = new ArrayList<>();
+        for (URI pageUri : remainingPageUris) {
+            remainingPages.add(CompletableFuture.supplyAsync(() -> send(pageUri, priority), pageExecutor));
+        }
+
+        List<ResponseEntity<String>> pages = new ArrayList<>();
+        pages.add(firstPage);
+        try {
+            for (CompletableFuture<ResponseEntity<String>> remainingPage : remainingPages) {
+                pages.add(remainingPage.join());
+            }
+        } catch (CompletionException e) {
+            remainingPages.forEach(remainingPage -> remainingPage.cancel(false));
+            // Surface the failure of the page like a sequential read would
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+
+        return pages;
     }
 
     /**
      * Sends an HTTP GET request to the specified URI.
      *
-     * @param uri The URI of the request.
+     * If the page was fetched before, the request is conditional and a 304 Not Modified answer
+     * is returned with the cached body and Link header of the page.
+     * The request is admitted against the rate-limit quota first. If it's held back, or GitHub answers that the rate
+     * limit is exceeded, a previously fetched page is served as not modified instead of failing.
+     * While the circuit breaker is open, the request fails right away with a CircuitOpenException.
+     *
+     * @param uri      The URI of the request.
+     * @param priority The priority of the request against the rate-limit quota.
      * @return The HTTP response.
      */
-    ResponseEntity<String> send(URI uri) {
+    ResponseEntity<String> send(URI uri, Priority priority) {
+        CachedPage cachedPage = pageCache != null ? pageCache.getIfPresent(uri) : null;
         HttpHeaders headers = new HttpHeaders();
+        addRequestHeaders(headers, apiToken, cachedPage);
+
+        ResponseEntity<String> response;
+        try {
+            if (upstreamScheduler != null) {
+                upstreamScheduler.acquire(priority);
+            }
+            response = exchange(new RequestEntity<>(headers, HttpMethod.GET, uri));
+        } catch (RateLimitedException e) {
+            return serveCachedPage(uri, cachedPage, e);
+        } catch (HttpStatusCodeException e) {
+            if (upstreamScheduler != null) {
+                upstreamScheduler.update(e.getResponseHeaders());
+            }
+            if (isRateLimited(e)) {
+                return serveCachedPage(uri, cachedPage, e);
+            }
+            throw e;
+        }
+
+        if (upstreamScheduler != null) {
+            upstreamScheduler.update(response.getHeaders());
+        }
+        return updatePageCache(pageCache, uri, cachedPage, response);
+    }
+
+    /**
+     * Sends a request through the circuit breaker, recording its latency and outcome. Server errors, timeouts and I/O
+     * errors count as failures for the breaker. Any other answer of GitHub, including client errors, counts as a success
+     * unless it was too slow.
+     *
+     * @param request The request.
+     * @return The HTTP response.
+     * @throws CircuitOpenException If the circuit breaker is open.
+     */
+    private ResponseEntity<String> exchange(RequestEntity<Void> request) {
+        long generation = circuitBreaker != null ? circuitBreaker.acquire() : 0;
+
+        long start = upstreamMetrics.startPage();
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+            long duration = upstreamMetrics.endPage(start, response.getStatusCode(), response.getBody());
+            if (circuitBreaker != null) {
+                circuitBreaker.onSuccess(generation, duration);
+            }
+            return response;
+        } catch (HttpStatusCodeException e) {
+            long duration = upstreamMetrics.endPage(start, e.getStatusCode(), null);
+            if (circuitBreaker != null) {
+                if (e.getStatusCode().is5xxServerError()) {
+                    circuitBreaker.onFailure(generation);
+                } else {
+                    circuitBreaker.onSuccess(generation, duration);
+                }
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            upstreamMetrics.endPage(start, null, null);
+            if (circuitBreaker != null) {
+                circuitBreaker.onFailure(generation);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Serves a previously fetched page as not modified, when GitHub can't be asked for it because of the rate limit.
+     *
+     * @param uri        The URI of the page.
+     * @param cachedPage The previously fetched page, may be null.
+     * @param e          The exception of the rate-limited request.
+     * @return The HTTP response with status NOT_MODIFIED and the cached page.
+     * @throws RuntimeException The exception of the request, if the page was never fetched.
+     */
+    private static ResponseEntity<String> serveCachedPage(URI uri, CachedPage cachedPage, RuntimeException e) {
+        if (cachedPage == null) {
+            throw e;
+        }
+
+        log.debug("Rate limited, serving previously fetched page: {}", uri);
+        return cachedPage.toNotModifiedResponse();
+    }
+
+    /**
+     * Checks if GitHub rejected a request because a primary or secondary rate limit is exceeded.
+     *
+     * @param e The exception of the request.
+     * @return True for a 429 answer, or a 403 answer with no quota left or a Retry-After header.
+     */
+    public static boolean isRateLimited(HttpStatusCodeException e) {
+        if (e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return true;
+        }
+
+        HttpHeaders headers = e.getResponseHeaders();
+        return e.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN) && headers != null
+                && ("0".equals(headers.getFirst(RATE_LIMIT_REMAINING_HEADER)) || headers.getFirst(HttpHeaders.RETRY_AFTER) != null);
+    }
+
+    /**
+     * Adds the headers of a page request: the accepted media type, the API token and, if the page was fetched before,
+     * the conditional request headers.
+     *
+     * @param headers    The request headers.
+     * @param apiToken   The API token, may be null.
+     * @param cachedPage The previously fetched page, may be null.
+     */
+    static void addRequestHeaders(HttpHeaders headers, String apiToken, CachedPage cachedPage) {
         headers.add(HttpHeaders.ACCEPT, ACCEPT_HEADER);
 
         if (apiToken != null) {
             headers.add(HttpHeaders.AUTHORIZATION, TOKEN_PREFIX + " " + apiToken);
         }
 
-        RequestEntity<Void> requestEntity = new RequestEntity<>(headers, HttpMethod.GET, uri);
+        if (cachedPage != null) {
+            cachedPage.addConditionalHeaders(headers);
+        }
+    }
+
+    /**
+     * Stores the validators of a fetched page in the page cache, or rebuilds the page from the cache on 304 Not Modified.
+     *
+     * @param pageCache  The page cache, may be null when conditional requests are disabled.
+     * @param uri        The URI of the page.
+     * @param cachedPage The previously fetched page the request was conditional on, may be null.
+     * @param response   The HTTP response of the page.
+     * @return The HTTP response, with the cached body and Link header if the page is not modified.
+     */
+    static ResponseEntity<String> updatePageCache(Cache<URI, CachedPage> pageCache, URI uri, CachedPage cachedPage, ResponseEntity<String> response) {
+        if (cachedPage != null && isNotModified(response)) {
+            log.trace("Page not modified: {}", uri);
+            return cachedPage.toNotModifiedResponse();
+        }
+
+        if (pageCache != null) {
+            CachedPage page = CachedPage.fromResponse(response);
+            if (page != null) {
+                pageCache.put(uri, page);
+            } else {
+                pageCache.invalidate(uri);
+            }
+        }
 
-        return restTemplate.exchange(requestEntity, String.class);
+        return response;
+    }
+
+    /**
+     * Builds the URIs of all pages after the first one from the rel="last" link of the first page.
+     *
+     * @param firstPage The HTTP response of the first page.
+     * @return The URIs of pages 2 to last in page order, or null if the page count is unknown or malformed, to page
+     * through sequentially instead.
+     */
+    static List<URI> getRemainingPageUris(ResponseEntity<String> firstPage) {
+        URI lastPage = getPageLinkFromResponseHeader(firstPage, "last");
+        String lastPageNumber = lastPage == null ? null : UriComponentsBuilder.fromUri(lastPage).build().getQueryParams().getFirst(PAGE_PARAM);
+        if (lastPageNumber == null || !PAGE_NUMBER.matcher(lastPageNumber).matches()) {
+            return null;
+        }
+
+        int lastPageIndex = Integer.parseInt(lastPageNumber);
+        List<URI> pageUris = new ArrayList<>();
+        for (int page = 2; page <= lastPageIndex; page++) {
+            pageUris.add(UriComponentsBuilder.fromUri(lastPage).replaceQueryParam(PAGE_PARAM, page).build(true).toUri());
+        }
+
+        return pageUris;
+    }
+
+    /**
+     * Checks if GitHub answered with 304 Not Modified.
+     *
+     * @param response The HTTP response.
+     * @return True if the response status is NOT_MODIFIED, false otherwise.
+     */
+    static boolean isNotModified(ResponseEntity<String> response) {
+        return response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED);
     }
 
     /**
@@ -119,7 +407,18 @@ public class GitHubClient {
      * @param response The HTTP response.
      * @return The URI of the next page, or null if there is no next page.
      */
-    URI getNextPageLinkFromResponseHeader(ResponseEntity<String> response) {
+    static URI getNextPageLinkFromResponseHeader(ResponseEntity<String> response) {
+        return getPageLinkFromResponseHeader(response, "next");
+    }
+
+    /**
+     * Extracts the link with the given relation, like "next" or "last", from the 'Link' header in the HTTP response.
+     *
+     * @param response The HTTP response.
+     * @param relation The relation of the link.
+     * @return The URI of the link, or null if there is no such link.
+     */
+    static URI getPageLinkFromResponseHeader(ResponseEntity<String> response, String relation) {
         final String LINK_SEPARATOR = ",";
         final String PARAM_SEPARATOR = ";";
 
@@ -135,7 +434,7 @@ public class GitHubClient {
 
         for (String link : links) {
             String trimmedLink = link.trim();
-            if (trimmedLink.endsWith("rel=\"next\"")) {
+            if (trimmedLink.endsWith("rel=\"" + relation + "\"")) {
                 String[] parts = trimmedLink.split(PARAM_SEPARATOR);
                 String firstPart = parts[0].trim();
 
@@ -0,0 +1,18 @@
+package com.rayhan.readcache.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * PaginatedResponse is the result of a conditional paginated read from the GitHub API.
+ */
+@AllArgsConstructor
+@Getter
+public class PaginatedResponse {
+
+    // JSON string containing the merged data of all pages, null when the caller's previous result is still valid
+    private final String body;
+
+    // True if GitHub answered 304 Not Modified for every page, so data derived from the previous read is still valid
+    private final boolean notModified;
+}
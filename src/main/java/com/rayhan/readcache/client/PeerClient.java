@@ -0,0 +1,140 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.ClusterProperties;
+import com.rayhan.readcache.cache.ConsistentHashRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.PEER_REQUEST_HEADER;
+
+/**
+ * PeerClient reads cacheable responses from the other proxy instances in cluster mode.
+ * Every cache key is owned by one instance of the static peer list, picked by consistent hashing, and only the owner
+ * loads it from GitHub. The other instances fill their cache from the owner, so upstream load doesn't grow with the
+ * number of replicas.
+ * A peer that fails to answer is skipped for the backoff duration: its paths are loaded from GitHub meanwhile, rather
+ * than every miss waiting for the connect timeout of an unreachable owner.
+ */
+@Slf4j
+public class PeerClient {
+
+    // Base URL of this instance on the ring, or null when cluster mode is disabled
+    private final String self;
+
+    // Ring of the base URLs of all instances, or null when cluster mode is disabled
+    private final ConsistentHashRing ring;
+
+    // RestTemplate for making HTTP requests to the peers
+    private final RestTemplate restTemplate;
+
+    // Time a peer that failed to answer is skipped for
+    private final Duration backoff;
+
+    // Clock telling when a skipped peer is tried again
+    private final Clock clock;
+
+    // Epoch millis until which each failed peer is skipped
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a PeerClient for the configured cluster.
+     *
+     * @param properties   The cluster settings.
+     * @param restTemplate The RestTemplate for requests to the peers.
+     * @param clock        The clock timing the backoff of failed peers.
+     */
+    public PeerClient(ClusterProperties properties, RestTemplate restTemplate, Clock clock) {
+        this.restTemplate = restTemplate;
+        this.backoff = properties.getPeerBackoff();
+        this.clock = clock;
+
+        if (!properties.isEnabled()) {
+            this.self = null;
+            this.ring = null;
+            return;
+        }
+        if (properties.getSelf() == null) {
+            throw new IllegalArgumentException("readcache.cluster.self is required in cluster mode");
+        }
+
+        // This instance is always on the ring, whether or not it's listed among the peers
+        this.self = normalize(properties.getSelf());
+        Set<String> nodes = new LinkedHashSet<>();
+        nodes.add(self);
+        properties.getPeers().forEach(peer -> nodes.add(normalize(peer)));
+        this.ring = new ConsistentHashRing(nodes, properties.getVirtualNodes());
+        log.info("Cluster mode enabled for {} with peers: {}", self, nodes);
+    }
+
+    /**
+     * Returns the peer owning a cache key, if it's not this instance and it's not skipped after a failure.
+     *
+     * @param path The normalized path of a cacheable endpoint.
+     * @return The base URL of the owning peer, or null if this instance owns the path, the owner is backing off or
+     * cluster mode is disabled.
+     */
+    public String ownerOf(String path) {
+        if (ring == null) {
+            return null;
+        }
+
+        String owner = ring.ownerOf(path);
+        return owner.equals(self) || isDown(owner) ? null : owner;
+    }
+
+    /**
+     * Reads a cacheable endpoint from the peer owning it. The request is marked as a peer request, so the owner serves
+     * it from its own cache or GitHub and never forwards it again.
+     *
+     * @param owner The base URL of the owning peer.
+     * @param path  The normalized path of the cacheable endpoint.
+     * @return The response body served by the peer.
+     * @throws ResourceAccessException If the peer is unreachable. It's then skipped for the backoff duration.
+     */
+    public String read(String owner, String path) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(PEER_REQUEST_HEADER, self);
+
+        String body;
+        try {
+            body = restTemplate.exchange(URI.create(owner + path), HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+        } catch (ResourceAccessException e) {
+            downUntil.put(owner, clock.millis() + backoff.toMillis());
+            log.info("Skipping peer {} for {} after it failed to answer", owner, backoff);
+            throw e;
+        }
+        downUntil.remove(owner);
+        log.debug("Read {} from peer {}", path, owner);
+        return body;
+    }
+
+    /**
+     * Checks if a peer is skipped after a failure. Once its backoff elapsed, it's tried again by the next read.
+     *
+     * @param peer The base URL of the peer.
+     * @return True if the backoff of the peer is still running, false otherwise.
+     */
+    private boolean isDown(String peer) {
+        Long until = downUntil.get(peer);
+        return until != null && clock.millis() < until;
+    }
+
+    /**
+     * Removes the trailing slashes of a base URL, so the same instance is always hashed the same way.
+     */
+    private static String normalize(String baseUrl) {
+        return baseUrl.replaceAll("/+$", "");
+    }
+}
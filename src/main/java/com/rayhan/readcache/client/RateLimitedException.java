@@ -0,0 +1,17 @@
+package com.rayhan.readcache.client;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * RateLimitedException is thrown when a GitHub request is not sent because the remaining rate-limit quota is reserved
+ * for higher priority requests, or exhausted until a reset too far away to wait for.
+ * It's answered with 429 Too Many Requests, also when it's the cause of another exception.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitedException extends RuntimeException {
+
+    public RateLimitedException(String message) {
+        super(message);
+    }
+}
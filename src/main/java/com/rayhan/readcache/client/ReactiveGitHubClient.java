@@ -0,0 +1,113 @@
+package com.rayhan.readcache.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.rayhan.readcache.utils.JsonArrayMerger;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * ReactiveGitHubClient is the non-blocking counterpart of GitHubClient, used by the reactive stack.
+ * It's a wrapper on WebClient: pages are fetched without holding a thread while GitHub answers.
+ * The pages are merged on the parallel scheduler rather than the event loop that received the last one, as merging
+ * the pages of a large organization takes long enough to stall every other connection of that event loop.
+ */
+@Builder
+@Getter
+public class ReactiveGitHubClient {
+
+    // Base URL for GitHub API
+    private final String baseUrl;
+
+    // Page size for paginated requests
+    private final int pageSize;
+
+    // API token for authentication
+    private final String apiToken;
+
+    // WebClient for making non-blocking HTTP requests
+    private final WebClient webClient;
+
+    // ObjectMapper for JSON processing
+    private final ObjectMapper mapper;
+
+    // Validators and bodies of previously fetched pages, keyed by page URI. Conditional requests are disabled when null.
+    private final Cache<URI, CachedPage> pageCache;
+
+    // Maximum number of pages of one read fetched concurrently. Pages are read sequentially when 1 or less.
+    private final int pageConcurrency;
+
+    /**
+     * Reads paginated data from the specified path in the GitHub API.
+     *
+     * @param path The path to the GitHub API resource.
+     * @return Mono of a JSON string containing paginated data, empty if GitHub answered without a body, emitted on
+     * the parallel scheduler.
+     */
+    public Mono<String> readPaginatedData(String path) {
+        return readPages(path)
+                .collectList()
+                .publishOn(Schedulers.parallel())
+                // If a response body is null or not an array, it's not paginated and is returned as is
+                .mapNotNull(pages -> JsonArrayMerger.merge(mapper.getFactory(), pages.stream().map(ResponseEntity::getBody).toList()));
+    }
+
+    /**
+     * Reads all pages of the specified path in the GitHub API.
+     * With a page concurrency above 1, the pages after the first one are fetched concurrently, using the page count
+     * from the rel="last" link of the first page. Otherwise the rel="next" link of each page is followed.
+     *
+     * @param path The path to the GitHub API resource.
+     * @return Flux of the HTTP responses of all pages, in page order.
+     */
+    public Flux<ResponseEntity<String>> readPages(String path) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl + path)
+                .queryParam("per_page", pageSize)
+                .build()
+                .toUri();
+
+        return send(uri).flatMapMany(firstPage -> {
+            List<URI> remainingPageUris = pageConcurrency > 1 ? GitHubClient.getRemainingPageUris(firstPage) : null;
+
+            if (remainingPageUris != null) {
+                return Flux.concat(Mono.just(firstPage), Flux.fromIterable(remainingPageUris).flatMapSequential(this::send, pageConcurrency));
+            }
+
+            return Mono.just(firstPage).expand(page -> {
+                URI next = GitHubClient.getNextPageLinkFromResponseHeader(page);
+                return next != null ? send(next) : Mono.empty();
+            });
+        });
+    }
+
+    /**
+     * Sends an HTTP GET request to the specified URI.
+     *
+     * If the page was fetched before, the request is conditional and a 304 Not Modified answer
+     * is returned with the cached body and Link header of the page.
+     *
+     * @param uri The URI of the request.
+     * @return Mono of the HTTP response.
+     */
+    Mono<ResponseEntity<String>> send(URI uri) {
+        return Mono.defer(() -> {
+            CachedPage cachedPage = pageCache != null ? pageCache.getIfPresent(uri) : null;
+
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> GitHubClient.addRequestHeaders(headers, apiToken, cachedPage))
+                    .retrieve()
+                    .toEntity(String.class)
+                    .map(response -> GitHubClient.updatePageCache(pageCache, uri, cachedPage, response));
+        });
+    }
+}
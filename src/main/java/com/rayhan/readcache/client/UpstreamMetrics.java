@@ -0,0 +1,181 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.client.UpstreamScheduler.Priority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UpstreamMetrics times the GitHub requests of a GitHubClient: the latency of every page request by outcome, the
+ * latency and page count of every paginated read by priority, the size of the received pages, and the page requests
+ * and reads in flight.
+ * The meters are created once, on a composite registry, so recording costs no lookup on the hot path. Until the
+ * metrics are bound to a registry, the composite has no children and recording is a no-op.
+ */
+public class UpstreamMetrics implements MeterBinder {
+
+    /**
+     * Outcome of a page request.
+     */
+    public enum Outcome {
+        // 2xx answer with a page body
+        SUCCESS,
+        // 304 answer, the cached page is still current
+        NOT_MODIFIED,
+        // 4xx answer, including rate limiting
+        CLIENT_ERROR,
+        // 5xx answer
+        SERVER_ERROR,
+        // No answer: a timeout or an I/O error
+        IO_ERROR;
+
+        /**
+         * Returns the outcome of a request GitHub answered.
+         *
+         * @param status The status of the answer, null if there was none.
+         * @return The outcome of the request.
+         */
+        static Outcome of(HttpStatusCode status) {
+            if (status == null) {
+                return IO_ERROR;
+            }
+            if (status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return NOT_MODIFIED;
+            }
+            if (status.is5xxServerError()) {
+                return SERVER_ERROR;
+            }
+            return status.is4xxClientError() ? CLIENT_ERROR : SUCCESS;
+        }
+    }
+
+    // Registry the meters are created on, forwarding them to the registries the metrics are bound to
+    private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+    // Latency of the page requests, by outcome
+    private final Map<Outcome, Timer> pageTimers = new EnumMap<>(Outcome.class);
+
+    // Latency of the paginated reads, from the first page request to the merged body, by priority
+    private final Map<Priority, Timer> readTimers = new EnumMap<>(Priority.class);
+
+    // Number of pages of the paginated reads
+    private final DistributionSummary pagesPerRead;
+
+    // Characters of the page bodies received, about their bytes for GitHub's mostly ASCII JSON
+    private final Counter receivedBytes;
+
+    // Page requests sent and not answered yet
+    private final AtomicInteger pagesInFlight = new AtomicInteger();
+
+    // Paginated reads started and not finished yet
+    private final AtomicInteger readsInFlight = new AtomicInteger();
+
+    public UpstreamMetrics() {
+        for (Outcome outcome : Outcome.values()) {
+            pageTimers.put(outcome, Timer.builder("readcache.upstream.page")
+                    .description("Latency of the GitHub page requests")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Priority priority : Priority.values()) {
+            readTimers.put(priority, Timer.builder("readcache.upstream.read")
+                    .description("Latency of the paginated GitHub reads, all pages included")
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        pagesPerRead = DistributionSummary.builder("readcache.upstream.read.pages")
+                .description("Number of pages of the paginated GitHub reads")
+                .register(registry);
+        receivedBytes = Counter.builder("readcache.upstream.received")
+                .description("Size of the GitHub page bodies received")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("readcache.upstream.inflight.pages", pagesInFlight, AtomicInteger::get)
+                .description("GitHub page requests in flight")
+                .register(registry);
+        Gauge.builder("readcache.upstream.inflight.reads", readsInFlight, AtomicInteger::get)
+                .description("Paginated GitHub reads in flight")
+                .register(registry);
+    }
+
+    /**
+     * Marks the start of a paginated read.
+     *
+     * @return The start time of the read, to pass to endRead.
+     */
+    public long startRead() {
+        readsInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a paginated read, successful or not.
+     *
+     * @param start    The start time returned by startRead.
+     * @param priority The priority of the read.
+     */
+    public void endRead(long start, Priority priority) {
+        readsInFlight.decrementAndGet();
+        readTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the number of pages of a successful paginated read.
+     *
+     * @param pages The number of pages.
+     */
+    public void recordPages(int pages) {
+        pagesPerRead.record(pages);
+    }
+
+    /**
+     * Marks the start of a page request.
+     *
+     * @return The start time of the request, to pass to endPage.
+     */
+    public long startPage() {
+        pagesInFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a page request.
+     *
+     * @param start  The start time returned by startPage.
+     * @param status The status GitHub answered with, null if it didn't answer.
+     * @param body   The body of the page, may be null.
+     * @return The duration of the request in nanoseconds.
+     */
+    public long endPage(long start, HttpStatusCode status, String body) {
+        long duration = System.nanoTime() - start;
+        pagesInFlight.decrementAndGet();
+        pageTimers.get(Outcome.of(status)).record(duration, TimeUnit.NANOSECONDS);
+        if (body != null) {
+            receivedBytes.increment(body.length());
+        }
+        return duration;
+    }
+
+    /**
+     * Forwards the upstream meters to a registry.
+     *
+     * @param registry The registry to register the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry.add(registry);
+    }
+}
@@ -0,0 +1,203 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_LIMIT_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_REMAINING_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_RESET_HEADER;
+
+/**
+ * UpstreamScheduler admits GitHub requests against the rate-limit quota reported by the X-RateLimit-* and
+ * Retry-After headers of GitHub responses.
+ * Requests loading cacheable data may use the whole quota, while passthrough requests leave a reserve to them. The
+ * reserve is a percentage of the limit GitHub reports, so it fits the 60 requests per hour of anonymous clients as well
+ * as the 5000 of authenticated ones. When the quota is exhausted, or down to the reserve of a passthrough request, the
+ * request waits for the reset if it's close enough, and is rejected with RateLimitedException otherwise, so callers can
+ * serve cached data instead.
+ */
+@Slf4j
+public class UpstreamScheduler implements MeterBinder {
+
+    /**
+     * Priority of a GitHub request.
+     */
+    public enum Priority {
+        // Loads and refreshes of cacheable data, including the warm-up, which may use the whole quota
+        CACHE,
+        // Passthrough requests of non-cacheable endpoints, which leave the reserve of the quota to cacheable data
+        PASSTHROUGH
+    }
+
+    // Rate-limit settings: the passthrough reserve and the longest wait for a reset
+    private final RateLimitProperties properties;
+
+    // Clock telling the current time, against the reset times reported by GitHub
+    private final Clock clock;
+
+    // Requests left in the current window as reported by GitHub, less the requests sent since, or -1 if unknown
+    private final AtomicLong remaining = new AtomicLong(-1);
+
+    // Requests allowed per window as reported by GitHub, or -1 if unknown
+    private volatile long limit = -1;
+
+    // Time the current window resets, in epoch milliseconds
+    private volatile long resetAt;
+
+    // Time before which GitHub asked not to send requests with Retry-After, in epoch milliseconds
+    private volatile long retryAfterUntil;
+
+    // Number of requests that waited for a reset
+    private final AtomicLong delayedRequests = new AtomicLong();
+
+    // Number of requests rejected for lack of quota, by priority
+    private final Map<Priority, AtomicLong> rejectedRequests = new EnumMap<>(Map.of(Priority.CACHE, new AtomicLong(), Priority.PASSTHROUGH, new AtomicLong()));
+
+    public UpstreamScheduler(RateLimitProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Admits a GitHub request, waiting for the reset of the quota if needed.
+     *
+     * @param priority The priority of the request.
+     * @throws RateLimitedException If the quota left is not available to the priority and the reset is too far away.
+     */
+    public void acquire(Priority priority) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long now = clock.millis();
+        long blockedUntil = blockedUntil(priority, now);
+        if (blockedUntil > now) {
+            long waitInMillis = blockedUntil - now;
+            if (waitInMillis > properties.getMaxWait().toMillis()) {
+                rejectedRequests.get(priority).incrementAndGet();
+                throw new RateLimitedException("GitHub rate limit reached for " + priority + " requests, resetting in " + waitInMillis + " ms");
+            }
+
+            delayedRequests.incrementAndGet();
+            log.debug("Waiting {} ms for the GitHub rate limit to reset", waitInMillis);
+            try {
+                Thread.sleep(waitInMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RateLimitedException("Interrupted while waiting for the GitHub rate limit to reset");
+            }
+        }
+
+        remaining.updateAndGet(left -> left > 0 ? left - 1 : left);
+    }
+
+    /**
+     * Updates the quota from the headers of a GitHub response, successful or not.
+     *
+     * @param headers The response headers, may be null.
+     */
+    public void update(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+
+        Long remainingHeader = parseLong(headers.getFirst(RATE_LIMIT_REMAINING_HEADER));
+        Long limitHeader = parseLong(headers.getFirst(RATE_LIMIT_LIMIT_HEADER));
+        Long resetHeader = parseLong(headers.getFirst(RATE_LIMIT_RESET_HEADER));
+        Long retryAfterHeader = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+
+        if (remainingHeader != null) {
+            remaining.set(remainingHeader);
+        }
+        if (limitHeader != null) {
+            limit = limitHeader;
+        }
+        if (resetHeader != null) {
+            resetAt = resetHeader * 1000;
+        }
+        if (retryAfterHeader != null) {
+            retryAfterUntil = clock.millis() + retryAfterHeader * 1000;
+            log.warn("GitHub asked to retry after {} seconds", retryAfterHeader);
+        }
+    }
+
+    /**
+     * Returns the requests left in the current window.
+     *
+     * @return The remaining quota, or -1 if GitHub didn't report it yet.
+     */
+    public long getRemaining() {
+        return remaining.get();
+    }
+
+    /**
+     * Registers the quota state as metrics: the remaining quota, the limit, the time until the reset, and the
+     * requests delayed or rejected by priority.
+     *
+     * @param registry The registry to register the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("readcache.upstream.ratelimit.remaining", remaining, AtomicLong::get)
+                .description("GitHub requests left in the current rate-limit window, -1 if unknown")
+                .register(registry);
+        Gauge.builder("readcache.upstream.ratelimit.limit", this, scheduler -> scheduler.limit)
+                .description("GitHub requests allowed per rate-limit window, -1 if unknown")
+                .register(registry);
+        Gauge.builder("readcache.upstream.ratelimit.reset", this, scheduler -> Math.max(0, scheduler.resetAt - clock.millis()) / 1000.0)
+                .description("Time until the GitHub rate-limit window resets")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("readcache.upstream.ratelimit.delayed", delayedRequests, AtomicLong::get)
+                .description("GitHub requests that waited for the rate limit to reset")
+                .register(registry);
+        rejectedRequests.forEach((priority, count) -> FunctionCounter.builder("readcache.upstream.ratelimit.rejected", count, AtomicLong::get)
+                .description("GitHub requests rejected for lack of rate-limit quota")
+                .tag("priority", priority.name().toLowerCase())
+                .register(registry));
+    }
+
+    /**
+     * Returns the time before which a request of the given priority may not be sent.
+     *
+     * @param priority The priority of the request.
+     * @param now      The current time in epoch milliseconds.
+     * @return The time in epoch milliseconds, at or before now if the request may be sent right away.
+     */
+    private long blockedUntil(Priority priority, long now) {
+        long blockedUntil = retryAfterUntil;
+        long left = remaining.get();
+        long reserve = priority == Priority.PASSTHROUGH && limit > 0 ? limit * properties.getPassthroughReservePercent() / 100 : 0;
+
+        if (left >= 0 && left <= reserve && resetAt > now) {
+            blockedUntil = Math.max(blockedUntil, resetAt);
+        }
+
+        return blockedUntil;
+    }
+
+    /**
+     * Parses a numeric header value.
+     */
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.rayhan.readcache.constants;
 
-import java.util.Set;
-
 public class ApplicationConstant {
 
     /**
@@ -11,28 +9,72 @@ public class ApplicationConstant {
     public static final String ENV_SERVER_PORT = "SERVER_PORT";
     public static final String ENV_GITHUB_API_TOKEN = "GITHUB_API_TOKEN";
     public static final String GITHUB_BASE_URL = "https://api.github.com";
-    public static final String HEALTH_CHECK_URL = "https://api.github.com";
+    public static final String GITHUB_DEFAULT_ORG = "Netflix";
+    public static final String GITHUB_ORGS_PATH = "/orgs/";
+    public static final String GITHUB_REPOS_SUFFIX = "/repos";
     public static final String GITHUB_NETFLIX_ORG = "/orgs/Netflix";
     public static final String GITHUB_REPOS_PATH = "/orgs/Netflix/repos";
-    public static final Set<String> GITHUB_CACHEABLE_ENDPOINTS = Set.of(
-            "/",
-            GITHUB_NETFLIX_ORG,
-            GITHUB_NETFLIX_ORG + "/members",
-            GITHUB_NETFLIX_ORG + "/repos");
+    public static final String GITHUB_LOGIN_REGEX = "[A-Za-z0-9](?:-?[A-Za-z0-9]){0,38}";
+    public static final String GITHUB_ORG_PATTERN = "/orgs/{org}";
 
 
     /**
      * HTTP Client configuration specific constants.
      */
     public static final String ACCEPT_HEADER = "application/json";
+    public static final String GZIP_ENCODING = "gzip";
     public static final String TOKEN_PREFIX = "token";
     public static final int PAGE_SIZE = 150;
+    public static final long PAGE_CACHE_MAX_WEIGHT_IN_MB = 32;
+    public static final String PAGE_PARAM = "page";
+    public static final String PAGE_NUMBER_REGEX = "\\d{1,9}";
+    public static final int PAGE_CONCURRENCY = 1;
+    public static final String UPSTREAM_PAGE_EXECUTOR = "upstreamPageExecutor";
+    public static final int WEB_CLIENT_MAX_IN_MEMORY_SIZE = 16 * 1024 * 1024;
+    public static final int HTTP_CONNECT_TIMEOUT_IN_SECONDS = 5;
+    public static final int HTTP_READ_TIMEOUT_IN_SECONDS = 30;
+    public static final int HTTP_MAX_CONNECTIONS = 20;
+    public static final int HTTP_KEEP_ALIVE_IN_SECONDS = 60;
+    public static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RATE_LIMIT_LIMIT_HEADER = "X-RateLimit-Limit";
+    public static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
+    public static final int RATE_LIMIT_PASSTHROUGH_RESERVE_PERCENT = 2;
+    public static final int RATE_LIMIT_MAX_WAIT_IN_SECONDS = 5;
+    public static final int CIRCUIT_FAILURE_RATE_THRESHOLD = 50;
+    public static final int CIRCUIT_SLOW_CALL_THRESHOLD_IN_SECONDS = 10;
+    public static final int CIRCUIT_WINDOW_SIZE = 20;
+    public static final int CIRCUIT_MINIMUM_CALLS = 10;
+    public static final int CIRCUIT_OPEN_DURATION_IN_SECONDS = 30;
 
     /**
      * In-Memory Cache specific constants.
      */
     public static final int CACHE_TTL_IN_SECONDS = 60;
-    public static final String REPO_VIEW_CACHE_KEY = "GitHubRepoViewCacheKey";
+    public static final int CACHE_HARD_TTL_IN_SECONDS = 300;
+    public static final int CACHE_REFRESH_THREADS = 2;
+    public static final long CACHE_MAX_WEIGHT_IN_MB = 64;
+    public static final long VIEW_CACHE_MAX_WEIGHT_IN_MB = 64;
+    public static final long OFF_HEAP_MAX_SIZE_IN_MB = 256;
+    public static final int PASSTHROUGH_TTL_IN_SECONDS = 5;
+    public static final int PASSTHROUGH_NEGATIVE_TTL_IN_SECONDS = 30;
+    public static final long PASSTHROUGH_MAX_WEIGHT_IN_MB = 16;
+    public static final long STALE_MAX_WEIGHT_IN_MB = 64;
+    public static final int STALE_MAX_AGE_IN_HOURS = 24;
+    public static final String CACHE_REFRESH_EXECUTOR = "cacheRefreshExecutor";
+    public static final String WARMUP_EXECUTOR = "warmupExecutor";
+    public static final int GZIP_MIN_SIZE_IN_BYTES = 1024;
+    public static final String ROUTE_ROOT = "root";
+    public static final String ROUTE_ORG = "org";
+    public static final String ROUTE_MEMBERS = "members";
+    public static final String ROUTE_REPOS = "repos";
+    public static final String METRICS_NO_ROUTE = "none";
+    public static final String SNAPSHOT_FILE = "readcache-snapshot.bin";
+    public static final int SNAPSHOT_MAX_AGE_IN_MINUTES = 60;
+    public static final int WARMUP_CONCURRENCY = 4;
+    public static final int WARMUP_TIMEOUT_IN_SECONDS = 60;
+    public static final String PEER_REQUEST_HEADER = "X-ReadCache-Peer";
+    public static final int CLUSTER_VIRTUAL_NODES = 160;
+    public static final int CLUSTER_PEER_BACKOFF_IN_SECONDS = 10;
 
 
     /**
@@ -42,11 +84,13 @@ public class ApplicationConstant {
     public static final String ORDER_BY_STARS = "stars";
     public static final String ORDER_BY_OPEN_ISSUES = "open_issues";
     public static final String ORDER_BY_LAST_UPDATED = "last_updated";
+    public static final String REPO_ID = "id";
     public static final String REPO_FULL_NAME = "full_name";
     public static final String REPO_FORK_COUNT = "forks_count";
     public static final String REPO_STAR_COUNT = "stargazers_count";
     public static final String REPO_ISSUE_COUNT = "open_issues_count";
     public static final String REPO_LAST_UPDATED = "updated_at";
+    public static final int VIEW_PARALLEL_SORT_THRESHOLD = 10_000;
 
 
 }
@@ -0,0 +1,56 @@
+package com.rayhan.readcache.controller;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * ByteBufferHttpMessageConverter writes ByteBuffer response bodies for Spring MVC, which has no converter for them.
+ * Heap buffers are written from their backing array. Direct buffers of the off-heap tier are streamed through the
+ * channel of the response, so they are never copied to a heap array of their full size.
+ * WebFlux writes ByteBuffer bodies with its own ByteBufferEncoder, which wraps them without copying.
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+    public ByteBufferHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ByteBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage) throws IOException {
+        return ByteBuffer.wrap(inputMessage.getBody().readAllBytes());
+    }
+
+    @Override
+    protected Long getContentLength(ByteBuffer buffer, MediaType contentType) {
+        return (long) buffer.remaining();
+    }
+
+    @Override
+    protected void writeInternal(ByteBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        ByteBuffer source = buffer.duplicate();
+
+        if (source.hasArray()) {
+            body.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+
+        WritableByteChannel channel = Channels.newChannel(body);
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.rayhan.readcache.controller;
 
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.service.GitHubProxyService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.nio.ByteBuffer;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GZIP_ENCODING;
+import static com.rayhan.readcache.constants.ApplicationConstant.PEER_REQUEST_HEADER;
+
 /**
  * GitHubProxyController is a Spring MVC controller responsible for handling requests related to GitHub data.
  */
 @Controller
 @RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GitHubProxyController {
 
     @Autowired
@@ -21,26 +33,124 @@ public class GitHubProxyController {
 
     /**
      * Handles GET requests to any path (matching "**") and proxies the request to the GitHub API.
+     * The pre-encoded body is written as is, or its pre-compressed gzip variant if the client accepts gzip.
+     * Requests forwarded by a peer instance in cluster mode carry the X-ReadCache-Peer header.
      *
      * @param request The HttpServletRequest object representing the incoming HTTP request.
      * @return The response received from our GitHubProxyService.
      */
     @GetMapping("**")
-    @ResponseBody
-    public String getData(HttpServletRequest request) {
-        return service.proxyGet(request.getRequestURI());
+    public ResponseEntity<ByteBuffer> getData(HttpServletRequest request) {
+        return toResponseEntity(service.proxyGet(request.getRequestURI(), request.getHeader(PEER_REQUEST_HEADER) != null), request.getHeader(HttpHeaders.ACCEPT_ENCODING));
     }
 
     /**
-     * Handles GET requests to "/view/bottom/{n}/{orderedBy}" to retrieve the bottom N repositories sorted by a specified criteria.
+     * Handles GET requests to "/view/bottom/{n}/{orderedBy}" and "/view/{org}/bottom/{n}/{orderedBy}" to retrieve the
+     * bottom N repositories of an organization, Netflix by default, sorted by a specified criteria.
      *
+     * @param org       The organization owning the repositories, or null for the default organization.
      * @param limit     The number of repositories to retrieve.
      * @param orderedBy The criteria by which the repositories are ordered.
      * @return The response containing the bottom N repositories.
      */
-    @GetMapping("/view/bottom/{n}/{orderedBy}")
+    @GetMapping({"/view/bottom/{n}/{orderedBy}", "/view/{org}/bottom/{n}/{orderedBy}"})
+    @ResponseBody
+    public String getBottomNRepos(@PathVariable(name = "org", required = false) String org, @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getBottomNRepos(orgOrDefault(org), limit, orderedBy);
+    }
+
+    /**
+     * Handles GET requests to "/view/top/{n}/{orderedBy}" and "/view/{org}/top/{n}/{orderedBy}" to retrieve the top N
+     * repositories of an organization, Netflix by default, sorted by a specified criteria.
+     *
+     * @param org       The organization owning the repositories, or null for the default organization.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return The response containing the top N repositories.
+     */
+    @GetMapping({"/view/top/{n}/{orderedBy}", "/view/{org}/top/{n}/{orderedBy}"})
+    @ResponseBody
+    public String getTopNRepos(@PathVariable(name = "org", required = false) String org, @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getTopNRepos(orgOrDefault(org), limit, orderedBy);
+    }
+
+    /**
+     * Handles GET requests to "/view/range/{offset}/{n}/{orderedBy}" and "/view/{org}/range/{offset}/{n}/{orderedBy}" to
+     * retrieve N repositories of an organization, Netflix by default, sorted by a specified criteria, starting at the given offset.
+     *
+     * @param org       The organization owning the repositories, or null for the default organization.
+     * @param offset    The position of the first repository to retrieve.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return The response containing at most N repositories starting at the offset.
+     */
+    @GetMapping({"/view/range/{offset}/{n}/{orderedBy}", "/view/{org}/range/{offset}/{n}/{orderedBy}"})
     @ResponseBody
-    public String getBottomNRepos(@PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
-        return service.getBottomNRepos(limit, orderedBy);
+    public String getRepoRange(@PathVariable(name = "org", required = false) String org, @PathVariable("offset") int offset,
+                                 @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getRepoRange(orgOrDefault(org), offset, limit, orderedBy);
+    }
+
+    /**
+     * Builds the JSON response for a proxied request from its pre-encoded body.
+     * The body is written as is, or its pre-compressed gzip variant if the client accepts gzip. Both are views of the
+     * cached bytes, on the heap or off-heap, so the response doesn't copy them.
+     *
+     * @param response       The pre-encoded response.
+     * @param acceptEncoding The value of the Accept-Encoding request header, may be null.
+     * @return The HTTP response with the status of the response, the selected body and its Content-Encoding.
+     */
+    static ResponseEntity<ByteBuffer> toResponseEntity(CachedResponse response, String acceptEncoding) {
+        ByteBuffer gzipBody = response.getGzipBodyBuffer();
+        boolean gzip = gzipBody != null && acceptsGzip(acceptEncoding);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+
+        return builder.body(gzip ? gzipBody : response.getBodyBuffer());
+    }
+
+    /**
+     * Checks if the Accept-Encoding request header allows a gzip encoded response.
+     * An explicit gzip coding takes precedence over the "*" wildcard.
+     *
+     * @param acceptEncoding The value of the Accept-Encoding header, may be null.
+     * @return True if gzip is accepted with a non-zero quality, false otherwise.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean wildcardAccepted = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            boolean accepted = parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+
+            if (GZIP_ENCODING.equalsIgnoreCase(name)) {
+                return accepted;
+            }
+            if ("*".equals(name)) {
+                wildcardAccepted = accepted;
+            }
+        }
+
+        return Boolean.TRUE.equals(wildcardAccepted);
+    }
+
+    /**
+     * Returns the organization of a view request, for the view endpoints without an organization segment.
+     *
+     * @param org The organization path variable, or null if the request has none.
+     * @return The organization, Netflix if none was requested.
+     */
+    static String orgOrDefault(String org) {
+        return org != null ? org : GITHUB_DEFAULT_ORG;
     }
 }
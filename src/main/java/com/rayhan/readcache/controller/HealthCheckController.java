@@ -1,8 +1,12 @@
 package com.rayhan.readcache.controller;
 
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.service.WarmupService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -11,39 +15,52 @@ import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
 
-import static com.rayhan.readcache.constants.ApplicationConstant.HEALTH_CHECK_URL;
-
 /**
  * HealthCheckController is a Spring MVC controller responsible for handling health check requests.
  */
 @Slf4j
 @Controller
 @RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HealthCheckController {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private ReadCacheProperties properties;
+
     /**
-     * Handles GET requests to "/healthcheck" and performs a health check by pinging an upstream endpoint.
+     * Handles GET requests to "/healthcheck" and performs a health check by pinging the configured GitHub base URL.
+     * While the caches are warming up, the response itself has the SERVICE_UNAVAILABLE status, so load balancers only
+     * route to warm nodes.
      * FIXME: Make the health check logic more robust.
      *
-     * @return The HTTP status code indicating the health status - OK if the upstream endpoint is reachable, SERVICE_UNAVAILABLE otherwise.
+     * @return The HTTP status code indicating the health status - OK if warmed up and the upstream endpoint is reachable, SERVICE_UNAVAILABLE otherwise.
      */
     @GetMapping("/healthcheck")
     @ResponseBody
-    public int healthCheck() {
-        log.trace("Pinging upstream endpoint for HealthCheck: {}", HEALTH_CHECK_URL);
+    public ResponseEntity<Integer> healthCheck() {
+        if (!warmupService.isReady()) {
+            log.debug("Health Check not ready: cache warm-up in progress");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+
+        String healthCheckUrl = properties.getUpstream().getBaseUrl();
+        log.trace("Pinging upstream endpoint for HealthCheck: {}", healthCheckUrl);
 
         try {
-            int statusCode = restTemplate.getForEntity(URI.create(HEALTH_CHECK_URL), String.class).getStatusCodeValue();
+            int statusCode = restTemplate.getForEntity(URI.create(healthCheckUrl), String.class).getStatusCodeValue();
 
             if (statusCode == HttpStatus.OK.value()) {
-                return HttpStatus.OK.value();
+                return ResponseEntity.ok(HttpStatus.OK.value());
             }
         } catch (Exception e) {
             log.error("Health Check failed");
         }
 
-        return HttpStatus.SERVICE_UNAVAILABLE.value();
+        return ResponseEntity.ok(HttpStatus.SERVICE_UNAVAILABLE.value());
     }
 }
@@ -0,0 +1,91 @@
+package com.rayhan.readcache.controller;
+
+import com.rayhan.readcache.service.ReactiveGitHubProxyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ReactiveGitHubProxyController is a Spring WebFlux controller responsible for handling requests related to GitHub data.
+ * It serves the same endpoints as GitHubProxyController when the application runs as a reactive web application.
+ */
+@Controller
+@RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubProxyController {
+
+    @Autowired
+    private ReactiveGitHubProxyService service;
+
+    /**
+     * Handles GET requests to any path (matching "**") and proxies the request to the GitHub API.
+     * The pre-encoded body is written as is, or its pre-compressed gzip variant if the client accepts gzip.
+     *
+     * @param request The ServerHttpRequest object representing the incoming HTTP request.
+     * @return Mono of the response received from our ReactiveGitHubProxyService.
+     */
+    @GetMapping("**")
+    public Mono<ResponseEntity<ByteBuffer>> getData(ServerHttpRequest request) {
+        String acceptEncoding = request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+
+        return service.proxyGet(request.getPath().value())
+                .map(response -> GitHubProxyController.toResponseEntity(response, acceptEncoding));
+    }
+
+    /**
+     * Handles GET requests to "/view/bottom/{n}/{orderedBy}" and "/view/{org}/bottom/{n}/{orderedBy}" to retrieve the
+     * bottom N repositories of an organization, Netflix by default, sorted by a specified criteria.
+     *
+     * @param org       The organization owning the repositories, or null for the default organization.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing the bottom N repositories.
+     */
+    @GetMapping({"/view/bottom/{n}/{orderedBy}", "/view/{org}/bottom/{n}/{orderedBy}"})
+    @ResponseBody
+    public Mono<String> getBottomNRepos(@PathVariable(name = "org", required = false) String org, @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getBottomNRepos(GitHubProxyController.orgOrDefault(org), limit, orderedBy);
+    }
+
+    /**
+     * Handles GET requests to "/view/top/{n}/{orderedBy}" and "/view/{org}/top/{n}/{orderedBy}" to retrieve the top N
+     * repositories of an organization, Netflix by default, sorted by a specified criteria.
+     *
+     * @param org       The organization owning the repositories, or null for the default organization.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing the top N repositories.
+     */
+    @GetMapping({"/view/top/{n}/{orderedBy}", "/view/{org}/top/{n}/{orderedBy}"})
+    @ResponseBody
+    public Mono<String> getTopNRepos(@PathVariable(name = "org", required = false) String org, @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getTopNRepos(GitHubProxyController.orgOrDefault(org), limit, orderedBy);
+    }
+
+    /**
+     * Handles GET requests to "/view/range/{offset}/{n}/{orderedBy}" and "/view/{org}/range/{offset}/{n}/{orderedBy}" to
+     * retrieve N repositories of an organization, Netflix by default, sorted by a specified criteria, starting at the given offset.
+     *
+     * @param org       The organization owning the repositories, or null for the default organization.
+     * @param offset    The position of the first repository to retrieve.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing at most N repositories starting at the offset.
+     */
+    @GetMapping({"/view/range/{offset}/{n}/{orderedBy}", "/view/{org}/range/{offset}/{n}/{orderedBy}"})
+    @ResponseBody
+    public Mono<String> getRepoRange(@PathVariable(name = "org", required = false) String org, @PathVariable("offset") int offset,
+                                 @PathVariable("n") int limit, @PathVariable("orderedBy") String orderedBy) {
+        return service.getRepoRange(GitHubProxyController.orgOrDefault(org), offset, limit, orderedBy);
+    }
+}
@@ -0,0 +1,53 @@
+package com.rayhan.readcache.controller;
+
+import com.rayhan.readcache.ReadCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * ReactiveHealthCheckController is a Spring WebFlux controller responsible for handling health check requests
+ * when the application runs as a reactive web application.
+ */
+@Slf4j
+@Controller
+@RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHealthCheckController {
+    @Autowired
+    private WebClient webClient;
+
+    @Autowired
+    private ReadCacheProperties properties;
+
+    /**
+     * Handles GET requests to "/healthcheck" and performs a health check by pinging the configured GitHub base URL.
+     *
+     * @return Mono of the HTTP status code indicating the health status - OK if the upstream endpoint is reachable, SERVICE_UNAVAILABLE otherwise.
+     */
+    @GetMapping("/healthcheck")
+    @ResponseBody
+    public Mono<Integer> healthCheck() {
+        String healthCheckUrl = properties.getUpstream().getBaseUrl();
+        log.trace("Pinging upstream endpoint for HealthCheck: {}", healthCheckUrl);
+
+        return webClient.get()
+                .uri(URI.create(healthCheckUrl))
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> response.getStatusCode().isSameCodeAs(HttpStatus.OK) ? HttpStatus.OK.value() : HttpStatus.SERVICE_UNAVAILABLE.value())
+                .onErrorResume(e -> {
+                    log.error("Health Check failed");
+                    return Mono.just(HttpStatus.SERVICE_UNAVAILABLE.value());
+                });
+    }
+}
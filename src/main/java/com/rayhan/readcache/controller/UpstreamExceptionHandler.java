@@ -0,0 +1,39 @@
+package com.rayhan.readcache.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * UpstreamExceptionHandler answers requests failed by an error status from GitHub with that status, instead of
+ * 500 Internal Server Error. Client errors like 404 Not Found are passed through with their body, the same way a
+ * negatively cached answer is served. Server errors of GitHub are answered with 502 Bad Gateway.
+ */
+@Slf4j
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UpstreamExceptionHandler {
+
+    /**
+     * Handles an error status answered by GitHub, also when it's the cause of another exception.
+     *
+     * @param e The exception of the GitHub request.
+     * @return The HTTP response with the status and body of GitHub for a client error, 502 Bad Gateway otherwise.
+     */
+    @ExceptionHandler(HttpStatusCodeException.class)
+    public ResponseEntity<String> handleUpstreamError(HttpStatusCodeException e) {
+        if (!e.getStatusCode().is4xxClientError()) {
+            log.warn("GitHub answered with {}", e.getStatusCode());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+
+        return ResponseEntity.status(e.getStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(e.getResponseBodyAsString());
+    }
+}
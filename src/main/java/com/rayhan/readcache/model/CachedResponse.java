@@ -0,0 +1,229 @@
+package com.rayhan.readcache.model;
+
+import com.rayhan.readcache.cache.CacheWeigher;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CachedResponse stores a GitHub API response ready to be written to clients.
+ * The body is encoded to UTF-8 once, and a gzip variant is compressed once, when the response is cached,
+ * so serving it needs no per-request transcoding or compression.
+ * The bodies live on the heap, or in off-heap memory once the response is demoted to the off-heap tier. Either way
+ * they are written to clients from views of the stored bytes, without copying them.
+ * A response is usually 200 OK, or an error status GitHub answered with, kept by negative caching.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CachedResponse {
+
+    // HTTP status of the response
+    @Getter
+    private final int status;
+
+    // UTF-8 encoded response body, a heap or a direct buffer
+    private final ByteBuffer body;
+
+    // Gzip compressed response body, or null if the body is not worth compressing
+    private final ByteBuffer gzipBody;
+
+    // Value of System.nanoTime() when the response was loaded or last revalidated against GitHub
+    @Getter
+    private final long loadedAt;
+
+    /**
+     * Creates a CachedResponse from a response body.
+     *
+     * @param body        The response body, null is treated as an empty body.
+     * @param gzipMinSize The minimum body size in bytes to build a gzip variant, or a negative value to never build it.
+     * @return CachedResponse with the encoded body and, if the body is large enough, its gzip variant.
+     */
+    public static CachedResponse of(String body, int gzipMinSize) {
+        return of(HttpStatus.OK.value(), body, gzipMinSize);
+    }
+
+    /**
+     * Creates a CachedResponse with a status from a response body, e.g. an error answered by GitHub.
+     *
+     * @param status      The HTTP status of the response.
+     * @param body        The response body, null is treated as an empty body.
+     * @param gzipMinSize The minimum body size in bytes to build a gzip variant, or a negative value to never build it.
+     * @return CachedResponse with the status, the encoded body and, if the body is large enough, its gzip variant.
+     */
+    public static CachedResponse of(int status, String body, int gzipMinSize) {
+        byte[] encodedBody = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        byte[] gzipBody = gzipMinSize >= 0 && encodedBody.length >= gzipMinSize ? gzip(encodedBody) : null;
+
+        // Keep the variant only if it's actually smaller than the body
+        return new CachedResponse(status, ByteBuffer.wrap(encodedBody),
+                gzipBody != null && gzipBody.length < encodedBody.length ? ByteBuffer.wrap(gzipBody) : null,
+                System.nanoTime());
+    }
+
+    /**
+     * Checks if the response is successful, as opposed to an error kept by negative caching.
+     *
+     * @return True for a 2xx status, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return HttpStatusCode.valueOf(status).is2xxSuccessful();
+    }
+
+    /**
+     * Returns the encoded body as a byte array. Heap bodies are returned as is, off-heap bodies are copied.
+     *
+     * @return The UTF-8 encoded response body.
+     */
+    public byte[] getBody() {
+        return toArray(body);
+    }
+
+    /**
+     * Returns the gzip variant as a byte array. Heap bodies are returned as is, off-heap bodies are copied.
+     *
+     * @return The gzip compressed response body, or null if there is no gzip variant.
+     */
+    public byte[] getGzipBody() {
+        return gzipBody != null ? toArray(gzipBody) : null;
+    }
+
+    /**
+     * Returns a view of the encoded body, to write it without copying it. A heap view keeps its backing array
+     * accessible for writers taking arrays, so the bytes must not be modified through it.
+     *
+     * @return ByteBuffer over the UTF-8 encoded response body, with its own position.
+     */
+    public ByteBuffer getBodyBuffer() {
+        return body.duplicate();
+    }
+
+    /**
+     * Returns a view of the gzip variant, to write it without copying it. The bytes must not be modified through it.
+     *
+     * @return ByteBuffer over the gzip compressed response body with its own position, or null if there is no gzip variant.
+     */
+    public ByteBuffer getGzipBodyBuffer() {
+        return gzipBody != null ? gzipBody.duplicate() : null;
+    }
+
+    /**
+     * Checks if the bodies are stored in off-heap memory.
+     *
+     * @return True for a response of the off-heap tier, false for a heap response.
+     */
+    public boolean isOffHeap() {
+        return body.isDirect();
+    }
+
+    /**
+     * Copies the bodies to off-heap memory, for the off-heap tier.
+     *
+     * @return CachedResponse with the same bodies and load time, stored in direct buffers.
+     */
+    public CachedResponse toOffHeap() {
+        if (isOffHeap()) {
+            return this;
+        }
+        return new CachedResponse(status, toDirect(body), gzipBody != null ? toDirect(gzipBody) : null, loadedAt);
+    }
+
+    /**
+     * Marks the response as revalidated, when GitHub reports it as not modified.
+     *
+     * @return CachedResponse sharing the bodies of this response, loaded now.
+     */
+    public CachedResponse revalidated() {
+        return new CachedResponse(status, body, gzipBody, System.nanoTime());
+    }
+
+    /**
+     * Backdates the load time of the response, for a response restored from a cache snapshot with its age.
+     *
+     * @param age The time since the response was loaded from GitHub.
+     * @return CachedResponse sharing the bodies of this response, loaded the given time ago.
+     */
+    public CachedResponse loadedAgo(Duration age) {
+        return new CachedResponse(status, body, gzipBody, System.nanoTime() - age.toNanos());
+    }
+
+    /**
+     * Estimates the heap retained by the response, to weigh it against the memory budget of its route's cache.
+     * Off-heap bodies only count for their buffer objects.
+     *
+     * @return The approximate size of the body and its gzip variant in bytes.
+     */
+    public long estimatedSizeInBytes() {
+        return 32 + heapSizeOf(body) + heapSizeOf(gzipBody);
+    }
+
+    /**
+     * Returns the off-heap memory held by the response, to weigh it against the capacity of the off-heap tier.
+     *
+     * @return The size of the off-heap bodies in bytes, 0 for a heap response.
+     */
+    public long offHeapSizeInBytes() {
+        if (!isOffHeap()) {
+            return 0;
+        }
+        return body.capacity() + (gzipBody != null ? gzipBody.capacity() : 0);
+    }
+
+    /**
+     * Estimates the heap retained by a body buffer: the buffer object, and its array for a heap buffer.
+     */
+    private static long heapSizeOf(ByteBuffer buffer) {
+        if (buffer == null) {
+            return 0;
+        }
+        return 48 + (buffer.hasArray() ? CacheWeigher.sizeOf(buffer.array()) : 0);
+    }
+
+    /**
+     * Returns the bytes of a buffer, without copying them if the buffer wraps a whole array.
+     */
+    private static byte[] toArray(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Copies a buffer to a direct buffer.
+     */
+    private static ByteBuffer toDirect(ByteBuffer buffer) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(buffer.remaining());
+        direct.put(buffer.duplicate()).flip();
+        return direct;
+    }
+
+    /**
+     * Compresses the data with gzip.
+     *
+     * @param data The data to compress.
+     * @return The gzip compressed data.
+     */
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4 + 64);
+
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip response body", e);
+        }
+
+        return output.toByteArray();
+    }
+}
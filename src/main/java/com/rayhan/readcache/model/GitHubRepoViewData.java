@@ -1,23 +1,77 @@
 package com.rayhan.readcache.model;
 
+import com.rayhan.readcache.utils.RepoViewBuilder;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
-import java.util.List;
+import java.util.Map;
 
 /**
  * GitHubRepoViewData stores the cleaned and formatted data for GitHub repositories.
  * We utilize this class to cache and return various views based on request.
+ * Each ordering is kept as pre-rendered JSON fragments, so serving a view doesn't format repositories again.
+ * With incremental views, the rows the views were built from are kept too, so a refresh only re-sorts the changes.
+ * The views carry the load time of the repositories response they were built from, so they expire with it.
  */
-@NoArgsConstructor
 @AllArgsConstructor
 @Getter
-@Setter
 public class GitHubRepoViewData {
-    private List<GitHubRepoData<Integer>> orderedByForks;
-    private List<GitHubRepoData<Integer>> orderedByStars;
-    private List<GitHubRepoData<Integer>> orderedByOpenIssues;
-    private List<GitHubRepoData<String>> orderedByLastUpdated;
+
+    // View of each configured ordering, keyed by the orderedBy path segment
+    private final Map<String, RepoViewIndex> views;
+
+    // Rows the views were built from, or null if views are built from scratch on every refresh
+    private final RepoViewBuilder.Rows rows;
+
+    // Value of System.nanoTime() when the repositories response the views were built from was loaded or revalidated
+    private final long loadedAt;
+
+    /**
+     * Creates a GitHubRepoViewData built from a repositories response loaded now.
+     *
+     * @param views The view of each ordering, keyed by the orderedBy path segment.
+     * @param rows  The rows the views were built from, or null.
+     */
+    public GitHubRepoViewData(Map<String, RepoViewIndex> views, RepoViewBuilder.Rows rows) {
+        this(views, rows, System.nanoTime());
+    }
+
+    /**
+     * Creates a GitHubRepoViewData without rows, which the next build can't update incrementally.
+     *
+     * @param views The view of each ordering, keyed by the orderedBy path segment.
+     */
+    public GitHubRepoViewData(Map<String, RepoViewIndex> views) {
+        this(views, null);
+    }
+
+    /**
+     * Dates the views with the load time of the repositories response they were built from or revalidated with.
+     *
+     * @param loadedAt The value of System.nanoTime() when the response was loaded or revalidated.
+     * @return GitHubRepoViewData sharing the views and rows of this one.
+     */
+    public GitHubRepoViewData withLoadedAt(long loadedAt) {
+        return new GitHubRepoViewData(views, rows, loadedAt);
+    }
+
+    /**
+     * Returns the view for the specified ordering criteria.
+     *
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return RepoViewIndex of the ordering, or null for an unknown criteria.
+     */
+    public RepoViewIndex getView(String orderedBy) {
+        return views.get(orderedBy);
+    }
+
+    /**
+     * Estimates the heap retained by the views and their rows, to weigh them against the memory budget of the view cache.
+     *
+     * @return The approximate size of all views in bytes.
+     */
+    public long estimatedSizeInBytes() {
+        return views.values().stream().mapToLong(RepoViewIndex::estimatedSizeInBytes).sum()
+                + (rows != null ? rows.estimatedSizeInBytes() : 0);
+    }
 }
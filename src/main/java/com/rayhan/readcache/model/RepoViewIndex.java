@@ -0,0 +1,123 @@
+package com.rayhan.readcache.model;
+
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * RepoViewIndex stores the repositories of one ordering as a compact array of JSON fragments, rendered once when the
+ * view is built. A slice of k repositories is answered by joining k fragments, independent of the size of the org.
+ */
+@AllArgsConstructor
+public class RepoViewIndex {
+
+    // Separator between two fragments, as written by List.toString()
+    private static final String SEPARATOR = ", ";
+
+    // Approximate heap overhead of a fragment besides its characters: the String, its byte array and the array slot
+    private static final int FRAGMENT_OVERHEAD_IN_BYTES = 44;
+
+    // JSON fragment of each repository in view order, like ["Netflix/repo", 42]
+    private final String[] fragments;
+
+    /**
+     * Creates a RepoViewIndex by rendering each repository of an ordered list once.
+     *
+     * @param orderedRepos The repositories in view order.
+     * @return RepoViewIndex holding the JSON fragment of each repository.
+     */
+    public static RepoViewIndex of(List<? extends GitHubRepoData<?>> orderedRepos) {
+        return new RepoViewIndex(orderedRepos.stream().map(GitHubRepoData::toString).toArray(String[]::new));
+    }
+
+    /**
+     * Returns the number of repositories in the view.
+     *
+     * @return The number of repositories.
+     */
+    public int size() {
+        return fragments.length;
+    }
+
+    /**
+     * Returns the JSON fragment of the repository at a position, to reuse it in the next build of the view.
+     *
+     * @param position The position of the repository in the view.
+     * @return The JSON fragment of the repository, like ["Netflix/repo", 42].
+     */
+    public String fragmentAt(int position) {
+        return fragments[position];
+    }
+
+    /**
+     * Estimates the heap retained by the view, to weigh it against the memory budget of the view cache.
+     * Repository names and dates are ASCII, so each character of a fragment takes one byte.
+     *
+     * @return The approximate size of the view in bytes.
+     */
+    public long estimatedSizeInBytes() {
+        long size = 16;
+        for (String fragment : fragments) {
+            size += FRAGMENT_OVERHEAD_IN_BYTES + fragment.length();
+        }
+        return size;
+    }
+
+    /**
+     * Renders the first N repositories of the view.
+     *
+     * @param limit The number of repositories to return.
+     * @return JSON array of the first N repositories.
+     */
+    public String top(int limit) {
+        return slice(0, limit);
+    }
+
+    /**
+     * Renders the last N repositories of the view, in view order.
+     *
+     * @param limit The number of repositories to return.
+     * @return JSON array of the last N repositories.
+     */
+    public String bottom(int limit) {
+        return slice(fragments.length - Math.max(0, limit), fragments.length);
+    }
+
+    /**
+     * Renders the repositories of the view from the given offset.
+     *
+     * @param offset The position of the first repository to return.
+     * @param limit  The number of repositories to return.
+     * @return JSON array of at most N repositories starting at the offset.
+     */
+    public String range(int offset, int limit) {
+        return slice(offset, offset + (long) Math.max(0, limit));
+    }
+
+    /**
+     * Joins the fragments of a slice of the view into a JSON array. The bounds are clamped to the view.
+     *
+     * @param from The position of the first repository, inclusive.
+     * @param to   The position of the last repository, exclusive.
+     * @return JSON array of the repositories in the slice, "[]" if it's empty.
+     */
+    private String slice(long from, long to) {
+        int start = (int) Math.max(0, Math.min(from, fragments.length));
+        int end = (int) Math.max(start, Math.min(to, fragments.length));
+
+        int length = 2 + Math.max(0, end - start - 1) * SEPARATOR.length();
+        for (int i = start; i < end; i++) {
+            length += fragments[i].length();
+        }
+
+        StringBuilder json = new StringBuilder(length).append('[');
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                json.append(SEPARATOR);
+            }
+            json.append(fragments[i]);
+        }
+
+        return json.append(']').toString();
+    }
+}
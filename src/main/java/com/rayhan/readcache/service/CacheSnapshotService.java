@@ -0,0 +1,212 @@
+package com.rayhan.readcache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.SnapshotProperties;
+import com.rayhan.readcache.cache.CacheSnapshot;
+import com.rayhan.readcache.cache.CacheSnapshot.SnapshotResponse;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.RouteTable.Route;
+import com.rayhan.readcache.cache.StaleStore;
+import com.rayhan.readcache.client.CachedPage;
+import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.utils.GitHubPaths;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CacheSnapshotService writes the cached responses, including the ones demoted to the off-heap tier, with the pages
+ * kept for conditional requests, to a local snapshot file on graceful shutdown, and restores them on startup before
+ * the application serves requests.
+ * Restored responses keep their age. The ones younger than the TTL of their route are served right away and
+ * revalidated against GitHub in the background. With the restored page validators, an unchanged resource costs only
+ * 304 answers, which don't count against the rate limit. The older ones would have expired, so they are only kept as
+ * last good responses, served if GitHub is failing, while they are reloaded in the background.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CacheSnapshotService {
+
+    // Application properties, including the snapshot settings
+    @Autowired
+    ReadCacheProperties properties;
+
+    // Cacheable endpoints, each with the cache of its responses
+    @Autowired
+    RouteTable<Cache<String, CachedResponse>> routeTable;
+
+    // Cache of the repository views, rebuilt from the restored repositories
+    @Autowired
+    Cache<String, GitHubRepoViewData> gitHubRepoViewCache;
+
+    // Builder of the repository views of the configured orderings
+    @Autowired
+    RepoViewBuilder repoViewBuilder;
+
+    // GitHubClient holding the page cache
+    @Autowired
+    GitHubClient gitHubClient;
+
+    // Service revalidating the restored responses
+    @Autowired
+    GitHubProxyService gitHubProxyService;
+
+    // Off-heap tier holding the responses evicted from the route caches
+    @Autowired
+    OffHeapStore offHeapStore;
+
+    // Last good responses, receiving the restored responses past the TTL of their route
+    @Autowired
+    StaleStore staleStore;
+
+    /**
+     * Restores the caches from the snapshot file, if snapshots are enabled and the file exists.
+     * An unreadable snapshot is logged and ignored, so the application starts with empty caches instead of failing.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        SnapshotProperties snapshotProperties = properties.getSnapshot();
+        Path file = snapshotProperties.getFile();
+        if (!snapshotProperties.isEnabled() || !Files.isRegularFile(file)) {
+            return;
+        }
+
+        CacheSnapshot snapshot;
+        try {
+            snapshot = CacheSnapshot.readFrom(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable cache snapshot: {}", file, e);
+            return;
+        }
+
+        // Validators are worth restoring at any age, GitHub tells if the page changed
+        Cache<URI, CachedPage> pageCache = gitHubClient.getPageCache();
+        if (pageCache != null) {
+            pageCache.putAll(snapshot.getPages());
+        }
+
+        long downtimeInMillis = Math.max(0, System.currentTimeMillis() - snapshot.getTakenAt());
+        List<String> restoredPaths = new ArrayList<>();
+        for (SnapshotResponse response : snapshot.getResponses()) {
+            Duration age = Duration.ofMillis(response.getAgeInMillis() + downtimeInMillis);
+            if (age.compareTo(snapshotProperties.getMaxAge()) <= 0 && restore(response, age)) {
+                restoredPaths.add(response.getPath());
+            }
+        }
+
+        restoredPaths.forEach(gitHubProxyService::revalidateInBackground);
+        log.info("Restored {} of {} responses and {} pages from cache snapshot: {}",
+                restoredPaths.size(), snapshot.getResponses().size(), snapshot.getPages().size(), file);
+    }
+
+    /**
+     * Writes the caches to the snapshot file, if snapshots are enabled. It runs when the application context closes,
+     * after a graceful shutdown of the web server, so no request is served while the snapshot is taken.
+     */
+    @PreDestroy
+    public void saveSnapshot() {
+        SnapshotProperties snapshotProperties = properties.getSnapshot();
+        if (!snapshotProperties.isEnabled()) {
+            return;
+        }
+
+        List<SnapshotResponse> responses = new ArrayList<>();
+        Set<String> paths = new HashSet<>();
+        for (Route<Cache<String, CachedResponse>> route : routeTable.getRoutes()) {
+            Cache<String, CachedResponse> cache = route.getCache();
+            cache.asMap().forEach((path, response) -> {
+                responses.add(new SnapshotResponse(path, ageInMillis(cache, path), response.getBody()));
+                paths.add(path);
+            });
+        }
+        // Demoted responses are as good as the cached ones, unless their route cache already holds a newer one
+        offHeapStore.forEach((path, response) -> {
+            if (paths.add(path)) {
+                responses.add(new SnapshotResponse(path, Duration.ofNanos(System.nanoTime() - response.getLoadedAt()).toMillis(), response.getBody()));
+            }
+        });
+
+        Cache<URI, CachedPage> pageCache = gitHubClient.getPageCache();
+        Map<URI, CachedPage> pages = pageCache != null ? new LinkedHashMap<>(pageCache.asMap()) : Map.of();
+
+        try {
+            new CacheSnapshot(System.currentTimeMillis(), responses, pages).writeTo(snapshotProperties.getFile());
+            log.info("Wrote {} responses and {} pages to cache snapshot: {}", responses.size(), pages.size(), snapshotProperties.getFile());
+        } catch (IOException e) {
+            log.warn("Failed to write cache snapshot: {}", snapshotProperties.getFile(), e);
+        }
+    }
+
+    /**
+     * Puts a restored response, loaded the given time ago, in the cache of its route with the views of the organization
+     * for repositories. A response past the TTL of its route would have expired from the cache, so it's only kept as
+     * the last good response of its path until the revalidation reloads it.
+     *
+     * @param response The response of the snapshot.
+     * @param age      The age of the response, downtime included.
+     * @return True if the response was restored, false if its path is no longer cacheable or its views can't be built.
+     */
+    private boolean restore(SnapshotResponse response, Duration age) {
+        Route<Cache<String, CachedResponse>> route = routeTable.match(response.getPath());
+        if (route == null) {
+            return false;
+        }
+
+        String body = new String(response.getBody(), StandardCharsets.UTF_8);
+        CachedResponse cachedResponse = CachedResponse.of(body, properties.getCache().getGzipMinSize()).loadedAgo(age);
+        if (age.compareTo(route.getPolicy().getExpireAfterWrite()) >= 0) {
+            staleStore.put(response.getPath(), cachedResponse);
+            return true;
+        }
+
+        String org = GitHubPaths.orgOfReposPath(response.getPath());
+        if (org != null) {
+            try {
+                gitHubRepoViewCache.put(org, repoViewBuilder.build(body).withLoadedAt(cachedResponse.getLoadedAt()));
+            } catch (RuntimeException e) {
+                log.warn("Skipping restored repositories of: {}", org, e);
+                return false;
+            }
+        }
+
+        staleStore.put(response.getPath(), cachedResponse);
+        route.getCache().put(response.getPath(), cachedResponse);
+        return true;
+    }
+
+    /**
+     * Returns the age of a cached response.
+     *
+     * @param cache The cache holding the response.
+     * @param path  The path of the response.
+     * @return The time since the response was written to the cache in milliseconds.
+     */
+    private static long ageInMillis(Cache<String, CachedResponse> cache, String path) {
+        return cache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(path))
+                .map(Duration::toMillis)
+                .orElse(0L);
+    }
+}
@@ -1,30 +1,49 @@
 package com.rayhan.readcache.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.PassthroughProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RequestCoalescer;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.RouteTable.Route;
+import com.rayhan.readcache.cache.RouteTable.RoutePolicy;
+import com.rayhan.readcache.cache.StaleStore;
 import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.client.PaginatedResponse;
+import com.rayhan.readcache.client.PeerClient;
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.model.GitHubRepoViewData;
-import com.rayhan.readcache.utils.GitHubHelper;
+import com.rayhan.readcache.model.RepoViewIndex;
+import com.rayhan.readcache.utils.GitHubPaths;
+import com.rayhan.readcache.utils.RepoViewBuilder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
-import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_CACHEABLE_ENDPOINTS;
-import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
-import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_FORKS;
-import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_LAST_UPDATED;
-import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_OPEN_ISSUES;
-import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_STARS;
-import static com.rayhan.readcache.constants.ApplicationConstant.REPO_VIEW_CACHE_KEY;
+import static com.rayhan.readcache.constants.ApplicationConstant.CACHE_REFRESH_EXECUTOR;
 
 /**
  * GitHubProxyService is a service class responsible for proxying and caching GitHub API requests.
  */
 @Slf4j
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GitHubProxyService {
 
     // RestTemplate for making HTTP requests
@@ -35,88 +54,463 @@ public class GitHubProxyService {
     @Autowired
     GitHubClient gitHubClient;
 
-    // Cache for storing common shared read data where we don't need any customization
+    // Cacheable endpoints, each with its own cache of shared read data where we don't need any customization
     @Autowired
-    Cache<String, String> sharedReadCache;
+    RouteTable<Cache<String, CachedResponse>> routeTable;
 
-    // Cache for storing custom GitHubRepoViewData
+    // Off-heap tier holding the responses evicted from the route caches for lack of memory
+    @Autowired
+    OffHeapStore offHeapStore;
+
+    // Last good responses of the cacheable endpoints, served past their TTL when GitHub is failing
+    @Autowired
+    StaleStore staleStore;
+
+    // Short-lived cache of the passthrough endpoints, with their 404 and 410 answers
+    @Autowired
+    Cache<String, CachedResponse> passthroughCache;
+
+    // Cache for storing custom GitHubRepoViewData, keyed by organization and bounded by memory weight
     @Autowired
     Cache<String, GitHubRepoViewData> gitHubRepoViewCache;
 
+    // Builder of the repository views of the configured orderings
+    @Autowired
+    RepoViewBuilder repoViewBuilder;
+
+    // Client of the peers owning cache keys in cluster mode
+    @Autowired
+    PeerClient peerClient;
+
+    // Application properties, including the compression settings
+    @Autowired
+    ReadCacheProperties properties;
+
+    // Executor reloading cache entries in the background for refresh-ahead
+    @Autowired
+    @Qualifier(CACHE_REFRESH_EXECUTOR)
+    Executor cacheRefreshExecutor;
+
+    // Deduplicates concurrent upstream loads of the same cacheable path, so a cache miss under load costs one fetch.
+    // Unlike Cache.get(key, loader), it doesn't run the upstream call inside a synchronized map bin, which would pin virtual threads.
+    final RequestCoalescer<String, CachedResponse> upstreamCoalescer = new RequestCoalescer<>();
+
+    // Paths with a background refresh queued or running, so a burst of stale hits schedules only one
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
     /**
-     * Proxies GET requests to GitHub API, caching results for cacheable endpoints.
+     * Proxies GET requests to GitHub API, caching results for the endpoints matching a route of the route table.
+     * Concurrent misses on the same cacheable endpoint share a single upstream fetch.
      *
      * @param path The path of the API request.
-     * @return The response from GitHub API or the cached response.
+     * @return The response from GitHub API or the cached response, encoded and ready to be written.
+     */
+    public CachedResponse proxyGet(String path) {
+        return proxyGet(path, false);
+    }
+
+    /**
+     * Proxies GET requests to GitHub API, caching results for the endpoints matching a route of the route table.
+     * If a cacheable endpoint can't be loaded because GitHub is failing, or the circuit breaker is open, its last good
+     * response is served instead. Passthrough endpoints fail right away with the error of GitHub or the breaker.
+     * In cluster mode, a cache miss on a path owned by a peer is filled from that peer, unless the request comes from
+     * a peer itself: it's then loaded from GitHub, so a request is never forwarded twice.
+     *
+     * @param path        The path of the API request.
+     * @param peerRequest True if the request was forwarded by a peer instance.
+     * @return The response from GitHub API, a peer or the cache, encoded and ready to be written.
      */
-    public String proxyGet(String path) {
+    public CachedResponse proxyGet(String path, boolean peerRequest) {
         // Normalize path to handle trailing slash
-        String normalizedPath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        String normalizedPath = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
 
-        if (GITHUB_CACHEABLE_ENDPOINTS.contains(normalizedPath)) {
-            if (sharedReadCache.getIfPresent(path) == null) {
-                try {
-                    if (GITHUB_REPOS_PATH.equals(normalizedPath)) {
-                        // We need custom processing for GitHub repositories data to serve vew APIs.
-                        cacheGitHubRepoAndViewData();
-                    } else {
-                        sharedReadCache.put(normalizedPath, gitHubClient.readPaginatedData(normalizedPath));
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException("Caught exception while making GET call to:" + path, e);
+        Route<Cache<String, CachedResponse>> route = routeTable.match(normalizedPath);
+        if (route != null) {
+            // Return the cached response for cacheable endpoints
+            CachedResponse cachedData = route.getCache().getIfPresent(normalizedPath);
+            if (cachedData != null) {
+                refreshInBackgroundIfDue(route, route.getCache(), normalizedPath, normalizedPath);
+                return cachedData;
+            }
+
+            // Serve a response demoted to the off-heap tier from its direct buffers, until its route would reload it
+            CachedResponse demotedData = offHeapStore.get(normalizedPath);
+            if (demotedData != null) {
+                return demotedData;
+            }
+
+            try {
+                return upstreamCoalescer.execute(normalizedPath, () -> loadCacheableData(route, normalizedPath, false, peerRequest));
+            } catch (Exception e) {
+                CachedResponse staleData = getStaleData(normalizedPath, e);
+                if (staleData != null) {
+                    return staleData;
                 }
+                throw new RuntimeException("Caught exception while making GET call to:" + path, e);
             }
+        }
 
-            // Return the cached response for cacheable endpoints
-            return sharedReadCache.getIfPresent(normalizedPath);
+        // Proxy to GitHub directly for non-cacheable endpoints. It's written once, so it's not worth compressing.
+        if (!properties.getCache().getPassthrough().isEnabled()) {
+            return CachedResponse.of(gitHubClient.readPaginatedData(normalizedPath), -1);
         }
 
-        // Proxy to GitHub directly for non-cacheable endpoints
-        return gitHubClient.readPaginatedData(normalizedPath);
+        CachedResponse cachedData = passthroughCache.getIfPresent(normalizedPath);
+        if (cachedData != null) {
+            return cachedData;
+        }
+        return upstreamCoalescer.execute(normalizedPath, () -> loadPassthroughData(normalizedPath));
     }
 
     /**
-     * Retrieves and returns a limited number of repositories based on the specified ordering criteria.
+     * Loads a passthrough endpoint from GitHub into the passthrough cache. Runs once per in-flight path, so a burst of
+     * requests for the same resource shares one fetch. A 404 or 410 answer is cached as a negative response.
      *
+     * @param path The normalized path of the passthrough endpoint.
+     * @return The cached or freshly loaded response.
+     */
+    private CachedResponse loadPassthroughData(String path) {
+        CachedResponse cachedData = passthroughCache.getIfPresent(path);
+        if (cachedData != null) {
+            return cachedData;
+        }
+
+        PassthroughProperties passthrough = properties.getCache().getPassthrough();
+        CachedResponse data;
+        try {
+            data = CachedResponse.of(gitHubClient.readPaginatedData(path), -1);
+        } catch (HttpClientErrorException e) {
+            if (!isNegativelyCacheable(e.getStatusCode())) {
+                throw e;
+            }
+            data = CachedResponse.of(e.getStatusCode().value(), e.getResponseBodyAsString(), -1);
+        }
+
+        if (!(data.isSuccessful() ? passthrough.getTtl() : passthrough.getNegativeTtl()).isZero()) {
+            passthroughCache.put(path, data);
+        }
+        return data;
+    }
+
+    /**
+     * Checks if an error answered by GitHub can be cached: the resource doesn't exist, or not anymore.
+     *
+     * @param status The status of the error.
+     * @return True for 404 Not Found and 410 Gone, false otherwise.
+     */
+    static boolean isNegativelyCacheable(HttpStatusCode status) {
+        return status.isSameCodeAs(HttpStatus.NOT_FOUND) || status.isSameCodeAs(HttpStatus.GONE);
+    }
+
+    /**
+     * Retrieves and returns a limited number of repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
      * @param limit     The number of repositories to retrieve.
      * @param orderedBy The criteria by which the repositories are ordered.
      * @return The response containing the bottom N repositories.
      */
-    public String getBottomNRepos(int limit, String orderedBy) {
-        if (gitHubRepoViewCache.getIfPresent(REPO_VIEW_CACHE_KEY) == null) {
-            cacheGitHubRepoAndViewData();
+    public String getBottomNRepos(String org, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.bottom(limit));
+    }
+
+    /**
+     * Retrieves and returns the first repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return The response containing the top N repositories.
+     */
+    public String getTopNRepos(String org, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.top(limit));
+    }
+
+    /**
+     * Retrieves and returns a range of repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
+     * @param offset    The position of the first repository to retrieve.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return The response containing at most N repositories starting at the offset.
+     */
+    public String getRepoRange(String org, int offset, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.range(offset, limit));
+    }
+
+    /**
+     * Renders a slice of the cached repository view of an organization for the specified ordering criteria,
+     * loading the view on a miss.
+     *
+     * @param org       The organization owning the repositories.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @param slice     The function rendering the requested slice of the view.
+     * @return The rendered slice, or an empty JSON array if the view or the ordering is not available.
+     */
+    private String renderView(String org, String orderedBy, Function<RepoViewIndex, String> slice) {
+        String reposPath = GitHubPaths.reposPath(org);
+        Route<Cache<String, CachedResponse>> reposRoute = GitHubPaths.isValidOrg(org) ? routeTable.match(reposPath) : null;
+        if (reposRoute == null) {
+            log.debug("No cacheable repositories for organization: {}", org);
+            return Collections.emptyList().toString();
         }
 
-        GitHubRepoViewData viewData = gitHubRepoViewCache.getIfPresent(REPO_VIEW_CACHE_KEY);
+        GitHubRepoViewData viewData = gitHubRepoViewCache.getIfPresent(org);
 
         if (viewData == null) {
-            log.debug("Received null GitHubRepoViewData for: {}", orderedBy);
+            try {
+                // Shares the in-flight load with any concurrent miss on the repositories of the same organization
+                upstreamCoalescer.execute(reposPath, () -> loadCacheableData(reposRoute, reposPath, false, false));
+                viewData = gitHubRepoViewCache.getIfPresent(org);
+            } catch (RuntimeException e) {
+                viewData = buildStaleViewData(org, reposPath, e);
+            }
+        } else if (isRefreshDue(reposRoute.getPolicy(), viewData.getLoadedAt())) {
+            // The views are as old as the repositories response they were built from
+            refreshInBackground(reposRoute, reposPath, false);
+        }
+
+        if (viewData == null) {
+            log.debug("Received null GitHubRepoViewData for: {} {}", org, orderedBy);
             return Collections.emptyList().toString();
         }
 
-        return switch (orderedBy) {
-            case ORDER_BY_FORKS -> viewData.getOrderedByForks().stream().skip(Math.max(0, viewData.getOrderedByForks().size() - limit)).limit(limit).toList().toString();
-            case ORDER_BY_STARS -> viewData.getOrderedByStars().stream().skip(Math.max(0, viewData.getOrderedByStars().size() - limit)).limit(limit).toList().toString();
-            case ORDER_BY_OPEN_ISSUES -> viewData.getOrderedByOpenIssues().stream().skip(Math.max(0, viewData.getOrderedByOpenIssues().size() - limit)).limit(limit).toList().toString();
-            case ORDER_BY_LAST_UPDATED -> viewData.getOrderedByLastUpdated().stream().skip(Math.max(0, viewData.getOrderedByLastUpdated().size() - limit)).limit(limit).toList().toString();
-            default -> Collections.emptyList().toString();
-        };
+        RepoViewIndex view = viewData.getView(orderedBy);
+        return view != null ? slice.apply(view) : Collections.emptyList().toString();
+    }
+
+    /**
+     * Builds the repository views of an organization from the last good response of its repositories, when loading
+     * them failed. The views are cached like fresh ones, so they are built once, not on every request of the incident.
+     *
+     * @param org       The organization owning the repositories.
+     * @param reposPath The path of the repositories of the organization.
+     * @param e         The exception of the failed load.
+     * @return The views built from the stale repositories.
+     * @throws RuntimeException The exception of the load, if no last good response can be served.
+     */
+    private GitHubRepoViewData buildStaleViewData(String org, String reposPath, RuntimeException e) {
+        CachedResponse staleData = getStaleData(reposPath, e);
+        if (staleData == null) {
+            throw e;
+        }
+
+        GitHubRepoViewData viewData = repoViewBuilder.build(new String(staleData.getBody(), StandardCharsets.UTF_8));
+        gitHubRepoViewCache.put(org, viewData);
+        return viewData;
+    }
+
+    /**
+     * Returns the last good response of a cacheable endpoint to serve in place of a failed load. Only failures of
+     * GitHub itself qualify: server errors, timeouts, I/O errors, rate limiting and the open circuit breaker.
+     * A client error like 404 Not Found is the answer for the path, and is never hidden by stale data.
+     *
+     * @param path The normalized path of the cacheable endpoint.
+     * @param e    The exception of the failed load.
+     * @return The last good response, or null if the failure doesn't qualify or the path has no last good response.
+     */
+    private CachedResponse getStaleData(String path, Exception e) {
+        if (e instanceof HttpClientErrorException clientError && !GitHubClient.isRateLimited(clientError)) {
+            return null;
+        }
+
+        CachedResponse staleData = staleStore.get(path);
+        if (staleData != null) {
+            log.warn("Serving stale data for: {}. Loading it from GitHub failed: {}", path, e.toString());
+        }
+        return staleData;
+    }
+
+    /**
+     * Loads a cacheable endpoint from GitHub and stores it in the cache of its route. Runs once per in-flight path.
+     * The cache is checked again first, because a load that finished just before this one started may have filled it.
+     *
+     * @param route      The route matching the path.
+     * @param path       The normalized path of the cacheable endpoint.
+     * @param revalidate  True to revalidate the cached response against GitHub even if it's fresh.
+     * @param peerRequest True to load the path from GitHub even if a peer owns it.
+     * @return The cached or freshly loaded response.
+     */
+    private CachedResponse loadCacheableData(Route<Cache<String, CachedResponse>> route, String path, boolean revalidate, boolean peerRequest) {
+        Cache<String, CachedResponse> cache = route.getCache();
+        CachedResponse cachedData = cache.getIfPresent(path);
+        boolean fresh = !revalidate && cachedData != null && !isRefreshDue(route.getPolicy(), cache, path);
+
+        String org = GitHubPaths.orgOfReposPath(path);
+        if (org != null) {
+            // We need custom processing for GitHub repositories data to serve view APIs.
+            if (fresh && gitHubRepoViewCache.getIfPresent(org) != null) {
+                return cachedData;
+            }
+            return cacheGitHubRepoAndViewData(org, path, cache, cachedData, peerRequest);
+        }
+
+        if (fresh) {
+            return cachedData;
+        }
+
+        // Revalidate against the cached data, so an unchanged resource costs only 304 answers
+        PaginatedResponse response = readUpstream(path, cachedData != null, peerRequest);
+        CachedResponse data = response.isNotModified() && cachedData != null ? cachedData.revalidated() : toCachedResponse(response.getBody());
+        // Kept as last good response first, so a demotion on eviction right away swaps it for its off-heap copy
+        staleStore.put(path, data);
+        cache.put(path, data);
+        offHeapStore.invalidate(path);
+        return data;
     }
 
     /**
-     * Caches GitHub repository data and GitHubRepoViewData in shared read cache and gitHubRepoViewCache, respectively.
+     * Reads a cacheable endpoint from the peer owning it in cluster mode, or from GitHub. An unreachable peer falls back
+     * to GitHub, so a node going down costs upstream calls instead of failed requests. Errors answered by the peer are
+     * not retried against GitHub, the owner already tried.
+     *
+     * @param path            The normalized path of the cacheable endpoint.
+     * @param hasPreviousBody True if a previous response is cached, to revalidate it against GitHub.
+     * @param peerRequest     True to read the path from GitHub even if a peer owns it.
+     * @return The response read from the peer, never reported as not modified, or from GitHub.
      */
-    private void cacheGitHubRepoAndViewData() {
-        String repoData = gitHubClient.readPaginatedData(GITHUB_REPOS_PATH);
-        sharedReadCache.put(GITHUB_REPOS_PATH, repoData);
+    private PaginatedResponse readUpstream(String path, boolean hasPreviousBody, boolean peerRequest) {
+        String owner = peerRequest ? null : peerClient.ownerOf(path);
+        if (owner != null) {
+            try {
+                return new PaginatedResponse(peerClient.read(owner, path), false);
+            } catch (ResourceAccessException e) {
+                log.warn("Peer {} owning {} is unreachable, loading it from GitHub", owner, path);
+            }
+        }
+
+        return gitHubClient.readPaginatedDataIfModified(path, hasPreviousBody);
+    }
+
+    /**
+     * Encodes a response body for the cache, with a pre-compressed gzip variant if the body is large enough.
+     *
+     * @param body The response body.
+     * @return CachedResponse ready to be written to clients.
+     */
+    private CachedResponse toCachedResponse(String body) {
+        return CachedResponse.of(body, properties.getCache().getGzipMinSize());
+    }
+
+    /**
+     * Schedules a background reload of the given path if refresh-ahead is enabled for its route and the cached entry
+     * passed the soft TTL. The caller keeps serving the current value; the hard TTL of the cache bounds how stale it can get.
+     *
+     * @param route The route matching the path.
+     * @param cache The cache holding the entry.
+     * @param key   The key of the entry in the cache.
+     * @param path  The normalized path to reload from GitHub.
+     */
+    private <V> void refreshInBackgroundIfDue(Route<Cache<String, CachedResponse>> route, Cache<String, V> cache, String key, String path) {
+        if (isRefreshDue(route.getPolicy(), cache, key)) {
+            refreshInBackground(route, path, false);
+        }
+    }
+
+    /**
+     * Schedules a background revalidation of a cached endpoint, e.g. for responses restored from a snapshot.
+     * The cached response keeps being served, and is replaced once GitHub confirms or updates it.
+     *
+     * @param path The normalized path of the cacheable endpoint.
+     */
+    public void revalidateInBackground(String path) {
+        Route<Cache<String, CachedResponse>> route = routeTable.match(path);
+        if (route != null) {
+            refreshInBackground(route, path, true);
+        }
+    }
+
+    /**
+     * Reloads a cacheable endpoint in the background, unless a reload of the path is already queued or running.
+     *
+     * @param route      The route matching the path.
+     * @param path       The normalized path to reload from GitHub.
+     * @param revalidate True to revalidate the cached response even if it's fresh.
+     */
+    private void refreshInBackground(Route<Cache<String, CachedResponse>> route, String path, boolean revalidate) {
+        if (!pendingRefreshes.add(path)) {
+            return;
+        }
 
-        GitHubRepoViewData repoViewData;
         try {
-            // Generate GitHubRepoViewData from the retrieved GitHubRepo data
-            repoViewData = GitHubHelper.generateViewsFromRepositoryData(repoData);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
+            cacheRefreshExecutor.execute(() -> {
+                try {
+                    upstreamCoalescer.execute(path, () -> loadCacheableData(route, path, revalidate, false));
+                } catch (Exception e) {
+                    log.warn("Background refresh failed for: {}. Serving cached data until it expires.", path, e);
+                } finally {
+                    pendingRefreshes.remove(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.remove(path);
+            log.debug("Background refresh rejected for: {}", path);
         }
-        gitHubRepoViewCache.put(REPO_VIEW_CACHE_KEY, repoViewData);
+    }
+
+    /**
+     * Checks if the cached entry is older than the refresh-ahead soft TTL of its route.
+     *
+     * @param policy The caching policy of the route.
+     * @param cache  The cache holding the entry.
+     * @param key    The key of the entry in the cache.
+     * @return True if refresh-ahead is enabled for the route and the entry should be reloaded, false otherwise.
+     */
+    private <V> boolean isRefreshDue(RoutePolicy policy, Cache<String, V> cache, String key) {
+        if (!policy.isRefreshAhead()) {
+            return false;
+        }
+
+        return cache.policy().expireAfterWrite()
+                .flatMap(expiration -> expiration.ageOf(key))
+                .map(age -> age.compareTo(policy.getSoftTtl()) >= 0)
+                .orElse(false);
+    }
+
+    /**
+     * Checks if data loaded at the given time is older than the refresh-ahead soft TTL of its route.
+     *
+     * @param policy   The caching policy of the route.
+     * @param loadedAt The value of System.nanoTime() when the data was loaded or last revalidated.
+     * @return True if refresh-ahead is enabled for the route and the data should be reloaded, false otherwise.
+     */
+    private static boolean isRefreshDue(RoutePolicy policy, long loadedAt) {
+        return policy.isRefreshAhead() && System.nanoTime() - loadedAt >= policy.getSoftTtl().toNanos();
+    }
+
+    /**
+     * Caches the GitHub repository data of an organization and its GitHubRepoViewData in the repositories route cache
+     * and gitHubRepoViewCache, respectively.
+     * If GitHub reports every page as not modified, the cached GitHubRepoViewData is reused instead of rebuilt.
+     * Otherwise it's updated with the changed repositories, and replaces the cached one once complete.
+     *
+     * @param org              The organization owning the repositories.
+     * @param path             The normalized path of the repositories of the organization.
+     * @param cache            The cache of the repositories route.
+     * @param previousRepoData The currently cached GitHub repository data, or null if it's not available.
+     * @param peerRequest      True to load the repositories from GitHub even if a peer owns them.
+     * @return The GitHub repository data that was cached.
+     */
+    private CachedResponse cacheGitHubRepoAndViewData(String org, String path, Cache<String, CachedResponse> cache, CachedResponse previousRepoData,
+                                                      boolean peerRequest) {
+        PaginatedResponse response = readUpstream(path, previousRepoData != null, peerRequest);
+        boolean reusePreviousRepoData = response.isNotModified() && previousRepoData != null;
+
+        CachedResponse repoData = reusePreviousRepoData ? previousRepoData.revalidated() : toCachedResponse(response.getBody());
+        GitHubRepoViewData previousRepoViewData = gitHubRepoViewCache.getIfPresent(org);
+        GitHubRepoViewData repoViewData = response.isNotModified() ? previousRepoViewData : null;
+
+        if (repoViewData == null) {
+            String json = reusePreviousRepoData ? new String(previousRepoData.getBody(), StandardCharsets.UTF_8) : response.getBody();
+            // Generate GitHubRepoViewData from the retrieved GitHubRepo data, reusing the unchanged rows of the previous views
+            repoViewData = repoViewBuilder.build(json, previousRepoViewData);
+        }
+        gitHubRepoViewCache.put(org, repoViewData.withLoadedAt(repoData.getLoadedAt()));
+        staleStore.put(path, repoData);
+        cache.put(path, repoData);
+        offHeapStore.invalidate(path);
+
+        return repoData;
     }
 }
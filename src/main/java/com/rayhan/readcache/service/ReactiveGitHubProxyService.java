@@ -0,0 +1,201 @@
+package com.rayhan.readcache.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.RouteTable.Route;
+import com.rayhan.readcache.client.ReactiveGitHubClient;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import com.rayhan.readcache.utils.GitHubPaths;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+
+/**
+ * ReactiveGitHubProxyService is the non-blocking counterpart of GitHubProxyService, used by the reactive stack.
+ * Cache entries are futures of an AsyncCache: concurrent misses on the same key share the in-flight load,
+ * and no thread waits for GitHub while it's in flight.
+ * Encoding responses and building views is CPU-bound work proportional to the size of an organization, so it runs on
+ * the parallel scheduler instead of the event loop.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGitHubProxyService {
+
+    // ReactiveGitHubClient for interacting with the GitHub API
+    @Autowired
+    ReactiveGitHubClient gitHubClient;
+
+    // Cacheable endpoints, each with its own cache of shared read data where we don't need any customization
+    @Autowired
+    RouteTable<AsyncCache<String, CachedResponse>> routeTable;
+
+    // Off-heap tier holding the responses evicted from the route caches for lack of memory
+    @Autowired
+    OffHeapStore offHeapStore;
+
+    // Cache for storing custom GitHubRepoViewData, keyed by organization and bounded by memory weight
+    @Autowired
+    AsyncCache<String, GitHubRepoViewData> gitHubRepoViewCache;
+
+    // Builder of the repository views of the configured orderings
+    @Autowired
+    RepoViewBuilder repoViewBuilder;
+
+    // Application properties
+    @Autowired
+    ReadCacheProperties properties;
+
+    /**
+     * Proxies GET requests to GitHub API, caching results for the endpoints matching a route of the route table.
+     * Concurrent misses on the same cacheable endpoint share a single upstream fetch.
+     *
+     * @param path The path of the API request.
+     * @return Mono of the response from GitHub API or the cached response, encoded and ready to be written.
+     */
+    public Mono<CachedResponse> proxyGet(String path) {
+        // Normalize path to handle trailing slash
+        String normalizedPath = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+
+        Route<AsyncCache<String, CachedResponse>> route = routeTable.match(normalizedPath);
+        if (route != null) {
+            // Serve a response demoted to the off-heap tier from its direct buffers, until its route would reload it
+            if (offHeapStore.isEnabled() && route.getCache().getIfPresent(normalizedPath) == null) {
+                CachedResponse demotedData = offHeapStore.get(normalizedPath);
+                if (demotedData != null) {
+                    return Mono.just(demotedData);
+                }
+            }
+
+            // A cancelled subscriber must not cancel the load other subscribers are waiting for
+            return getOrLoad(route.getCache(), normalizedPath, this::readCachedResponse);
+        }
+
+        // Proxy to GitHub directly for non-cacheable endpoints. It's written once, so it's not worth compressing.
+        return gitHubClient.readPaginatedData(normalizedPath)
+                .map(body -> CachedResponse.of(body, -1))
+                .defaultIfEmpty(CachedResponse.of(null, -1));
+    }
+
+    /**
+     * Retrieves and returns a limited number of repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing the bottom N repositories.
+     */
+    public Mono<String> getBottomNRepos(String org, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.bottom(limit));
+    }
+
+    /**
+     * Retrieves and returns the first repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing the top N repositories.
+     */
+    public Mono<String> getTopNRepos(String org, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.top(limit));
+    }
+
+    /**
+     * Retrieves and returns a range of repositories of an organization based on the specified ordering criteria.
+     *
+     * @param org       The organization owning the repositories.
+     * @param offset    The position of the first repository to retrieve.
+     * @param limit     The number of repositories to retrieve.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @return Mono of the response containing at most N repositories starting at the offset.
+     */
+    public Mono<String> getRepoRange(String org, int offset, int limit, String orderedBy) {
+        return renderView(org, orderedBy, view -> view.range(offset, limit));
+    }
+
+    /**
+     * Renders a slice of the cached repository view of an organization for the specified ordering criteria.
+     * The view is built from the cached repositories response, sharing its in-flight load per organization on a miss.
+     *
+     * @param org       The organization owning the repositories.
+     * @param orderedBy The criteria by which the repositories are ordered.
+     * @param slice     The function rendering the requested slice of the view.
+     * @return Mono of the rendered slice, or of an empty JSON array for an unknown ordering or uncacheable organization.
+     */
+    private Mono<String> renderView(String org, String orderedBy, Function<RepoViewIndex, String> slice) {
+        String reposPath = GitHubPaths.reposPath(org);
+        if (!GitHubPaths.isValidOrg(org) || routeTable.match(reposPath) == null) {
+            return Mono.just(Collections.emptyList().toString());
+        }
+
+        return getOrLoad(gitHubRepoViewCache, org, key -> proxyGet(reposPath)
+                        // A cached response completes on the calling event loop, so the build hops to the parallel scheduler
+                        .publishOn(Schedulers.parallel())
+                        .map(this::generateViewData))
+                .map(viewData -> {
+                    RepoViewIndex view = viewData.getView(orderedBy);
+                    return view != null ? slice.apply(view) : Collections.emptyList().toString();
+                });
+    }
+
+    /**
+     * Gets an entry of an async cache, sharing its in-flight load. A failed load is removed before its subscribers
+     * are notified, as Caffeine only drops it after their callbacks ran, so a retry right after the failure reloads.
+     *
+     * @param cache  The async cache of the entry.
+     * @param key    The key of the entry.
+     * @param loader The function loading the entry on a miss.
+     * @param <V>    The type of the entry.
+     * @return Mono of the entry. A cancelled subscriber does not cancel the load other subscribers are waiting for.
+     */
+    private static <V> Mono<V> getOrLoad(AsyncCache<String, V> cache, String key, Function<String, Mono<V>> loader) {
+        return Mono.fromFuture(() -> {
+            CompletableFuture<V> future = cache.get(key, (k, executor) -> loader.apply(k).toFuture());
+            return future.whenComplete((value, error) -> {
+                if (error != null) {
+                    cache.asMap().remove(key, future);
+                }
+            });
+        }, true);
+    }
+
+    /**
+     * Reads a cacheable endpoint from GitHub and encodes it for the cache.
+     *
+     * @param path The normalized path of the cacheable endpoint.
+     * @return Mono of the response, with a pre-compressed gzip variant if the body is large enough.
+     */
+    private Mono<CachedResponse> readCachedResponse(String path) {
+        int gzipMinSize = properties.getCache().getGzipMinSize();
+
+        return gitHubClient.readPaginatedData(path)
+                .publishOn(Schedulers.parallel())
+                .map(body -> CachedResponse.of(body, gzipMinSize))
+                .defaultIfEmpty(CachedResponse.of(null, gzipMinSize))
+                .doOnNext(response -> offHeapStore.invalidate(path));
+    }
+
+    /**
+     * Generates GitHubRepoViewData from the cached GitHub repository data.
+     *
+     * @param repoData The cached GitHub repository data.
+     * @return GitHubRepoViewData with a view for each configured ordering.
+     */
+    private GitHubRepoViewData generateViewData(CachedResponse repoData) {
+        // Dated with the response, so the views expire with it rather than a full TTL after the build
+        return repoViewBuilder.build(new String(repoData.getBody(), StandardCharsets.UTF_8)).withLoadedAt(repoData.getLoadedAt());
+    }
+}
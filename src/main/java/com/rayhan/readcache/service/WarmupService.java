@@ -0,0 +1,126 @@
+package com.rayhan.readcache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.rayhan.readcache.AppConfig;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.WarmupProperties;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.model.CachedResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.WARMUP_EXECUTOR;
+
+/**
+ * WarmupService loads the configured cacheable endpoints when the application starts, so the first requests are
+ * served from the cache. Loading a repositories path also builds the views of its organization.
+ * Until the warm-up is over, the application reports itself as not ready, so load balancers only route to warm nodes.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WarmupService {
+
+    // Application properties, including the warm-up settings
+    @Autowired
+    ReadCacheProperties properties;
+
+    // Cacheable endpoints, to skip the warm-up paths that would not be cached
+    @Autowired
+    RouteTable<Cache<String, CachedResponse>> routeTable;
+
+    // Service loading and caching the endpoints
+    @Autowired
+    GitHubProxyService gitHubProxyService;
+
+    // True once the warm-up is over, successful or not
+    private volatile boolean warmedUp;
+
+    /**
+     * Checks if the application is ready to serve traffic.
+     *
+     * @return True if the warm-up is disabled or over, false while it's running or not started yet.
+     */
+    public boolean isReady() {
+        return warmedUp || !properties.getWarmup().isEnabled();
+    }
+
+    /**
+     * Loads the warm-up paths concurrently and waits for them, at most for the warm-up timeout. Failures are logged,
+     * a path that fails to load is left to the first request for it. The application is ready once this returns, and
+     * the paths still loading at the timeout complete in the background.
+     */
+    public void warmUp() {
+        WarmupProperties warmupProperties = properties.getWarmup();
+        if (!warmupProperties.isEnabled() || warmedUp) {
+            warmedUp = true;
+            return;
+        }
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, warmupProperties.getConcurrency()),
+                AppConfig.daemonThreadFactory(WARMUP_EXECUTOR));
+        try {
+            List<CompletableFuture<Boolean>> loads = new ArrayList<>();
+            for (String path : warmupProperties.getPaths()) {
+                if (routeTable.match(path) == null) {
+                    log.warn("Skipping warm-up of a path no route caches: {}", path);
+                    continue;
+                }
+                loads.add(CompletableFuture.supplyAsync(() -> load(path), executor));
+            }
+
+            CompletableFuture<Void> allLoads = CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new));
+            allLoads.get(warmupProperties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            long loaded = loads.stream().filter(CompletableFuture::join).count();
+            log.info("Warm-up loaded {} of {} paths in {} ms", loaded, loads.size(), elapsedMillis(start));
+        } catch (TimeoutException e) {
+            log.warn("Warm-up timed out after {} ms, serving traffic with a partially warm cache", elapsedMillis(start));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm-up interrupted after {} ms", elapsedMillis(start));
+        } catch (ExecutionException e) {
+            log.warn("Warm-up failed after {} ms", elapsedMillis(start), e);
+        } finally {
+            // Only the wait is bounded, loads still in flight go on filling the cache and the coalesced requests
+            executor.shutdown();
+            warmedUp = true;
+        }
+    }
+
+    /**
+     * Loads a path into the cache of its route, and logs how long it took.
+     *
+     * @param path The cacheable path to load.
+     * @return True if the path was loaded, false if loading it failed.
+     */
+    private boolean load(String path) {
+        long start = System.nanoTime();
+        try {
+            gitHubProxyService.proxyGet(path);
+            log.info("Warmed up {} in {} ms", path, elapsedMillis(start));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm up {} after {} ms", path, elapsedMillis(start), e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the time elapsed since a System.nanoTime() value in milliseconds.
+     */
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
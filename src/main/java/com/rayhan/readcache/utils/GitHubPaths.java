@@ -0,0 +1,51 @@
+package com.rayhan.readcache.utils;
+
+import java.util.regex.Pattern;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_LOGIN_REGEX;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_ORGS_PATH;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_SUFFIX;
+
+/**
+ * GitHubPaths is a utility class mapping organizations to the path of their repositories, and back.
+ */
+public class GitHubPaths {
+
+    // Valid GitHub organization login: alphanumeric characters or single hyphens, not starting with a hyphen
+    private static final Pattern LOGIN = Pattern.compile(GITHUB_LOGIN_REGEX);
+
+    /**
+     * Checks if the organization is a valid GitHub login, so it can't reach another endpoint when inserted into a path.
+     *
+     * @param org The organization login.
+     * @return True if the login is valid, false otherwise.
+     */
+    public static boolean isValidOrg(String org) {
+        return org != null && LOGIN.matcher(org).matches();
+    }
+
+    /**
+     * Returns the path of the repositories of an organization, like /orgs/Netflix/repos.
+     *
+     * @param org The organization login.
+     * @return The path of the list organization repositories endpoint.
+     */
+    public static String reposPath(String org) {
+        return GITHUB_ORGS_PATH + org + GITHUB_REPOS_SUFFIX;
+    }
+
+    /**
+     * Returns the organization whose repositories are listed at the path.
+     *
+     * @param path The normalized request path.
+     * @return The organization login, or null if the path is not the repositories of an organization.
+     */
+    public static String orgOfReposPath(String path) {
+        if (!path.startsWith(GITHUB_ORGS_PATH) || !path.endsWith(GITHUB_REPOS_SUFFIX)) {
+            return null;
+        }
+
+        String org = path.substring(GITHUB_ORGS_PATH.length(), Math.max(GITHUB_ORGS_PATH.length(), path.length() - GITHUB_REPOS_SUFFIX.length()));
+        return isValidOrg(org) ? org : null;
+    }
+}
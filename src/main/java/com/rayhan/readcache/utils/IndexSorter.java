@@ -0,0 +1,121 @@
+package com.rayhan.readcache.utils;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * IndexSorter is a utility class sorting the row indexes of column arrays with a primitive comparator,
+ * so no row is boxed or wrapped in an object to be sorted.
+ * It's a stable merge sort; arrays of at least the parallel threshold are sorted in parallel on the common ForkJoinPool.
+ */
+public class IndexSorter {
+
+    // Slices shorter than this are sorted with insertion sort
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Compares two rows by their indexes, like a Comparator of rows without the boxing.
+     */
+    @FunctionalInterface
+    public interface IndexComparator {
+        int compare(int left, int right);
+    }
+
+    /**
+     * Returns the indexes 0 to size - 1 sorted by the comparator. Rows comparing equal keep their index order.
+     *
+     * @param size              The number of rows.
+     * @param comparator        The comparator of two rows.
+     * @param parallelThreshold The minimum number of rows to sort in parallel.
+     * @return The sorted row indexes.
+     */
+    public static int[] sortedIndexes(int size, IndexComparator comparator, int parallelThreshold) {
+        int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        int[] buffer = indexes.clone();
+
+        if (size >= Math.max(parallelThreshold, 2 * INSERTION_SORT_THRESHOLD)) {
+            ForkJoinPool.commonPool().invoke(new SortTask(buffer, indexes, 0, size, comparator, parallelThreshold));
+        } else {
+            mergeSort(buffer, indexes, 0, size, comparator);
+        }
+
+        return indexes;
+    }
+
+    /**
+     * Sorts dest[low, high) using src as the scratch array. Both must hold the same indexes in that range on entry.
+     */
+    private static void mergeSort(int[] src, int[] dest, int low, int high, IndexComparator comparator) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                for (int j = i; j > low && comparator.compare(dest[j - 1], dest[j]) > 0; j--) {
+                    int swap = dest[j];
+                    dest[j] = dest[j - 1];
+                    dest[j - 1] = swap;
+                }
+            }
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, comparator);
+        mergeSort(dest, src, mid, high, comparator);
+        merge(src, dest, low, mid, high, comparator);
+    }
+
+    /**
+     * Merges the sorted halves src[low, mid) and src[mid, high) into dest[low, high).
+     */
+    private static void merge(int[] src, int[] dest, int low, int mid, int high, IndexComparator comparator) {
+        // The halves are already in order, e.g. for a view rebuilt from unchanged data
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+
+        for (int i = low, left = low, right = mid; i < high; i++) {
+            if (right >= high || (left < mid && comparator.compare(src[left], src[right]) <= 0)) {
+                dest[i] = src[left++];
+            } else {
+                dest[i] = src[right++];
+            }
+        }
+    }
+
+    /**
+     * Sorts both halves of a slice in parallel until the halves are smaller than the parallel threshold.
+     */
+    private static class SortTask extends RecursiveAction {
+        private final int[] src;
+        private final int[] dest;
+        private final int low;
+        private final int high;
+        private final IndexComparator comparator;
+        private final int parallelThreshold;
+
+        SortTask(int[] src, int[] dest, int low, int high, IndexComparator comparator, int parallelThreshold) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.comparator = comparator;
+            this.parallelThreshold = parallelThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low < Math.max(parallelThreshold, 2 * INSERTION_SORT_THRESHOLD)) {
+                mergeSort(src, dest, low, high, comparator);
+                return;
+            }
+
+            int mid = (low + high) >>> 1;
+            invokeAll(new SortTask(dest, src, low, mid, comparator, parallelThreshold),
+                    new SortTask(dest, src, mid, high, comparator, parallelThreshold));
+            merge(src, dest, low, mid, high, comparator);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.rayhan.readcache.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * JsonArrayMerger is a utility class merging the JSON array bodies of paginated responses into one JSON array.
+ * It streams tokens from each page straight into a single output buffer, without building JSON trees.
+ */
+public class JsonArrayMerger {
+
+    /**
+     * Merges the JSON array bodies into one JSON array in a single streaming pass.
+     * The top-level token of each body is checked first; a body that is not a JSON array is returned as is,
+     * because non-array responses are not paginated.
+     *
+     * @param factory The JsonFactory creating parsers and the generator.
+     * @param bodies  The bodies of all pages, in page order.
+     * @return A JSON string containing the elements of all bodies, or the first body that is not a JSON array.
+     */
+    public static String merge(JsonFactory factory, List<String> bodies) {
+        int totalLength = 0;
+        for (String body : bodies) {
+            if (body == null) {
+                return null;
+            }
+            totalLength += body.length();
+        }
+
+        // Pre-sized, so the output buffer doesn't grow and copy while elements are appended
+        StringWriter writer = new StringWriter(totalLength);
+
+        try (JsonGenerator generator = factory.createGenerator(writer)) {
+            generator.writeStartArray();
+
+            for (String body : bodies) {
+                try (JsonParser parser = factory.createParser(body)) {
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        return body;
+                    }
+
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        generator.copyCurrentStructure(parser);
+                    }
+                }
+            }
+
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to merge paginated JSON response", e);
+        }
+
+        return writer.toString();
+    }
+}
@@ -0,0 +1,552 @@
+package com.rayhan.readcache.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.rayhan.readcache.ReadCacheProperties.ViewOrdering;
+import com.rayhan.readcache.ReadCacheProperties.ViewOrderingType;
+import com.rayhan.readcache.ReadCacheProperties.ViewProperties;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_FULL_NAME;
+import static com.rayhan.readcache.constants.ApplicationConstant.REPO_ID;
+
+/**
+ * RepoViewBuilder generates GitHubRepoViewData from the JSON array of an organization's repositories.
+ * The repository name and every field used by a configured ordering are read in one streaming pass into columns,
+ * then each ordering sorts an index array over its column and renders its JSON fragments once.
+ * Repositories are ordered by value in descending order, then by name.
+ * With incremental views, the rows and orders of a build are kept with its views. The next build of the organization
+ * matches its repositories to them by id and name, keeps the rows whose value didn't change in their previous order
+ * with their rendered fragments, and only sorts and renders the added or changed rows, merged in one pass. A refresh
+ * then sorts and renders in proportion to the changed repositories instead of the size of the organization.
+ * The duration of every build is timed as readcache.view.build, once the builder is bound to a meter registry.
+ */
+public class RepoViewBuilder implements MeterBinder {
+
+    // Initial number of rows of the columns, doubled whenever it's exceeded
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    // Orderings of the views, keyed by the orderedBy path segment
+    private final Map<String, ViewOrdering> orderings;
+
+    // Minimum number of repositories for a view to be sorted in parallel
+    private final int parallelSortThreshold;
+
+    // Keep the rows of every build, so the next build of the organization only sorts the changed repositories
+    private final boolean incremental;
+
+    // Registry the build timer is created on, forwarding it to the registries the builder is bound to
+    private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+    // Duration of the view builds
+    private final Timer buildTimer = Timer.builder("readcache.view.build")
+            .description("Duration of building the repository views of an organization")
+            .publishPercentileHistogram()
+            .register(registry);
+
+    /**
+     * Creates a RepoViewBuilder for the configured view orderings.
+     *
+     * @param properties The view settings, including the orderings.
+     */
+    public RepoViewBuilder(ViewProperties properties) {
+        this.orderings = new LinkedHashMap<>(properties.getOrderings());
+        this.parallelSortThreshold = properties.getParallelSortThreshold();
+        this.incremental = properties.isIncremental();
+    }
+
+    /**
+     * Generates a GitHubRepoViewData object from the provided JSON string representing GitHub repository data.
+     *
+     * @param json The JSON string containing GitHub repository data.
+     * @return GitHubRepoViewData object with a view for each configured ordering.
+     */
+    public GitHubRepoViewData build(String json) {
+        return build(json, null);
+    }
+
+    /**
+     * Generates a GitHubRepoViewData object from GitHub repository data, updating the views of a previous build of the
+     * same organization. The previous views are not modified, so they can be served until the new ones replace them.
+     *
+     * @param json     The JSON string containing GitHub repository data.
+     * @param previous The views of the previous build of the organization, or null to build the views from scratch.
+     * @return GitHubRepoViewData object with a view for each configured ordering.
+     */
+    public GitHubRepoViewData build(String json, GitHubRepoViewData previous) {
+        long start = System.nanoTime();
+        try {
+            return buildViews(json, previous != null && previous.getRows() != null ? previous : null);
+        } finally {
+            buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Forwards the build timer to a registry.
+     *
+     * @param registry The registry to register the metrics to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry.add(registry);
+    }
+
+    /**
+     * Reads the repositories into columns and builds the view of each configured ordering, from the previous views
+     * when they have the rows of the ordering.
+     *
+     * @param json     The JSON string containing GitHub repository data.
+     * @param previous The previous views with their rows, or null.
+     * @return GitHubRepoViewData object with a view for each configured ordering, and its rows if views are incremental.
+     */
+    private GitHubRepoViewData buildViews(String json, GitHubRepoViewData previous) {
+        // One column per distinct field and type, shared by the orderings using it
+        Map<String, Column> columnsByKey = new LinkedHashMap<>();
+        Map<String, Column[]> columnsByField = new HashMap<>();
+        for (ViewOrdering ordering : orderings.values()) {
+            columnsByKey.computeIfAbsent(ordering.getField() + ':' + ordering.getType(), key -> {
+                Column column = new Column(ordering.getType());
+                columnsByField.merge(ordering.getField(), new Column[]{column}, RepoViewBuilder::concat);
+                return column;
+            });
+        }
+        Column ids = null;
+        if (incremental) {
+            ids = new Column(ViewOrderingType.NUMBER);
+            columnsByField.merge(REPO_ID, new Column[]{ids}, RepoViewBuilder::concat);
+        }
+
+        String[] names = readColumns(json, columnsByField);
+        int size = names.length;
+        Rows rows = incremental ? new Rows(names, ids, columnsByKey) : null;
+        int[] previousRows = previous != null ? rows.match(previous.getRows()) : null;
+        int[] nameRanks = null;
+
+        Map<String, RepoViewIndex> views = new HashMap<>();
+        for (Map.Entry<String, ViewOrdering> entry : orderings.entrySet()) {
+            String orderedBy = entry.getKey();
+            String key = entry.getValue().getField() + ':' + entry.getValue().getType();
+            Column column = columnsByKey.get(key);
+            String[] fragments = new String[size];
+
+            int[] order;
+            if (previousRows != null && previous.getRows().hasOrder(orderedBy, key) && previous.getView(orderedBy) != null) {
+                order = mergeChanges(column, names, previousRows, previous.getRows(), key, orderedBy, previous.getView(orderedBy), fragments);
+            } else {
+                if (nameRanks == null) {
+                    nameRanks = rankNames(names);
+                }
+                order = IndexSorter.sortedIndexes(size, column.comparator(byRank(nameRanks)), parallelSortThreshold);
+                for (int i = 0; i < size; i++) {
+                    fragments[i] = column.render(names[order[i]], order[i]);
+                }
+            }
+
+            views.put(orderedBy, new RepoViewIndex(fragments));
+            if (rows != null) {
+                rows.orders.put(orderedBy, order);
+            }
+        }
+
+        return new GitHubRepoViewData(views, rows);
+    }
+
+    /**
+     * Orders the rows of a view by merging the rows kept from the previous view, already in order and rendered, with
+     * the added and changed rows, sorted and rendered on their own.
+     *
+     * @param column       The column of the ordering.
+     * @param names        The name of each repository.
+     * @param previousRows The previous row of each row, -1 for an added repository.
+     * @param previous     The previous rows.
+     * @param key          The key of the column of the ordering.
+     * @param orderedBy    The name of the ordering.
+     * @param previousView The previous view of the ordering.
+     * @param fragments    The fragments to fill in view order.
+     * @return The row of each position of the view.
+     */
+    private int[] mergeChanges(Column column, String[] names, int[] previousRows, Rows previous, String key, String orderedBy,
+                               RepoViewIndex previousView, String[] fragments) {
+        int size = names.length;
+        Column previousColumn = previous.columns.get(key);
+
+        // Row now holding each previous row with the same value, -1 if it was removed or changed
+        int[] keptRows = new int[previous.size];
+        Arrays.fill(keptRows, -1);
+        int[] changed = new int[size];
+        int changedCount = 0;
+        for (int row = 0; row < size; row++) {
+            int previousRow = previousRows[row];
+            if (previousRow >= 0 && column.sameValue(row, previousColumn, previousRow)) {
+                keptRows[previousRow] = row;
+            } else {
+                changed[changedCount++] = row;
+            }
+        }
+
+        // Ties are broken like the name ranks of a full build: by name, then by row
+        IndexSorter.IndexComparator comparator = column.comparator((left, right) -> {
+            int comparison = compareNullsLast(names[left], names[right]);
+            return comparison != 0 ? comparison : Integer.compare(left, right);
+        });
+        int[] changedOrder = IndexSorter.sortedIndexes(changedCount, (left, right) -> comparator.compare(changed[left], changed[right]), parallelSortThreshold);
+
+        int[] order = new int[size];
+        int position = 0;
+        int next = 0;
+        int[] previousOrder = previous.orders.get(orderedBy);
+        for (int previousPosition = 0; previousPosition < previousOrder.length; previousPosition++) {
+            int row = keptRows[previousOrder[previousPosition]];
+            if (row < 0) {
+                continue;
+            }
+            for (; next < changedCount && comparator.compare(changed[changedOrder[next]], row) < 0; next++) {
+                int changedRow = changed[changedOrder[next]];
+                order[position] = changedRow;
+                fragments[position++] = column.render(names[changedRow], changedRow);
+            }
+            order[position] = row;
+            fragments[position++] = previousView.fragmentAt(previousPosition);
+        }
+        for (; next < changedCount; next++) {
+            int changedRow = changed[changedOrder[next]];
+            order[position] = changedRow;
+            fragments[position++] = column.render(names[changedRow], changedRow);
+        }
+
+        return order;
+    }
+
+    /**
+     * Reads the name of each repository, and the fields used by the orderings into their columns.
+     * Nested objects and fields no ordering uses are skipped without being materialized.
+     *
+     * @param json           The JSON array of repositories.
+     * @param columnsByField The columns to fill, keyed by field.
+     * @return The name of each repository, in the order of the JSON array.
+     */
+    private static String[] readColumns(String json, Map<String, Column[]> columnsByField) {
+        String[] names = new String[INITIAL_CAPACITY];
+        int size = 0;
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of repositories");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                int row = size++;
+                if (row == names.length) {
+                    names = Arrays.copyOf(names, row * 2);
+                }
+                for (Column[] columns : columnsByField.values()) {
+                    for (Column column : columns) {
+                        column.setMissing(row);
+                    }
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+
+                    if (REPO_FULL_NAME.equals(field)) {
+                        names[row] = parser.getValueAsString();
+                    }
+                    Column[] columns = columnsByField.get(field);
+                    if (columns != null) {
+                        for (Column column : columns) {
+                            column.set(row, parser);
+                        }
+                    }
+                    parser.skipChildren();
+                }
+            }
+
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a JSON object for each repository");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read repositories from JSON response", e);
+        }
+
+        return Arrays.copyOf(names, size);
+    }
+
+    /**
+     * Ranks the repositories by name once, so the orderings break ties by comparing ints instead of strings.
+     *
+     * @param names The name of each repository.
+     * @return The rank of each repository by name.
+     */
+    private int[] rankNames(String[] names) {
+        int[] order = IndexSorter.sortedIndexes(names.length, (left, right) -> compareNullsLast(names[left], names[right]), parallelSortThreshold);
+
+        int[] ranks = new int[names.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the comparator of two rows by name rank.
+     */
+    private static IndexSorter.IndexComparator byRank(int[] nameRanks) {
+        return (left, right) -> Integer.compare(nameRanks[left], nameRanks[right]);
+    }
+
+    /**
+     * Compares two strings in ascending order, with null after any string.
+     */
+    private static int compareNullsLast(String left, String right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : 1) : -1;
+        }
+        return left.compareTo(right);
+    }
+
+    /**
+     * Concatenates two arrays of columns, for a field used with more than one type.
+     */
+    private static Column[] concat(Column[] left, Column[] right) {
+        Column[] columns = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, columns, left.length, right.length);
+        return columns;
+    }
+
+    /**
+     * Column holds the values of one field for every repository, as longs for numbers and strings for text.
+     */
+    private static class Column {
+        private final ViewOrderingType type;
+        private long[] numbers;
+        private String[] strings;
+
+        Column(ViewOrderingType type) {
+            this.type = type;
+            if (type == ViewOrderingType.NUMBER) {
+                numbers = new long[INITIAL_CAPACITY];
+            } else {
+                strings = new String[INITIAL_CAPACITY];
+            }
+        }
+
+        /**
+         * Grows the column to the row if needed, and resets the row for a repository without the field.
+         */
+        void setMissing(int row) {
+            if (type == ViewOrderingType.NUMBER) {
+                if (row == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, row * 2);
+                }
+                numbers[row] = 0;
+            } else {
+                if (row == strings.length) {
+                    strings = Arrays.copyOf(strings, row * 2);
+                }
+                strings[row] = null;
+            }
+        }
+
+        /**
+         * Stores the current value of the parser in the row. Nulls and nested values are kept as missing.
+         */
+        void set(int row, JsonParser parser) throws IOException {
+            if (type == ViewOrderingType.NUMBER) {
+                numbers[row] = parser.getValueAsLong(0);
+            } else {
+                strings[row] = parser.getValueAsString();
+            }
+        }
+
+        /**
+         * Checks if a row holds the same value as a row of the column of a previous build.
+         */
+        boolean sameValue(int row, Column previous, int previousRow) {
+            if (type == ViewOrderingType.NUMBER) {
+                return numbers[row] == previous.numbers[previousRow];
+            }
+            return Objects.equals(strings[row], previous.strings[previousRow]);
+        }
+
+        /**
+         * Shrinks the column to its rows, before it's kept with the views.
+         */
+        void trim(int size) {
+            if (type == ViewOrderingType.NUMBER) {
+                numbers = Arrays.copyOf(numbers, size);
+            } else {
+                strings = Arrays.copyOf(strings, size);
+            }
+        }
+
+        /**
+         * Estimates the heap retained by the column, strings included.
+         */
+        long estimatedSizeInBytes() {
+            if (type == ViewOrderingType.NUMBER) {
+                return 16 + 8L * numbers.length;
+            }
+            long size = 16 + 4L * strings.length;
+            for (String value : strings) {
+                size += value != null ? 40 + value.length() : 0;
+            }
+            return size;
+        }
+
+        /**
+         * Returns the comparator of two rows by value in descending order, then by the tie-breaking comparator.
+         */
+        IndexSorter.IndexComparator comparator(IndexSorter.IndexComparator tieBreak) {
+            if (type == ViewOrderingType.NUMBER) {
+                long[] values = numbers;
+                return (left, right) -> {
+                    int comparison = Long.compare(values[right], values[left]);
+                    return comparison != 0 ? comparison : tieBreak.compare(left, right);
+                };
+            }
+
+            String[] values = strings;
+            return (left, right) -> {
+                String leftValue = values[left];
+                String rightValue = values[right];
+                int comparison = leftValue == null || rightValue == null
+                        ? compareNullsLast(leftValue, rightValue)
+                        : rightValue.compareTo(leftValue);
+                return comparison != 0 ? comparison : tieBreak.compare(left, right);
+            };
+        }
+
+        /**
+         * Renders the JSON fragment of a repository, like ["Netflix/repo", 42] or ["Netflix/repo", "2023-11-29"].
+         */
+        String render(String name, int row) {
+            if (type == ViewOrderingType.NUMBER) {
+                return "[\"" + name + "\", " + numbers[row] + "]";
+            }
+            String value = strings[row];
+            return "[\"" + name + "\", " + (value != null ? "\"" + value + "\"" : "null") + "]";
+        }
+    }
+
+    /**
+     * Rows holds the repositories of a build as they were read, with the order of each view, kept with the views so
+     * the next build of the organization can reuse what didn't change.
+     */
+    public static class Rows {
+
+        // Number of repositories
+        private final int size;
+
+        // Name of each repository
+        private final String[] names;
+
+        // Id of each repository
+        private final Column ids;
+
+        // Columns of the orderings, keyed by field and type
+        private final Map<String, Column> columns;
+
+        // Row of each position of the view of every ordering, keyed by the orderedBy path segment
+        private final Map<String, int[]> orders = new HashMap<>();
+
+        private Rows(String[] names, Column ids, Map<String, Column> columns) {
+            this.size = names.length;
+            this.names = names;
+            this.ids = ids;
+            this.columns = columns;
+            ids.trim(size);
+            columns.values().forEach(column -> column.trim(size));
+        }
+
+        /**
+         * Matches every row to the row of the same repository, same id and same name, in the rows of a previous build.
+         * GitHub lists repositories in a stable order, so rows are compared by position first and looked up by name
+         * only when the position doesn't match.
+         *
+         * @param previous The rows of the previous build.
+         * @return The previous row of each row, -1 for an added repository.
+         */
+        private int[] match(Rows previous) {
+            int[] previousRows = new int[size];
+            boolean[] matched = new boolean[previous.size];
+            Map<String, Integer> previousRowsByName = null;
+
+            for (int row = 0; row < size; row++) {
+                int previousRow = row < previous.size && isSameRepo(row, previous, row) ? row : -1;
+                if (previousRow < 0) {
+                    if (previousRowsByName == null) {
+                        previousRowsByName = new HashMap<>();
+                        for (int i = 0; i < previous.size; i++) {
+                            previousRowsByName.putIfAbsent(previous.names[i], i);
+                        }
+                    }
+                    Integer candidate = previousRowsByName.get(names[row]);
+                    previousRow = candidate != null && isSameRepo(row, previous, candidate) ? candidate : -1;
+                }
+
+                // A repository listed twice, e.g. when it moved between pages during the read, is matched once
+                if (previousRow >= 0 && !matched[previousRow]) {
+                    matched[previousRow] = true;
+                    previousRows[row] = previousRow;
+                } else {
+                    previousRows[row] = -1;
+                }
+            }
+
+            return previousRows;
+        }
+
+        /**
+         * Checks if a row and a row of a previous build hold the same repository.
+         */
+        private boolean isSameRepo(int row, Rows previous, int previousRow) {
+            return ids.numbers[row] == previous.ids.numbers[previousRow] && Objects.equals(names[row], previous.names[previousRow]);
+        }
+
+        /**
+         * Checks if the rows have the order of an ordering, built from the column with the given key.
+         */
+        private boolean hasOrder(String orderedBy, String key) {
+            return orders.containsKey(orderedBy) && columns.containsKey(key);
+        }
+
+        /**
+         * Estimates the heap retained by the rows, to weigh them with the views against the memory budget of the view
+         * cache. Repository names are ASCII, so each character takes one byte.
+         *
+         * @return The approximate size of the rows in bytes.
+         */
+        public long estimatedSizeInBytes() {
+            long size = 64 + 4L * names.length + ids.estimatedSizeInBytes();
+            for (String name : names) {
+                size += name != null ? 40 + name.length() : 0;
+            }
+            for (Column column : columns.values()) {
+                size += column.estimatedSizeInBytes();
+            }
+            for (int[] order : orders.values()) {
+                size += 16 + 4L * order.length;
+            }
+            return size;
+        }
+    }
+}
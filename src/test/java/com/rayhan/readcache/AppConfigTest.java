@@ -1,16 +1,57 @@
 package com.rayhan.readcache;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.ReadCacheProperties.HttpClientType;
+import com.rayhan.readcache.ReadCacheProperties.RouteProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.StaleStore;
 import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.client.PaginatedResponse;
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
 import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_BASE_URL;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
 import static com.rayhan.readcache.constants.ApplicationConstant.PAGE_SIZE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringBootTest
 class AppConfigTest {
@@ -18,34 +59,242 @@ class AppConfigTest {
     @Test
     void provideRestTemplate() {
         AppConfig appConfig = new AppConfig();
-        RestTemplate restTemplate = appConfig.provideRestTemplate();
+        RestTemplate restTemplate = appConfig.provideRestTemplate(new ReadCacheProperties());
 
         assertNotNull(restTemplate);
+        assertInstanceOf(JdkClientHttpRequestFactory.class, restTemplate.getRequestFactory());
+    }
+
+    @ParameterizedTest
+    @EnumSource(HttpClientType.class)
+    void provideRestTemplate_RevalidatesPagesWithEveryHttpClient(HttpClientType type) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/orgs/Netflix", exchange -> {
+            exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"etag-1\"");
+            if ("\"etag-1\"".equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                exchange.sendResponseHeaders(HttpStatus.NOT_MODIFIED.value(), -1);
+            } else {
+                byte[] body = "{\"login\":\"Netflix\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(HttpStatus.OK.value(), body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            ReadCacheProperties properties = new ReadCacheProperties();
+            properties.getUpstream().getHttpClient().setType(type);
+            GitHubClient gitHubClient = GitHubClient.builder()
+                    .baseUrl("http://localhost:" + server.getAddress().getPort())
+                    .pageSize(PAGE_SIZE)
+                    .mapper(new ObjectMapper())
+                    .restTemplate(new AppConfig().provideRestTemplate(properties))
+                    .pageCache(Caffeine.newBuilder().build())
+                    .build();
+
+            PaginatedResponse first = gitHubClient.readPaginatedDataIfModified(GITHUB_NETFLIX_ORG, false);
+            PaginatedResponse second = gitHubClient.readPaginatedDataIfModified(GITHUB_NETFLIX_ORG, false);
+
+            assertEquals("{\"login\":\"Netflix\"}", first.getBody());
+            assertTrue(second.isNotModified());
+            assertEquals("{\"login\":\"Netflix\"}", second.getBody());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void provideClientHttpRequestFactory_SelectsConfiguredImplementation() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+
+        properties.getUpstream().getHttpClient().setType(HttpClientType.APACHE);
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, appConfig.provideClientHttpRequestFactory(properties));
+
+        properties.getUpstream().getHttpClient().setType(HttpClientType.SIMPLE);
+        assertInstanceOf(SimpleClientHttpRequestFactory.class, appConfig.provideClientHttpRequestFactory(properties));
     }
 
     @Test
     void provideGitHubClient() {
         AppConfig appConfig = new AppConfig();
-        GitHubClient gitHubClient = appConfig.provideGitHubClient();
+        GitHubClient gitHubClient = appConfig.provideGitHubClient(new ReadCacheProperties(), new MockEnvironment(), appConfig.provideUpstreamScheduler(new ReadCacheProperties()),
+                appConfig.provideCircuitBreaker(new ReadCacheProperties()), appConfig.provideUpstreamMetrics());
 
         assertNotNull(gitHubClient);
         assertEquals(GITHUB_BASE_URL, gitHubClient.getBaseUrl());
         assertEquals(PAGE_SIZE, gitHubClient.getPageSize());
+        assertNotNull(gitHubClient.getUpstreamScheduler());
+        assertNotNull(gitHubClient.getCircuitBreaker());
+    }
+
+    @Test
+    void provideGitHubClient_WithParallelPageFanOut() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getUpstream().setPageConcurrency(4);
+
+        GitHubClient gitHubClient = appConfig.provideGitHubClient(properties, new MockEnvironment(), appConfig.provideUpstreamScheduler(new ReadCacheProperties()),
+                appConfig.provideCircuitBreaker(new ReadCacheProperties()), appConfig.provideUpstreamMetrics());
+
+        assertNotNull(gitHubClient.getPageExecutor());
+        assertNull(appConfig.provideGitHubClient(new ReadCacheProperties(), new MockEnvironment(), appConfig.provideUpstreamScheduler(new ReadCacheProperties()),
+                appConfig.provideCircuitBreaker(new ReadCacheProperties()), appConfig.provideUpstreamMetrics()).getPageExecutor());
     }
 
     @Test
-    void provideSharedReadCache() {
+    void provideRouteTable() {
         AppConfig appConfig = new AppConfig();
-        Cache<String, String> sharedReadCache = appConfig.provideSharedReadCache();
+        RouteTable<Cache<String, CachedResponse>> routeTable = appConfig.provideRouteTable(new ReadCacheProperties(), new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1)));
 
-        assertNotNull(sharedReadCache);
+        assertNotNull(routeTable.match(GITHUB_REPOS_PATH).getCache());
+        assertNotSame(routeTable.match(GITHUB_REPOS_PATH).getCache(), routeTable.match(GITHUB_NETFLIX_ORG).getCache());
     }
 
     @Test
     void provideGitHubRepoViewCache() {
         AppConfig appConfig = new AppConfig();
-        Cache<String, GitHubRepoViewData> gitHubRepoViewCache = appConfig.provideGitHubRepoViewCache();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getView().setCacheMaxWeight(DataSize.ofMegabytes(8));
+        Cache<String, GitHubRepoViewData> gitHubRepoViewCache = appConfig.provideGitHubRepoViewCache(properties, appConfig.provideRouteTable(properties, new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1))));
+
+        assertEquals(DataSize.ofMegabytes(8).toBytes(), gitHubRepoViewCache.policy().eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    void provideRouteTable_AppliesPolicyOfEachRoute() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getCache().getRefreshAhead().setHardTtl(Duration.ofMinutes(10));
+        properties.getRoutes().get("repos").setRefreshAhead(true);
+        properties.getRoutes().get("repos").setMaxWeight(DataSize.ofKilobytes(5));
+
+        RouteTable<Cache<String, CachedResponse>> routeTable = appConfig.provideRouteTable(properties, new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1)));
+
+        Cache<String, CachedResponse> reposCache = routeTable.match(GITHUB_REPOS_PATH).getCache();
+        assertEquals(Duration.ofMinutes(10), reposCache.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertEquals(5 * 1024, reposCache.policy().eviction().orElseThrow().getMaximum());
+        assertTrue(reposCache.policy().isRecordingStats());
+        Cache<String, CachedResponse> orgCache = routeTable.match(GITHUB_NETFLIX_ORG).getCache();
+        assertEquals(Duration.ofSeconds(60), orgCache.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        Cache<String, GitHubRepoViewData> viewCache = appConfig.provideGitHubRepoViewCache(properties, routeTable);
+        viewCache.put(GITHUB_DEFAULT_ORG, new GitHubRepoViewData(Map.of()));
+        assertEquals(Duration.ofMinutes(10).toSeconds(), viewCache.policy().expireVariably().orElseThrow().getExpiresAfter(GITHUB_DEFAULT_ORG).orElseThrow().toSeconds(), 1);
+    }
+
+    @Test
+    void provideGitHubRepoViewCache_ExpiresViewsWithRepositoriesOfTheirOrganization() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        RouteProperties googleRepos = new RouteProperties("/orgs/Google/repos");
+        googleRepos.setTtl(Duration.ofMinutes(5));
+        properties.getRoutes().put("google-repos", googleRepos);
+        Cache<String, GitHubRepoViewData> viewCache = appConfig.provideGitHubRepoViewCache(properties,
+                appConfig.provideRouteTable(properties, new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1))));
+
+        viewCache.put("Google", new GitHubRepoViewData(Map.of()));
+        viewCache.put(GITHUB_DEFAULT_ORG, new GitHubRepoViewData(Map.of()).withLoadedAt(System.nanoTime() - Duration.ofSeconds(40).toNanos()));
+
+        // Each organization follows its own route, and a view lives for what's left of its repositories response's TTL
+        var expiration = viewCache.policy().expireVariably().orElseThrow();
+        assertEquals(Duration.ofMinutes(5).toSeconds(), expiration.getExpiresAfter("Google").orElseThrow().toSeconds(), 1);
+        assertEquals(Duration.ofSeconds(20).toSeconds(), expiration.getExpiresAfter(GITHUB_DEFAULT_ORG).orElseThrow().toSeconds(), 1);
+    }
+
+    @Test
+    void provideRouteTable_EvictsByResponseSize() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getRoutes().get("repos").setMaxWeight(DataSize.ofKilobytes(64));
+        Cache<String, CachedResponse> reposCache = appConfig.provideRouteTable(properties, new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1))).match(GITHUB_REPOS_PATH).getCache();
+
+        for (int i = 0; i < 100; i++) {
+            reposCache.put("/orgs/org" + i + "/repos", CachedResponse.of("x".repeat(4 * 1024), -1));
+        }
+        reposCache.cleanUp();
+
+        assertTrue(reposCache.estimatedSize() < 16, "Only about 15 responses of 4KB fit in 64KB");
+        assertTrue(reposCache.policy().eviction().orElseThrow().weightedSize().orElseThrow() <= DataSize.ofKilobytes(64).toBytes());
+    }
+
+    @Test
+    void provideRouteTable_DemotesEvictedResponsesOffHeap() {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getRoutes().get("repos").setMaxWeight(DataSize.ofKilobytes(16));
+        properties.getCache().getOffHeap().setEnabled(true);
+        OffHeapStore offHeapStore = appConfig.provideOffHeapStore(properties);
+        Cache<String, CachedResponse> reposCache = appConfig.provideRouteTable(properties, offHeapStore, new StaleStore(0, Duration.ofHours(1))).match(GITHUB_REPOS_PATH).getCache();
+
+        for (int i = 0; i < 20; i++) {
+            reposCache.put("/orgs/org" + i + "/repos", CachedResponse.of("x".repeat(4 * 1024), -1));
+        }
+        reposCache.cleanUp();
+
+        long demoted = IntStream.range(0, 20).filter(i -> offHeapStore.get("/orgs/org" + i + "/repos") != null).count();
+        assertEquals(20 - reposCache.estimatedSize(), demoted);
+        assertFalse(appConfig.provideOffHeapStore(new ReadCacheProperties()).isEnabled());
+    }
+
+    @Test
+    void provideRouteTable_ReleasesHeapOfDemotedResponses() throws InterruptedException {
+        AppConfig appConfig = new AppConfig();
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getRoutes().get("repos").setMaxWeight(DataSize.ofKilobytes(16));
+        properties.getCache().getOffHeap().setEnabled(true);
+        OffHeapStore offHeapStore = appConfig.provideOffHeapStore(properties);
+        StaleStore staleStore = appConfig.provideStaleStore(properties);
+        Cache<String, CachedResponse> reposCache = appConfig.provideRouteTable(properties, offHeapStore, staleStore).match(GITHUB_REPOS_PATH).getCache();
+
+        List<WeakReference<CachedResponse>> responses = IntStream.range(0, 20).mapToObj(i -> {
+            CachedResponse response = CachedResponse.of("x".repeat(4 * 1024), -1);
+            staleStore.put("/orgs/org" + i + "/repos", response);
+            reposCache.put("/orgs/org" + i + "/repos", response);
+            return new WeakReference<>(response);
+        }).toList();
+        reposCache.cleanUp();
+
+        List<Integer> demoted = IntStream.range(0, 20).filter(i -> offHeapStore.get("/orgs/org" + i + "/repos") != null).boxed().toList();
+        assertFalse(demoted.isEmpty());
+        for (int i = 0; i < 10 && demoted.stream().anyMatch(j -> responses.get(j).get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // The stale store serves the off-heap copies, so the heap responses are only weakly reachable
+        for (int i : demoted) {
+            assertNull(responses.get(i).get());
+            assertTrue(staleStore.get("/orgs/org" + i + "/repos").isOffHeap());
+        }
+    }
+
+    @Test
+    void providePageCache() {
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getUpstream().setPageCacheMaxWeight(DataSize.ofMegabytes(2));
+
+        assertEquals(DataSize.ofMegabytes(2).toBytes(), AppConfig.providePageCache(properties).policy().eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    void provideCacheRefreshExecutor() {
+        AppConfig appConfig = new AppConfig();
+        Executor executor = appConfig.provideCacheRefreshExecutor(new ReadCacheProperties(), new MockEnvironment());
+
+        assertInstanceOf(ThreadPoolExecutor.class, executor);
+        ((ThreadPoolExecutor) executor).shutdownNow();
+    }
+
+    @Test
+    void provideUpstreamPageExecutor_UsesVirtualThreadsWhenEnabled() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+        AppConfig appConfig = new AppConfig();
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+        Executor executor = appConfig.provideUpstreamPageExecutor(new ReadCacheProperties(), environment);
+        CompletableFuture<Thread> thread = CompletableFuture.supplyAsync(Thread::currentThread, executor);
 
-        assertNotNull(gitHubRepoViewCache);
+        assertEquals("VirtualThread", thread.get(5, TimeUnit.SECONDS).getClass().getSimpleName());
     }
 }
@@ -2,19 +2,40 @@ package com.rayhan.readcache;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
 class VendorApiProxyAndCachingApplicationTest {
 
     @Autowired
     private VendorApiProxyAndCachingApplication application;
 
+    @Autowired
+    private MockMvc mockMvc;
+
     @Test
     void contextLoads() {
         assertTrue(application != null);
     }
-}
 
+    @Test
+    void prometheusEndpoint_PublishesCacheAndUpstreamMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"route\",result=\"miss\",route=\"repos\"")))
+                .andExpect(content().string(containsString("readcache_upstream_page_seconds_bucket")))
+                .andExpect(content().string(containsString("readcache_upstream_inflight_reads")))
+                .andExpect(content().string(containsString("readcache_view_build_seconds_count")));
+    }
+}
@@ -0,0 +1,337 @@
+package com.rayhan.readcache.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_LIMIT_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_REMAINING_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_RESET_HEADER;
+
+/**
+ * Local stand-in for the GitHub API, for load tests without network access or rate-limit worries.
+ * It serves the root, organizations with synthetic members and repositories, and the organizations of any user. Lists
+ * are paginated by the per_page and page parameters with GitHub's Link header, every answer carries an ETag honored by
+ * If-None-Match, and the X-RateLimit-* headers count down a quota that 304 answers don't use, as on GitHub.
+ * Every answer can be delayed by a fixed latency, and a share of the requests can fail with 502 Bad Gateway.
+ */
+public class FakeGitHubServer implements AutoCloseable {
+    private static final Pattern ORG_PATH = Pattern.compile("/orgs/([^/]+)(/members|/repos)?");
+    private static final Pattern USER_ORGS_PATH = Pattern.compile("/users/([^/]+)/orgs");
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MEMBERS_PER_ORG = 60;
+    private static final long RATE_LIMIT_WINDOW_IN_SECONDS = 3600;
+
+    // Number of repositories of every organization
+    private final int reposPerOrg;
+
+    // Delay of every answer
+    private final Duration latency;
+
+    // Share of the requests failing with 502 Bad Gateway, from 0 to 1
+    private final double failureRate;
+
+    // Requests allowed per rate-limit window
+    private final long rateLimit;
+
+    // Bodies served so far, by path and query, as they never change
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+
+    // Requests received, whatever their answer
+    private final AtomicLong requests = new AtomicLong();
+
+    // Requests answered with 304 Not Modified
+    private final AtomicLong notModified = new AtomicLong();
+
+    // Requests failed on purpose
+    private final AtomicLong failures = new AtomicLong();
+
+    // Requests left in the rate-limit window
+    private final AtomicLong remaining;
+
+    // Epoch second the rate-limit window resets at
+    private final long resetAt;
+
+    // Threads answering requests, one per request so latency doesn't queue them
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // The HTTP server
+    private final HttpServer server;
+
+    /**
+     * Starts the server on a free local port.
+     *
+     * @param reposPerOrg The number of repositories of every organization.
+     * @param latency     The delay of every answer.
+     * @param failureRate The share of the requests failing with 502 Bad Gateway, from 0 to 1.
+     * @param rateLimit   The requests allowed per rate-limit window of an hour.
+     * @throws IOException If the server can't bind a port.
+     */
+    public FakeGitHubServer(int reposPerOrg, Duration latency, double failureRate, long rateLimit) throws IOException {
+        this.reposPerOrg = reposPerOrg;
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.rateLimit = rateLimit;
+        this.remaining = new AtomicLong(rateLimit);
+        this.resetAt = System.currentTimeMillis() / 1000 + RATE_LIMIT_WINDOW_IN_SECONDS;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the base URL to configure as readcache.upstream.base-url.
+     *
+     * @return The URL of the server, without a trailing slash.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of requests received so far, whatever their answer.
+     *
+     * @return The request count.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests answered with 304 Not Modified so far.
+     *
+     * @return The 304 count.
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * Returns the number of requests failed on purpose so far.
+     *
+     * @return The 502 count.
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Answers a request, after the configured latency.
+     *
+     * @param exchange The request and its answer.
+     * @throws IOException If the answer can't be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Thread.sleep(latency.toMillis());
+
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                send(exchange, 502, "{\"message\": \"Server Error\"}");
+                return;
+            }
+
+            URI uri = exchange.getRequestURI();
+            String body = bodies.computeIfAbsent(uri.toString(), key -> render(uri));
+            if (body == null) {
+                send(exchange, 404, "{\"message\": \"Not Found\"}");
+                return;
+            }
+
+            String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                send(exchange, 304, null);
+                return;
+            }
+
+            if (remaining.get() <= 0) {
+                send(exchange, 403, "{\"message\": \"API rate limit exceeded\"}");
+                return;
+            }
+            remaining.decrementAndGet();
+            send(exchange, 200, body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Renders the body of a resource.
+     *
+     * @param uri The URI of the resource.
+     * @return The JSON body, or null if there is no such resource.
+     */
+    private String render(URI uri) {
+        String path = uri.getPath();
+        if (path.equals("/")) {
+            return "{\"current_user_url\": \"" + getBaseUrl() + "/user\", \"organization_url\": \"" + getBaseUrl() + "/orgs/{org}\"}";
+        }
+
+        Matcher userOrgs = USER_ORGS_PATH.matcher(path);
+        if (userOrgs.matches()) {
+            return "[{\"login\": \"Org-of-" + userOrgs.group(1) + "\", \"id\": " + userOrgs.group(1).hashCode() + "}]";
+        }
+
+        Matcher org = ORG_PATH.matcher(path);
+        if (!org.matches()) {
+            return null;
+        }
+        String name = org.group(1);
+        if (org.group(2) == null) {
+            return "{\"login\": \"" + name + "\", \"id\": " + name.hashCode() + ", \"public_repos\": " + reposPerOrg + "}";
+        }
+
+        Map<String, String> query = queryParams(uri);
+        int pageSize = Integer.parseInt(query.getOrDefault("per_page", String.valueOf(DEFAULT_PAGE_SIZE)));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        boolean repos = org.group(2).equals("/repos");
+        int count = repos ? reposPerOrg : MEMBERS_PER_ORG;
+
+        StringBuilder body = new StringBuilder("[");
+        for (int id = (page - 1) * pageSize; id < Math.min(page * pageSize, count); id++) {
+            body.append(body.length() == 1 ? "\n" : ",\n").append(repos ? repo(name, id) : member(name, id));
+        }
+        return body.append("\n]").toString();
+    }
+
+    /**
+     * Writes an answer, with the rate-limit headers and, for pages of a list, the Link header.
+     *
+     * @param exchange The request and its answer.
+     * @param status   The status of the answer.
+     * @param body     The JSON body, null for none.
+     * @throws IOException If the answer can't be written.
+     */
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getResponseHeaders().set(RATE_LIMIT_LIMIT_HEADER, String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set(RATE_LIMIT_REMAINING_HEADER, String.valueOf(Math.max(0, remaining.get())));
+        exchange.getResponseHeaders().set(RATE_LIMIT_RESET_HEADER, String.valueOf(resetAt));
+        String link = link(exchange.getRequestURI());
+        if (link != null && status < 500) {
+            exchange.getResponseHeaders().set("Link", link);
+        }
+
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Builds the Link header of a page of members or repositories, with the prev, next, last and first relations
+     * GitHub sends.
+     *
+     * @param uri The URI of the page.
+     * @return The Link header, or null for a resource that is not a list of several pages.
+     */
+    private String link(URI uri) {
+        Matcher org = ORG_PATH.matcher(uri.getPath());
+        if (!org.matches() || org.group(2) == null) {
+            return null;
+        }
+
+        Map<String, String> query = queryParams(uri);
+        int pageSize = Integer.parseInt(query.getOrDefault("per_page", String.valueOf(DEFAULT_PAGE_SIZE)));
+        int page = Integer.parseInt(query.getOrDefault("page", "1"));
+        int count = org.group(2).equals("/repos") ? reposPerOrg : MEMBERS_PER_ORG;
+        int lastPage = Math.max(1, (count + pageSize - 1) / pageSize);
+        if (lastPage == 1) {
+            return null;
+        }
+
+        String pageUrl = getBaseUrl() + uri.getPath() + "?per_page=" + pageSize + "&page=";
+        StringBuilder link = new StringBuilder();
+        if (page > 1) {
+            link.append('<').append(pageUrl).append(page - 1).append(">; rel=\"prev\", ");
+        }
+        if (page < lastPage) {
+            link.append('<').append(pageUrl).append(page + 1).append(">; rel=\"next\", ");
+            link.append('<').append(pageUrl).append(lastPage).append(">; rel=\"last\"");
+        }
+        if (page > 1) {
+            link.append(page < lastPage ? ", " : "").append('<').append(pageUrl).append(1).append(">; rel=\"first\"");
+        }
+        return link.toString();
+    }
+
+    /**
+     * Parses the query parameters of a URI.
+     *
+     * @param uri The URI.
+     * @return The parameters by name, the first value of each.
+     */
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        if (uri.getRawQuery() == null) {
+            return params;
+        }
+        for (String param : uri.getRawQuery().split("&")) {
+            String[] nameAndValue = param.split("=", 2);
+            if (nameAndValue.length == 2) {
+                params.putIfAbsent(nameAndValue[0], nameAndValue[1]);
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Renders a synthetic repository of an organization, with the fields the views are ordered by.
+     */
+    private static String repo(String org, int id) {
+        return "  {\"id\": " + id
+                + ", \"name\": \"repo-" + id + "\""
+                + ", \"full_name\": \"" + org + "/repo-" + id + "\""
+                + ", \"private\": false"
+                + ", \"owner\": {\"login\": \"" + org + "\", \"type\": \"Organization\"}"
+                + ", \"description\": \"Synthetic repository number " + id + "\""
+                + ", \"fork\": " + (id % 7 == 0)
+                + ", \"updated_at\": \"2023-1" + id % 3 + "-0" + (1 + id % 9) + "T10:11:12Z\""
+                + ", \"stargazers_count\": " + id * 13 % 5_000
+                + ", \"forks_count\": " + id * 7 % 1_000
+                + ", \"open_issues_count\": " + id * 3 % 200
+                + ", \"language\": \"Java\""
+                + "}";
+    }
+
+    /**
+     * Renders a synthetic member of an organization.
+     */
+    private static String member(String org, int id) {
+        return "  {\"login\": \"" + org + "-member-" + id + "\", \"id\": " + id + ", \"type\": \"User\", \"site_admin\": false}";
+    }
+}
@@ -0,0 +1,219 @@
+package com.rayhan.readcache.benchmark;
+
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_FORKS;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_LAST_UPDATED;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_OPEN_ISSUES;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_STARS;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load harness. The application runs against a FakeGitHubServer instead of GitHub, and concurrent clients
+ * send it three traffic mixes in turn: cacheable organization resources, repository views, and passthrough requests.
+ * For each mix it prints the throughput, the p50 and p99 latency, the failed requests, and the requests that reached
+ * the fake GitHub, 304 revalidations included.
+ * It's not part of the regular test run. Run it with: ./mvnw test -Dtest=LoadHarnessBenchmark
+ * Tune it with -Dharness.clients (32), -Dharness.duration in seconds (10), -Dharness.orgs (20), -Dharness.repos per
+ * organization (1500), -Dharness.users (1000), -Dharness.latency of GitHub in milliseconds (50),
+ * -Dharness.failure-rate of GitHub from 0 to 1 (0) and -Dharness.rate-limit of GitHub per hour (1000000).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LoadHarnessBenchmark {
+    private static final int CLIENTS = Integer.getInteger("harness.clients", 32);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("harness.duration", 10));
+    private static final int ORGS = Integer.getInteger("harness.orgs", 20);
+    private static final int REPOS_PER_ORG = Integer.getInteger("harness.repos", 1500);
+    private static final int USERS = Integer.getInteger("harness.users", 1000);
+    private static final Duration GITHUB_LATENCY = Duration.ofMillis(Long.getLong("harness.latency", 50));
+    private static final double GITHUB_FAILURE_RATE = Double.parseDouble(System.getProperty("harness.failure-rate", "0"));
+    private static final long GITHUB_RATE_LIMIT = Long.getLong("harness.rate-limit", 1_000_000);
+    private static final List<String> VIEW_ORDERS = List.of(ORDER_BY_STARS, ORDER_BY_FORKS, ORDER_BY_OPEN_ISSUES, ORDER_BY_LAST_UPDATED);
+
+    private static final FakeGitHubServer gitHub = startGitHub();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void useFakeGitHub(DynamicPropertyRegistry registry) {
+        registry.add("readcache.upstream.base-url", gitHub::getBaseUrl);
+    }
+
+    @AfterAll
+    public static void stopGitHub() {
+        gitHub.close();
+    }
+
+    @Test
+    public void trafficMixes() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        System.out.printf("%d clients for %d s each, %d organizations of %d repositories, GitHub latency %d ms, failure rate %.2f%n",
+                CLIENTS, DURATION.toSeconds(), ORGS, REPOS_PER_ORG, GITHUB_LATENCY.toMillis(), GITHUB_FAILURE_RATE);
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %14s %10s%n",
+                "mix", "requests", "req/s", "p50 ms", "p99 ms", "failed", "github calls", "github 304");
+
+        MixResult cacheable = run(client, "cacheable", random -> switch (random % 4) {
+            case 0 -> "/";
+            case 1 -> "/orgs/" + org(random);
+            case 2 -> "/orgs/" + org(random) + "/members";
+            default -> "/orgs/" + org(random) + "/repos";
+        });
+        MixResult views = run(client, "view", random -> "/view/" + org(random) + "/" + (random % 2 == 0 ? "top" : "bottom")
+                + "/" + (1 + random % 100) + "/" + VIEW_ORDERS.get(random % VIEW_ORDERS.size()));
+        MixResult passthrough = run(client, "passthrough", random -> "/users/user-" + random % USERS + "/orgs");
+
+        for (MixResult result : List.of(cacheable, views, passthrough)) {
+            assertTrue(result.requests > 0);
+        }
+        if (GITHUB_FAILURE_RATE == 0) {
+            assertTrue(cacheable.githubCalls < cacheable.requests);
+            assertTrue(views.githubCalls < views.requests);
+        }
+    }
+
+    /**
+     * Sends a traffic mix from concurrent clients for the configured duration, and prints its results.
+     *
+     * @param client The HTTP client of the clients.
+     * @param mix    The name of the mix.
+     * @param paths  The function returning the path of a request for a random non-negative number.
+     * @return The results of the mix.
+     */
+    private MixResult run(HttpClient client, String mix, IntFunction<String> paths) throws Exception {
+        long githubCallsBefore = gitHub.getRequestCount();
+        long notModifiedBefore = gitHub.getNotModifiedCount();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<ClientResult>> clients = IntStream.range(0, CLIENTS)
+                .mapToObj(i -> executor.submit(() -> runClient(client, paths, deadline)))
+                .toList();
+
+        long[] latencies = new long[0];
+        long failed = 0;
+        for (Future<ClientResult> future : clients) {
+            ClientResult result = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + result.count);
+            System.arraycopy(result.latencies, 0, latencies, offset, result.count);
+            failed += result.failed;
+        }
+        executor.shutdown();
+        Arrays.sort(latencies);
+
+        MixResult result = new MixResult(latencies.length, gitHub.getRequestCount() - githubCallsBefore);
+        System.out.printf("%-12s %10d %10.0f %10.2f %10.2f %10d %14d %10d%n",
+                mix, result.requests, result.requests / (double) DURATION.toSeconds(),
+                percentileInMillis(latencies, 0.50), percentileInMillis(latencies, 0.99), failed,
+                result.githubCalls, gitHub.getNotModifiedCount() - notModifiedBefore);
+        return result;
+    }
+
+    /**
+     * Sends requests one after the other until the deadline.
+     *
+     * @param client   The HTTP client.
+     * @param paths    The function returning the path of a request for a random non-negative number.
+     * @param deadline The System.nanoTime() to stop at.
+     * @return The latencies of the requests and the number of failed ones.
+     */
+    private ClientResult runClient(HttpClient client, IntFunction<String> paths, long deadline) {
+        ClientResult result = new ClientResult();
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                    + paths.apply(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)))).build();
+            long start = System.nanoTime();
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                result.add(System.nanoTime() - start, status != 200);
+            } catch (IOException e) {
+                result.add(System.nanoTime() - start, true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of one of the organizations of the fake GitHub.
+     */
+    private static String org(int random) {
+        return "Org-" + random % ORGS;
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     */
+    private static double percentileInMillis(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Starts the fake GitHub with the configured organizations, latency, failures and rate limit.
+     */
+    private static FakeGitHubServer startGitHub() {
+        try {
+            return new FakeGitHubServer(REPOS_PER_ORG, GITHUB_LATENCY, GITHUB_FAILURE_RATE, GITHUB_RATE_LIMIT);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Latencies and failures recorded by one client.
+     */
+    private static class ClientResult {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long failed;
+
+        private void add(long latency, boolean failure) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (failure) {
+                failed++;
+            }
+        }
+    }
+
+    /**
+     * Requests sent in a mix and the requests they caused on the fake GitHub.
+     */
+    @AllArgsConstructor
+    private static class MixResult {
+        private final long requests;
+        private final long githubCalls;
+    }
+}
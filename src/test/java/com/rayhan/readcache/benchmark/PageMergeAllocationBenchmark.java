@@ -0,0 +1,126 @@
+package com.rayhan.readcache.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.rayhan.readcache.utils.JsonArrayMerger;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the bytes allocated to merge the pages of one paginated refresh, comparing the previous tree-based merge
+ * (readTree to check the body, readValue into an ArrayNode, toString) with the streaming JsonArrayMerger.
+ * It's not part of the regular test run. Run it with: ./mvnw test -Dtest=PageMergeAllocationBenchmark
+ */
+public class PageMergeAllocationBenchmark {
+    private static final int[] REPO_COUNTS = {150, 1_500, 15_000};
+    private static final int PAGE_SIZE = 150;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void bytesAllocatedPerRefresh() {
+        System.out.printf("%10s %8s %22s %22s %8s%n", "repos", "pages", "tree merge (bytes)", "streaming (bytes)", "ratio");
+
+        for (int repoCount : REPO_COUNTS) {
+            List<String> pages = generatePages(repoCount);
+            assertEquals(treeMerge(pages), JsonArrayMerger.merge(mapper.getFactory(), pages));
+
+            long treeBytes = bytesAllocatedPerCall(() -> treeMerge(pages));
+            long streamingBytes = bytesAllocatedPerCall(() -> JsonArrayMerger.merge(mapper.getFactory(), pages));
+
+            System.out.printf("%10d %8d %22d %22d %7.1fx%n", repoCount, pages.size(), treeBytes, streamingBytes, (double) treeBytes / streamingBytes);
+            assertTrue(streamingBytes < treeBytes);
+        }
+    }
+
+    /**
+     * The merge GitHubClient used before: every page is parsed into a tree twice, merged into one ArrayNode and serialized.
+     */
+    private String treeMerge(List<String> pages) {
+        ArrayNode result = mapper.createArrayNode();
+
+        try {
+            for (String page : pages) {
+                JsonNode jsonNode = mapper.readTree(page);
+                if (jsonNode == null || !jsonNode.isArray()) {
+                    return page;
+                }
+                result.addAll(mapper.readValue(page, ArrayNode.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+
+        return result.toString();
+    }
+
+    private long bytesAllocatedPerCall(Supplier<String> merge) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            merge.get();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            merge.get();
+        }
+
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+    }
+
+    /**
+     * Generates pages of synthetic repositories shaped like the GitHub list organization repositories response.
+     * Shared with the JMH benchmarks of the jmh profile as their offline fixtures.
+     */
+    public static List<String> generatePages(int repoCount) {
+        List<String> pages = new ArrayList<>();
+        StringBuilder page = new StringBuilder();
+
+        for (int id = 0; id < repoCount; id++) {
+            page.append(page.length() == 0 ? "[\n" : ",\n");
+            page.append("  {\"id\": ").append(id)
+                    .append(", \"node_id\": \"MDEwOlJlcG9zaXRvcnk").append(id).append("\"")
+                    .append(", \"name\": \"repo-").append(id).append("\"")
+                    .append(", \"full_name\": \"Netflix/repo-").append(id).append("\"")
+                    .append(", \"private\": false")
+                    .append(", \"owner\": {\"login\": \"Netflix\", \"id\": 913567, \"type\": \"Organization\", \"site_admin\": false}")
+                    .append(", \"html_url\": \"https://github.com/Netflix/repo-").append(id).append("\"")
+                    .append(", \"description\": \"Synthetic repository number ").append(id).append(" with a \\\"quoted\\\" word\"")
+                    .append(", \"fork\": ").append(id % 7 == 0)
+                    .append(", \"created_at\": \"2013-0").append(1 + id % 9).append("-15T18:25:12Z\"")
+                    .append(", \"updated_at\": \"2023-1").append(id % 3).append("-0").append(1 + id % 9).append("T10:11:12Z\"")
+                    .append(", \"pushed_at\": \"2023-1").append(id % 3).append("-0").append(1 + id % 9).append("T09:10:11Z\"")
+                    .append(", \"homepage\": null")
+                    .append(", \"size\": ").append(id * 37 % 100_000)
+                    .append(", \"stargazers_count\": ").append(id * 13 % 5_000)
+                    .append(", \"watchers_count\": ").append(id * 13 % 5_000)
+                    .append(", \"language\": \"Java\"")
+                    .append(", \"forks_count\": ").append(id * 7 % 1_000)
+                    .append(", \"open_issues_count\": ").append(id * 3 % 200)
+                    .append(", \"license\": {\"key\": \"apache-2.0\", \"name\": \"Apache License 2.0\", \"spdx_id\": \"Apache-2.0\"}")
+                    .append(", \"topics\": [\"java\", \"cloud\", \"oss\"]")
+                    .append(", \"default_branch\": \"main\"")
+                    .append(", \"score\": ").append(id / 3.0)
+                    .append("}");
+
+            if ((id + 1) % PAGE_SIZE == 0 || id == repoCount - 1) {
+                pages.add(page.append("\n]").toString());
+                page.setLength(0);
+            }
+        }
+
+        return pages;
+    }
+}
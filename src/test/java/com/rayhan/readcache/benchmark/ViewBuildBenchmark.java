@@ -0,0 +1,134 @@
+package com.rayhan.readcache.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.model.GitHubRepoData;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import com.rayhan.readcache.utils.JsonArrayMerger;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_FORKS;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_LAST_UPDATED;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_OPEN_ISSUES;
+import static com.rayhan.readcache.constants.ApplicationConstant.ORDER_BY_STARS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the time and bytes allocated to rebuild the repository views, comparing the previous pipeline (readValue into
+ * a List of ObjectNode, then one boxed stream sort per ordering) with the single-pass RepoViewBuilder.
+ * The builder allocates on the calling thread only below the parallel sort threshold, so allocations are compared with
+ * parallel sorting disabled. It's not part of the regular test run. Run it with: ./mvnw test -Dtest=ViewBuildBenchmark
+ */
+public class ViewBuildBenchmark {
+    private static final int[] REPO_COUNTS = {1_500, 15_000, 50_000};
+    private static final int WARMUP_ITERATIONS = 10;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void rebuildTimeAndAllocation() {
+        ReadCacheProperties.ViewProperties sequential = new ReadCacheProperties.ViewProperties();
+        sequential.setParallelSortThreshold(Integer.MAX_VALUE);
+        RepoViewBuilder sequentialBuilder = new RepoViewBuilder(sequential);
+        RepoViewBuilder parallelBuilder = new RepoViewBuilder(new ReadCacheProperties.ViewProperties());
+
+        System.out.printf("%8s %14s %14s %14s %18s %18s %8s%n",
+                "repos", "streams (ms)", "builder (ms)", "parallel (ms)", "streams (bytes)", "builder (bytes)", "ratio");
+
+        for (int repoCount : REPO_COUNTS) {
+            String json = JsonArrayMerger.merge(mapper.getFactory(), PageMergeAllocationBenchmark.generatePages(repoCount));
+            assertSameViews(streamViews(json), sequentialBuilder.build(json));
+            assertSameViews(streamViews(json), parallelBuilder.build(json));
+
+            double streamMillis = millisPerCall(this::streamViews, json);
+            double builderMillis = millisPerCall(sequentialBuilder::build, json);
+            double parallelMillis = millisPerCall(parallelBuilder::build, json);
+            long streamBytes = bytesAllocatedPerCall(this::streamViews, json);
+            long builderBytes = bytesAllocatedPerCall(sequentialBuilder::build, json);
+
+            System.out.printf("%8d %14.2f %14.2f %14.2f %18d %18d %7.1fx%n",
+                    repoCount, streamMillis, builderMillis, parallelMillis, streamBytes, builderBytes, (double) streamBytes / builderBytes);
+            assertTrue(builderBytes < streamBytes);
+        }
+    }
+
+    /**
+     * The view generation GitHubHelper used before: the whole response is bound to ObjectNodes, and every ordering
+     * boxes each repository into a GitHubRepoData and sorts them with a generic comparator.
+     */
+    private GitHubRepoViewData streamViews(String json) {
+        List<ObjectNode> repositories;
+        try {
+            repositories = mapper.readValue(json, new TypeReference<List<ObjectNode>>() {});
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+
+        Comparator<GitHubRepoData<Integer>> intOrder = Comparator.comparing((GitHubRepoData<Integer> repo) -> repo.getOrder()).reversed()
+                .thenComparing(GitHubRepoData::getName);
+        Comparator<GitHubRepoData<String>> stringOrder = Comparator.comparing((GitHubRepoData<String> repo) -> repo.getOrder()).reversed()
+                .thenComparing(GitHubRepoData::getName);
+
+        return new GitHubRepoViewData(Map.of(
+                ORDER_BY_FORKS, RepoViewIndex.of(repositories.stream()
+                        .map(repository -> new GitHubRepoData<>(repository.get("full_name").asText(), repository.get("forks_count").asInt()))
+                        .sorted(intOrder).toList()),
+                ORDER_BY_STARS, RepoViewIndex.of(repositories.stream()
+                        .map(repository -> new GitHubRepoData<>(repository.get("full_name").asText(), repository.get("stargazers_count").asInt()))
+                        .sorted(intOrder).toList()),
+                ORDER_BY_OPEN_ISSUES, RepoViewIndex.of(repositories.stream()
+                        .map(repository -> new GitHubRepoData<>(repository.get("full_name").asText(), repository.get("open_issues_count").asInt()))
+                        .sorted(intOrder).toList()),
+                ORDER_BY_LAST_UPDATED, RepoViewIndex.of(repositories.stream()
+                        .map(repository -> new GitHubRepoData<>(repository.get("full_name").asText(), repository.get("updated_at").asText()))
+                        .sorted(stringOrder).toList())));
+    }
+
+    private static void assertSameViews(GitHubRepoViewData expected, GitHubRepoViewData actual) {
+        for (String orderedBy : expected.getViews().keySet()) {
+            RepoViewIndex view = expected.getView(orderedBy);
+            assertEquals(view.top(view.size()), actual.getView(orderedBy).top(view.size()));
+        }
+    }
+
+    private double millisPerCall(Function<String, GitHubRepoViewData> build, String json) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            build.apply(json);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            build.apply(json);
+        }
+
+        return (System.nanoTime() - start) / 1e6 / MEASURED_ITERATIONS;
+    }
+
+    private long bytesAllocatedPerCall(Function<String, GitHubRepoViewData> build, String json) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            build.apply(json);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            build.apply(json);
+        }
+
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+    }
+}
@@ -0,0 +1,77 @@
+package com.rayhan.readcache.benchmark;
+
+import com.rayhan.readcache.client.GitHubClient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load scenario for passthrough requests on virtual threads. Every upstream call is stubbed to take one second, and
+ * more requests than Tomcat's 200 platform worker threads are sent at once. With virtual threads, all of them wait on
+ * the upstream at the same time instead of queueing for a worker thread.
+ * It needs Java 21 and is not part of the regular test run. Run it with: ./mvnw test -Dtest=VirtualThreadPassthroughBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+public class VirtualThreadPassthroughBenchmark {
+    private static final int PLATFORM_WORKER_THREADS = 200;
+    private static final int CONCURRENT_REQUESTS = 1_000;
+    private static final long UPSTREAM_LATENCY_IN_MILLIS = 1_000;
+
+    @MockBean
+    private GitHubClient gitHubClient;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    public static void requireVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+    }
+
+    @Test
+    public void passthroughConcurrencyBeyondPlatformWorkerThreads() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(gitHubClient.readPaginatedData(anyString())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_IN_MILLIS);
+                return "[]";
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/user-" + i + "/orgs")).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        responses.forEach(CompletableFuture::join);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%d passthrough requests, %d ms upstream latency: %d ms total, %d upstream calls in flight at most%n",
+                CONCURRENT_REQUESTS, UPSTREAM_LATENCY_IN_MILLIS, elapsedMillis, maxInFlight.get());
+        assertTrue(responses.stream().allMatch(response -> response.join().statusCode() == 200));
+        assertTrue(maxInFlight.get() > PLATFORM_WORKER_THREADS);
+    }
+}
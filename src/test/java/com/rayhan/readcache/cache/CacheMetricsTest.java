@@ -0,0 +1,60 @@
+package com.rayhan.readcache.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.model.CachedResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.ROUTE_REPOS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheMetricsTest {
+
+    @Test
+    public void bindTo_TagsRouteCachesWithTheirRoute() {
+        RouteTable<Cache<String, CachedResponse>> routeTable = RouteTable.of(new ReadCacheProperties(), policy -> Caffeine.newBuilder()
+                .maximumWeight(1024 * 1024)
+                .weigher(CacheWeigher::weighResponse)
+                .recordStats()
+                .build());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheMetrics().monitor("route", routeTable, cache -> cache).bindTo(registry);
+
+        Cache<String, CachedResponse> orgCache = routeTable.match(GITHUB_NETFLIX_ORG).getCache();
+        orgCache.put(GITHUB_NETFLIX_ORG, CachedResponse.of("{}", -1));
+        orgCache.getIfPresent(GITHUB_NETFLIX_ORG);
+        routeTable.match(GITHUB_REPOS_PATH).getCache().getIfPresent(GITHUB_REPOS_PATH);
+        // The weighed size is updated by Caffeine's maintenance, which runs asynchronously
+        orgCache.cleanUp();
+
+        assertEquals(1, registry.get("cache.gets").tags("route", ROUTE_ORG, "result", "hit").functionCounter().count());
+        assertEquals(0, registry.get("cache.gets").tags("route", ROUTE_ORG, "result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("route", ROUTE_REPOS, "result", "miss").functionCounter().count());
+        assertEquals(CacheWeigher.weighResponse(GITHUB_NETFLIX_ORG, orgCache.getIfPresent(GITHUB_NETFLIX_ORG)),
+                registry.get("readcache.cache.weight").tags("cache", "route", "route", ROUTE_ORG).gauge().value());
+    }
+
+    @Test
+    public void bindTo_PublishesSharedCachesWithoutRoute() {
+        StaleStore staleStore = new StaleStore(1024 * 1024, Duration.ofHours(1));
+        OffHeapStore offHeapStore = new OffHeapStore(1024 * 1024);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheMetrics().monitor(staleStore).monitor(offHeapStore).bindTo(registry);
+
+        staleStore.put(GITHUB_NETFLIX_ORG, CachedResponse.of("{}", -1));
+        offHeapStore.demote(GITHUB_NETFLIX_ORG, CachedResponse.of("{}", -1), Duration.ofMinutes(1));
+        offHeapStore.getEntries().cleanUp();
+
+        assertEquals(1, registry.get("cache.size").tags("cache", "stale", "route", "none").gauge().value());
+        assertEquals(offHeapStore.getSizeInBytes(), registry.get("readcache.cache.weight").tags("cache", "offheap").gauge().value());
+        assertTrue(offHeapStore.getSizeInBytes() > 0);
+    }
+}
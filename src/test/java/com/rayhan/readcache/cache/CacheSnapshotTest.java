@@ -0,0 +1,61 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.cache.CacheSnapshot.SnapshotResponse;
+import com.rayhan.readcache.client.CachedPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void writeTo_RoundTripsResponsesAndPages() throws IOException {
+        byte[] largeBody = "[{\"full_name\":\"Netflix/repo\"}]".repeat(5000).getBytes(StandardCharsets.UTF_8);
+        URI pageUri = URI.create("https://api.github.com/orgs/Netflix/repos?per_page=150&page=1");
+        CacheSnapshot snapshot = new CacheSnapshot(1_700_000_000_000L,
+                List.of(new SnapshotResponse("/orgs/Netflix/repos", 1500, largeBody), new SnapshotResponse("/", 0, new byte[0])),
+                Map.of(pageUri, new CachedPage("\"etag\"", null, "<https://api.github.com/page=2>; rel=\"next\"", "[{}]")));
+        Path file = directory.resolve("snapshots/readcache-snapshot.bin");
+
+        snapshot.writeTo(file);
+        CacheSnapshot restored = CacheSnapshot.readFrom(file);
+
+        assertEquals(1_700_000_000_000L, restored.getTakenAt());
+        assertEquals(2, restored.getResponses().size());
+        assertEquals("/orgs/Netflix/repos", restored.getResponses().get(0).getPath());
+        assertEquals(1500, restored.getResponses().get(0).getAgeInMillis());
+        assertArrayEquals(largeBody, restored.getResponses().get(0).getBody());
+        assertEquals(0, restored.getResponses().get(1).getBody().length);
+
+        CachedPage page = restored.getPages().get(pageUri);
+        assertEquals("\"etag\"", page.getEtag());
+        assertNull(page.getLastModified());
+        assertEquals("[{}]", page.getBody());
+        try (var files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void readFrom_RejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("not-a-snapshot.bin");
+        Files.writeString(file, "not a snapshot");
+
+        assertThrows(IOException.class, () -> CacheSnapshot.readFrom(file));
+    }
+}
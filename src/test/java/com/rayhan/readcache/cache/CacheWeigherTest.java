@@ -0,0 +1,56 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.client.CachedPage;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheWeigherTest {
+
+    @Test
+    public void sizeOf_CountsCharactersByEncoding() {
+        assertEquals(0, CacheWeigher.sizeOf((String) null));
+        assertEquals(CacheWeigher.STRING_OVERHEAD_IN_BYTES + 7, CacheWeigher.sizeOf("Netflix"));
+        assertEquals(CacheWeigher.STRING_OVERHEAD_IN_BYTES + 7, CacheWeigher.sizeOf("Netflïx"));
+        assertEquals(CacheWeigher.STRING_OVERHEAD_IN_BYTES + 14, CacheWeigher.sizeOf("Netfli中"));
+
+        assertEquals(0, CacheWeigher.sizeOf((byte[]) null));
+        assertEquals(CacheWeigher.BYTE_ARRAY_OVERHEAD_IN_BYTES + 3, CacheWeigher.sizeOf(new byte[3]));
+    }
+
+    @Test
+    public void weighResponse_GrowsWithBodyAndGzipVariant() {
+        String body = "[" + "{\"full_name\":\"Netflix/repo\"},".repeat(100) + "{}]";
+        CachedResponse identityOnly = CachedResponse.of(body, -1);
+        CachedResponse withGzip = CachedResponse.of(body, 0);
+
+        int identityWeight = CacheWeigher.weighResponse("/orgs/Netflix/repos", identityOnly);
+        assertTrue(identityWeight > body.length());
+        assertTrue(CacheWeigher.weighResponse("/orgs/Netflix/repos", withGzip) > identityWeight + withGzip.getGzipBody().length);
+        assertTrue(CacheWeigher.weighResponse("/orgs/Netflix/repos", identityOnly.toOffHeap()) < 256);
+    }
+
+    @Test
+    public void weighViewData_IncludesEveryView() {
+        RepoViewIndex view = new RepoViewIndex(new String[]{"[\"Netflix/a\", 1]", "[\"Netflix/b\", 2]"});
+        GitHubRepoViewData oneView = new GitHubRepoViewData(Map.of("forks", view));
+        GitHubRepoViewData twoViews = new GitHubRepoViewData(Map.of("forks", view, "stars", view));
+
+        assertEquals(CacheWeigher.weighViewData("Netflix", oneView) + view.estimatedSizeInBytes(), CacheWeigher.weighViewData("Netflix", twoViews));
+    }
+
+    @Test
+    public void weighPage_IncludesValidatorsAndBody() {
+        URI uri = URI.create("https://api.github.com/orgs/Netflix/repos?page=1");
+        CachedPage page = new CachedPage("\"etag\"", null, null, "x".repeat(1000));
+
+        assertTrue(CacheWeigher.weighPage(uri, page) > 1000 + uri.toString().length());
+    }
+}
@@ -0,0 +1,56 @@
+package com.rayhan.readcache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConsistentHashRingTest {
+    private static final List<String> NODES = List.of("http://localhost:8080", "http://localhost:8081", "http://localhost:8082");
+
+    @Test
+    public void ownerOf_SameOwnerOnEveryInstance() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        ConsistentHashRing reorderedRing = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 160);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.ownerOf("/orgs/org" + i), reorderedRing.ownerOf("/orgs/org" + i));
+        }
+    }
+
+    @Test
+    public void ownerOf_SpreadsKeysAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        Map<String, Integer> keysByNode = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            keysByNode.merge(ring.ownerOf("/orgs/org" + i + "/repos"), 1, Integer::sum);
+        }
+
+        assertEquals(3, keysByNode.size());
+        keysByNode.values().forEach(keys -> assertTrue(keys > 700 && keys < 1300, "Unbalanced ring: " + keysByNode));
+    }
+
+    @Test
+    public void ownerOf_RemovingNodeOnlyMovesItsKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        ConsistentHashRing shrunkRing = new ConsistentHashRing(NODES.subList(0, 2), 160);
+
+        for (int i = 0; i < 1000; i++) {
+            String owner = ring.ownerOf("/orgs/org" + i);
+            if (!owner.equals(NODES.get(2))) {
+                assertEquals(owner, shrunkRing.ownerOf("/orgs/org" + i));
+            }
+        }
+    }
+
+    @Test
+    public void constructor_RequiresNodes() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 160));
+    }
+}
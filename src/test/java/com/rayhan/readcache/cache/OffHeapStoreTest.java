@@ -0,0 +1,75 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.model.CachedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapStoreTest {
+
+    @Test
+    public void demote_CopiesResponseOffHeap() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        String body = "[" + "{\"full_name\":\"Netflix/repo\"},".repeat(100) + "{}]";
+        CachedResponse response = CachedResponse.of(body, 0);
+
+        store.demote("/orgs/Netflix/repos", response, Duration.ofMinutes(1));
+
+        CachedResponse demoted = store.get("/orgs/Netflix/repos");
+        assertTrue(demoted.isOffHeap());
+        assertEquals(body, StandardCharsets.UTF_8.decode(demoted.getBodyBuffer()).toString());
+        assertEquals(response.getGzipBodyBuffer(), demoted.getGzipBodyBuffer());
+        assertEquals(response.getLoadedAt(), demoted.getLoadedAt());
+        store.getEntries().cleanUp();
+        assertEquals(demoted.offHeapSizeInBytes(), store.getSizeInBytes());
+    }
+
+    @Test
+    public void demote_SkipsStaleResponses() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+
+        store.demote("/orgs/Netflix", CachedResponse.of("{}", -1), Duration.ZERO);
+
+        assertNull(store.get("/orgs/Netflix"));
+    }
+
+    @Test
+    public void demote_DoesNothingWhenDisabled() {
+        OffHeapStore store = new OffHeapStore(0);
+
+        store.demote("/orgs/Netflix", CachedResponse.of("{}", -1), Duration.ofMinutes(1));
+
+        assertFalse(store.isEnabled());
+        assertNull(store.get("/orgs/Netflix"));
+    }
+
+    @Test
+    public void demote_EvictsBeyondCapacity() {
+        OffHeapStore store = new OffHeapStore(10 * 1024);
+
+        for (int i = 0; i < 20; i++) {
+            store.demote("/orgs/org" + i, CachedResponse.of("x".repeat(1024), -1), Duration.ofMinutes(1));
+        }
+        store.demote("/orgs/huge", CachedResponse.of("x".repeat(20 * 1024), -1), Duration.ofMinutes(1));
+
+        store.getEntries().cleanUp();
+        assertTrue(store.getSizeInBytes() <= 10 * 1024);
+        assertNull(store.get("/orgs/huge"));
+    }
+
+    @Test
+    public void invalidate_RemovesDemotedResponse() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        store.demote("/orgs/Netflix", CachedResponse.of("{}", -1), Duration.ofMinutes(1));
+
+        store.invalidate("/orgs/Netflix");
+
+        assertNull(store.get("/orgs/Netflix"));
+    }
+}
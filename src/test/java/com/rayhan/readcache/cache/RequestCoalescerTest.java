@@ -0,0 +1,106 @@
+package com.rayhan.readcache.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+    @Test
+    public void execute_ConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        CompletableFuture<String> leader = runInThread(() -> coalescer.execute("key", () -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            awaitQuietly(releaseLoad);
+            return "value";
+        }));
+        loadStarted.await();
+
+        CompletableFuture<String> follower = runInThread(() -> coalescer.execute("key", () -> {
+            loads.incrementAndGet();
+            return "other-value";
+        }));
+        releaseLoad.countDown();
+
+        assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("value", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+
+        // The completed load is no longer shared, the next caller loads again
+        assertEquals("next-value", coalescer.execute("key", () -> {
+            loads.incrementAndGet();
+            return "next-value";
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void execute_FollowersReceiveLeaderFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("upstream failed");
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+
+        runInThread(() -> coalescer.execute("key", () -> {
+            loadStarted.countDown();
+            awaitQuietly(releaseLoad);
+            throw failure;
+        }));
+        loadStarted.await();
+
+        CompletableFuture<String> follower = runInThread(() -> coalescer.execute("key", () -> "unused"));
+        releaseLoad.countDown();
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, thrown.getCause());
+    }
+
+    @Test
+    public void execute_RunsAgainAfterPreviousLoadCompleted() {
+        assertEquals("first", coalescer.execute("key", () -> "first"));
+        assertEquals("second", coalescer.execute("key", () -> "second"));
+    }
+
+    /**
+     * Runs the call on a new thread and returns once that thread is blocked,
+     * either inside a loader or waiting on another caller's load.
+     */
+    public static <T> CompletableFuture<T> runInThread(Supplier<T> call) throws InterruptedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(call.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        thread.start();
+
+        while (thread.isAlive() && thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        return result;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
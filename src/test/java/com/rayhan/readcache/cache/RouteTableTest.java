@@ -0,0 +1,90 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.RouteProperties;
+import com.rayhan.readcache.cache.RouteTable.RoutePolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RouteTableTest {
+
+    @Test
+    public void match_DefaultRoutesCacheAnyOrganization() {
+        RouteTable<String> routeTable = RouteTable.of(new ReadCacheProperties(), RoutePolicy::getName);
+
+        assertEquals("root", routeTable.match("/").getCache());
+        assertEquals("org", routeTable.match("/orgs/Netflix").getCache());
+        assertEquals("members", routeTable.match("/orgs/Netflix/members").getCache());
+        assertEquals("repos", routeTable.match("/orgs/Google/repos").getCache());
+        assertNull(routeTable.match("/orgs/Netflix/non-cacheable"));
+        assertNull(routeTable.match("/users/Netflix/orgs"));
+    }
+
+    @Test
+    public void match_PrefersMostSpecificRoute() {
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getRoutes().put("org-any", new RouteProperties("/orgs/{org}/**"));
+        properties.getRoutes().put("netflix-repos", new RouteProperties("/orgs/Netflix/repos"));
+        properties.getRoutes().put("user-orgs", new RouteProperties("/users/{user}/orgs"));
+
+        RouteTable<String> routeTable = RouteTable.of(properties, RoutePolicy::getName);
+
+        assertEquals("netflix-repos", routeTable.match("/orgs/Netflix/repos").getCache());
+        assertEquals("repos", routeTable.match("/orgs/Google/repos").getCache());
+        assertEquals("org-any", routeTable.match("/orgs/Netflix/teams/core").getCache());
+        assertEquals("user-orgs", routeTable.match("/users/octocat/orgs").getCache());
+        assertEquals(7, routeTable.getRoutes().size());
+    }
+
+    @Test
+    public void of_ResolvesUnsetSettingsFromCacheSettings() {
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getCache().setTtl(Duration.ofSeconds(30));
+        properties.getCache().getRefreshAhead().setHardTtl(Duration.ofMinutes(10));
+        RouteProperties repos = properties.getRoutes().get("repos");
+        repos.setTtl(Duration.ofMinutes(5));
+        repos.setMaxWeight(DataSize.ofMegabytes(50));
+        repos.setRefreshAhead(true);
+
+        RouteTable<RoutePolicy> routeTable = RouteTable.of(properties, policy -> policy);
+
+        RoutePolicy reposPolicy = routeTable.match("/orgs/Netflix/repos").getCache();
+        assertEquals(Duration.ofMinutes(5), reposPolicy.getTtl());
+        assertEquals(DataSize.ofMegabytes(50).toBytes(), reposPolicy.getMaxWeight());
+        assertTrue(reposPolicy.isRefreshAhead());
+        assertEquals(Duration.ofMinutes(10), reposPolicy.getExpireAfterWrite());
+
+        RoutePolicy orgPolicy = routeTable.match("/orgs/Netflix").getCache();
+        assertEquals(Duration.ofSeconds(30), orgPolicy.getTtl());
+        assertEquals(properties.getCache().getMaxWeight().toBytes(), orgPolicy.getMaxWeight());
+        assertFalse(orgPolicy.isRefreshAhead());
+        assertEquals(Duration.ofSeconds(30), orgPolicy.getExpireAfterWrite());
+    }
+
+    @Test
+    public void of_RejectsInvalidRoutes() {
+        ReadCacheProperties withoutPattern = new ReadCacheProperties();
+        withoutPattern.getRoutes().put("broken", new RouteProperties());
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.of(withoutPattern, RoutePolicy::getName));
+
+        ReadCacheProperties duplicate = new ReadCacheProperties();
+        duplicate.getRoutes().put("root-again", new RouteProperties("/"));
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.of(duplicate, RoutePolicy::getName));
+    }
+
+    @Test
+    public void require_FailsWithoutMatchingRoute() {
+        RouteTable<String> routeTable = RouteTable.of(new ReadCacheProperties(), RoutePolicy::getName);
+
+        assertEquals("repos", routeTable.require("/orgs/Netflix/repos").getCache());
+        assertThrows(IllegalStateException.class, () -> routeTable.require("/users/Netflix/orgs"));
+    }
+}
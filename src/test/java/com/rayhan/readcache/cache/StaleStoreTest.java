@@ -0,0 +1,70 @@
+package com.rayhan.readcache.cache;
+
+import com.rayhan.readcache.model.CachedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaleStoreTest {
+
+    @Test
+    public void put_KeepsLastGoodResponse() {
+        StaleStore store = new StaleStore(1024 * 1024, Duration.ofHours(1));
+        CachedResponse first = CachedResponse.of("{\"id\":1}", -1);
+        CachedResponse second = CachedResponse.of("{\"id\":2}", -1);
+
+        store.put("/orgs/Netflix", first);
+        store.put("/orgs/Netflix", second);
+
+        assertTrue(store.isEnabled());
+        assertSame(second, store.get("/orgs/Netflix"));
+    }
+
+    @Test
+    public void put_SkipsErrorResponses() {
+        StaleStore store = new StaleStore(1024 * 1024, Duration.ofHours(1));
+
+        store.put("/orgs/Netflix", CachedResponse.of(404, "{\"message\":\"Not Found\"}", -1));
+
+        assertNull(store.get("/orgs/Netflix"));
+    }
+
+    @Test
+    public void demoted_SwapsLastGoodResponseForOffHeapCopy() {
+        StaleStore store = new StaleStore(1024 * 1024, Duration.ofHours(1));
+        CachedResponse response = CachedResponse.of("{\"id\":1}", -1);
+        CachedResponse newer = CachedResponse.of("{\"id\":2}", -1);
+        store.put("/orgs/Netflix", response);
+        store.put("/orgs/Google", newer);
+
+        store.demoted("/orgs/Netflix", response, response.toOffHeap());
+        store.demoted("/orgs/Google", response, response.toOffHeap());
+
+        assertTrue(store.get("/orgs/Netflix").isOffHeap());
+        assertSame(newer, store.get("/orgs/Google"));
+    }
+
+    @Test
+    public void get_DropsResponsesOlderThanMaxAge() {
+        StaleStore store = new StaleStore(1024 * 1024, Duration.ofHours(1));
+
+        store.put("/orgs/Netflix", CachedResponse.of("{}", -1).loadedAgo(Duration.ofHours(2)));
+
+        assertNull(store.get("/orgs/Netflix"));
+    }
+
+    @Test
+    public void get_ReturnsNothingWhenDisabled() {
+        StaleStore store = new StaleStore(0, Duration.ofHours(1));
+
+        store.put("/orgs/Netflix", CachedResponse.of("{}", -1));
+
+        assertFalse(store.isEnabled());
+        assertNull(store.get("/orgs/Netflix"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.CircuitBreakerProperties;
+import com.rayhan.readcache.client.CircuitBreaker.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CircuitBreakerTest {
+    private final CircuitBreakerProperties properties = new CircuitBreakerProperties();
+
+    @BeforeEach
+    public void setUp() {
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallThreshold(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void acquire_OpensAtFailureRateThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, false);
+        assertEquals(State.CLOSED, breaker.getState());
+
+        call(breaker, true);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+    }
+
+    @Test
+    public void acquire_CountsSlowCallsAsFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(breaker.acquire(), Duration.ofSeconds(2).toNanos());
+        }
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void acquire_SlidesWindowOverLastCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+
+        call(breaker, true);
+        for (int i = 0; i < 6; i++) {
+            call(breaker, false);
+        }
+        call(breaker, true);
+
+        // The first failure left the window, one failure of four calls stays below the threshold
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void acquire_LetsSingleProbeThroughWhenHalfOpen() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+        openCircuit(breaker);
+
+        long probe = breaker.acquire();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        breaker.onSuccess(probe, 0);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertDoesNotThrow(breaker::acquire);
+    }
+
+    @Test
+    public void acquire_OpensAgainWhenProbeFails() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+        openCircuit(breaker);
+
+        breaker.onFailure(breaker.acquire());
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void acquire_IgnoresStragglersWhenHalfOpen() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+        long straggler = breaker.acquire();
+        openCircuit(breaker);
+        long probe = breaker.acquire();
+
+        // A call admitted before the circuit opened answers while the probe is running
+        breaker.onSuccess(straggler, 0);
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        breaker.onFailure(probe);
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void acquire_IgnoresCallsAdmittedBeforeCircuitOpened() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+        long[] stragglers = {breaker.acquire(), breaker.acquire(), breaker.acquire(), breaker.acquire()};
+        openCircuit(breaker);
+        breaker.onSuccess(breaker.acquire(), 0);
+
+        for (long straggler : stragglers) {
+            breaker.onFailure(straggler);
+        }
+
+        // The failures of the old window don't count for the one started when the circuit closed
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void acquire_AdmitsEveryCallWhenDisabled() {
+        properties.setEnabled(false);
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+
+        openCircuit(breaker);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertDoesNotThrow(breaker::acquire);
+    }
+
+    @Test
+    public void bindTo_RegistersStateAndRejectedCalls() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CircuitBreaker breaker = new CircuitBreaker(properties, Clock.systemUTC());
+        breaker.bindTo(registry);
+
+        openCircuit(breaker);
+        assertThrows(CircuitOpenException.class, breaker::acquire);
+
+        assertEquals(State.OPEN.ordinal(), registry.get("readcache.upstream.circuit.state").gauge().value());
+        assertEquals(1, registry.get("readcache.upstream.circuit.rejected").functionCounter().count());
+    }
+
+    /**
+     * Fails enough calls to open the circuit.
+     */
+    private static void openCircuit(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+    }
+
+    /**
+     * Makes a fast call, failed or successful.
+     */
+    private static void call(CircuitBreaker breaker, boolean failed) {
+        long generation = breaker.acquire();
+        if (failed) {
+            breaker.onFailure(generation);
+        } else {
+            breaker.onSuccess(generation, 0);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.rayhan.readcache.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.ReadCacheProperties.CircuitBreakerProperties;
+import com.rayhan.readcache.ReadCacheProperties.RateLimitProperties;
+import com.rayhan.readcache.client.UpstreamScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_LIMIT_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_REMAINING_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_RESET_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GitHubClientTest {
+    private static final String BASE_URL = "https://api.github.test";
+    private static final URI PAGE_1 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2");
+    private static final URI PAGE_2 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2&page=2");
+
+    private RestTemplate restTemplate;
+    private GitHubClient gitHubClient;
+
+    @BeforeEach
+    public void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .pageCache(Caffeine.newBuilder().build())
+                .build();
+    }
+
+    @Test
+    public void readPaginatedData_MergesAllPages() {
+        stubPage(PAGE_1, page("[{\"id\":1},{\"id\":2}]", "\"etag-1\"", PAGE_2));
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null));
+
+        String result = gitHubClient.readPaginatedData("/orgs/Netflix/repos");
+
+        assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3}]", result);
+    }
+
+    @Test
+    public void readPaginatedData_ReturnsNonArrayResponseAsIs() {
+        URI uri = URI.create(BASE_URL + "/orgs/Netflix?per_page=2");
+        stubPage(uri, page("{\"login\":\"Netflix\"}", null, null));
+
+        assertEquals("{\"login\":\"Netflix\"}", gitHubClient.readPaginatedData("/orgs/Netflix"));
+    }
+
+    @Test
+    public void readPaginatedDataIfModified_ReusesPreviousResultWhenAllPagesNotModified() {
+        stubPage(PAGE_1, page("[{\"id\":1},{\"id\":2}]", "\"etag-1\"", PAGE_2), notModified());
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null), notModified());
+
+        PaginatedResponse first = gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", false);
+        PaginatedResponse second = gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", true);
+
+        assertFalse(first.isNotModified());
+        assertTrue(second.isNotModified());
+        assertNull(second.getBody());
+        verify(restTemplate).exchange(argThat(conditionalRequest(PAGE_1, "\"etag-1\"")), eq(String.class));
+        verify(restTemplate).exchange(argThat(conditionalRequest(PAGE_2, "\"etag-2\"")), eq(String.class));
+    }
+
+    @Test
+    public void readPaginatedDataIfModified_MergesCachedAndChangedPages() {
+        stubPage(PAGE_1, page("[{\"id\":1},{\"id\":2}]", "\"etag-1\"", PAGE_2), notModified());
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null), page("[{\"id\":4}]", "\"etag-3\"", null));
+
+        gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", false);
+        PaginatedResponse second = gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", true);
+
+        assertFalse(second.isNotModified());
+        assertEquals("[{\"id\":1},{\"id\":2},{\"id\":4}]", second.getBody());
+    }
+
+    @Test
+    public void readPaginatedData_FetchesRemainingPagesInParallelInPageOrder() {
+        ExecutorService pageExecutor = Executors.newFixedThreadPool(2);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .pageExecutor(pageExecutor)
+                .build();
+        URI page3 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2&page=3");
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + PAGE_2 + ">; rel=\"next\", <" + page3 + ">; rel=\"last\"");
+        stubPage(PAGE_1, new ResponseEntity<>("[{\"id\":1},{\"id\":2}]", headers, HttpStatus.OK));
+        stubPage(PAGE_2, page("[{\"id\":3},{\"id\":4}]", null, page3));
+        stubPage(page3, page("[{\"id\":5}]", null, null));
+
+        try {
+            String result = gitHubClient.readPaginatedData("/orgs/Netflix/repos");
+
+            assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3},{\"id\":4},{\"id\":5}]", result);
+            verify(restTemplate, times(3)).exchange(any(RequestEntity.class), eq(String.class));
+        } finally {
+            pageExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readPaginatedData_PropagatesFailureOfParallelPage() {
+        ExecutorService pageExecutor = Executors.newFixedThreadPool(2);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .pageExecutor(pageExecutor)
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + PAGE_2 + ">; rel=\"last\"");
+        stubPage(PAGE_1, new ResponseEntity<>("[{\"id\":1}]", headers, HttpStatus.OK));
+        when(restTemplate.exchange(argThat((RequestEntity<?> request) -> request != null && PAGE_2.equals(request.getUrl())), eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "rate limited", new HttpHeaders(), null, null));
+
+        try {
+            assertThrows(HttpClientErrorException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        } finally {
+            pageExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readPaginatedDataIfModified_MergesCachedPagesWithoutPreviousBody() {
+        stubPage(PAGE_1, page("[{\"id\":1},{\"id\":2}]", "\"etag-1\"", PAGE_2), notModified());
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null), notModified());
+
+        gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", false);
+        PaginatedResponse second = gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", false);
+
+        assertTrue(second.isNotModified());
+        assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3}]", second.getBody());
+    }
+
+    @Test
+    public void readPaginatedDataIfModified_ServesCachedPagesWhenRateLimited() {
+        HttpHeaders rateLimitHeaders = new HttpHeaders();
+        rateLimitHeaders.add(RATE_LIMIT_REMAINING_HEADER, "0");
+        rateLimitHeaders.add(RATE_LIMIT_RESET_HEADER, String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class)))
+                .thenReturn(page("[{\"id\":1}]", "\"etag-1\"", null))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "rate limit exceeded", rateLimitHeaders, null, null));
+        URI uri = URI.create(BASE_URL + "/orgs/Netflix/members?per_page=2");
+
+        gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/members", false);
+        PaginatedResponse rateLimited = gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/members", false);
+
+        assertEquals("[{\"id\":1}]", rateLimited.getBody());
+        assertThrows(HttpClientErrorException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix"));
+        assertTrue(gitHubClient.getPageCache().asMap().containsKey(uri));
+    }
+
+    @Test
+    public void readPaginatedData_RejectedByScheduler() {
+        UpstreamScheduler upstreamScheduler = new UpstreamScheduler(new RateLimitProperties(), Clock.systemUTC());
+        HttpHeaders rateLimitHeaders = new HttpHeaders();
+        rateLimitHeaders.add(RATE_LIMIT_LIMIT_HEADER, "5000");
+        rateLimitHeaders.add(RATE_LIMIT_REMAINING_HEADER, "10");
+        rateLimitHeaders.add(RATE_LIMIT_RESET_HEADER, String.valueOf(System.currentTimeMillis() / 1000 + 3600));
+        upstreamScheduler.update(rateLimitHeaders);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .upstreamScheduler(upstreamScheduler)
+                .build();
+        stubPage(PAGE_1, page("[{\"id\":1}]", null, null));
+
+        assertThrows(RateLimitedException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        assertEquals("[{\"id\":1}]", gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", false).getBody());
+        verify(restTemplate, times(1)).exchange(any(RequestEntity.class), eq(String.class));
+    }
+
+    @Test
+    public void readPaginatedData_RecordsPageAndReadMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        gitHubClient.getUpstreamMetrics().bindTo(registry);
+        stubPage(PAGE_1, page("[{\"id\":1},{\"id\":2}]", "\"etag-1\"", PAGE_2), notModified());
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null), notModified());
+
+        gitHubClient.readPaginatedData("/orgs/Netflix/repos");
+        gitHubClient.readPaginatedDataIfModified("/orgs/Netflix/repos", true);
+
+        assertEquals(2, registry.get("readcache.upstream.page").tag("outcome", "success").timer().count());
+        assertEquals(2, registry.get("readcache.upstream.page").tag("outcome", "not_modified").timer().count());
+        assertEquals(1, registry.get("readcache.upstream.read").tag("priority", "passthrough").timer().count());
+        assertEquals(1, registry.get("readcache.upstream.read").tag("priority", "cache").timer().count());
+        assertEquals(4, registry.get("readcache.upstream.read.pages").summary().totalAmount());
+        assertEquals("[{\"id\":1},{\"id\":2}]".length() + "[{\"id\":3}]".length(), registry.get("readcache.upstream.received").counter().count());
+        assertEquals(0, registry.get("readcache.upstream.inflight.pages").gauge().value());
+        assertEquals(0, registry.get("readcache.upstream.inflight.reads").gauge().value());
+    }
+
+    @Test
+    public void readPaginatedData_FailsFastWhileCircuitIsOpen() {
+        CircuitBreakerProperties circuitBreakerProperties = new CircuitBreakerProperties();
+        circuitBreakerProperties.setMinimumCalls(3);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .circuitBreaker(new CircuitBreaker(circuitBreakerProperties, Clock.systemUTC()))
+                .build();
+        when(restTemplate.exchange(any(RequestEntity.class), eq(String.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, null))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", new HttpHeaders(), null, null))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        // A client error is an answer of a healthy GitHub, it doesn't open the circuit with a single failure
+        assertThrows(HttpClientErrorException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        assertThrows(HttpServerErrorException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        assertThrows(ResourceAccessException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+
+        assertEquals(CircuitBreaker.State.OPEN, gitHubClient.getCircuitBreaker().getState());
+        assertThrows(CircuitOpenException.class, () -> gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        verify(restTemplate, times(3)).exchange(any(RequestEntity.class), eq(String.class));
+    }
+
+    @Test
+    public void isRateLimited_DetectsPrimaryAndSecondaryLimits() {
+        HttpHeaders exhausted = new HttpHeaders();
+        exhausted.add(RATE_LIMIT_REMAINING_HEADER, "0");
+        HttpHeaders retryAfter = new HttpHeaders();
+        retryAfter.add(HttpHeaders.RETRY_AFTER, "60");
+
+        assertTrue(GitHubClient.isRateLimited(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "", exhausted, null, null)));
+        assertTrue(GitHubClient.isRateLimited(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "", retryAfter, null, null)));
+        assertTrue(GitHubClient.isRateLimited(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "", new HttpHeaders(), null, null)));
+        assertFalse(GitHubClient.isRateLimited(HttpClientErrorException.create(HttpStatus.FORBIDDEN, "", new HttpHeaders(), null, null)));
+    }
+
+    @Test
+    public void send_IsNotConditionalWithoutPageCache() {
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .build();
+        stubPage(PAGE_2, page("[{\"id\":3}]", "\"etag-2\"", null));
+
+        gitHubClient.send(PAGE_2, Priority.CACHE);
+        gitHubClient.send(PAGE_2, Priority.CACHE);
+
+        ArgumentCaptor<RequestEntity<?>> captor = ArgumentCaptor.forClass(RequestEntity.class);
+        verify(restTemplate, times(2)).exchange(captor.capture(), eq(String.class));
+        assertNull(captor.getValue().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2147483648", "99999999999", "-1", "two"})
+    public void readPaginatedData_PagesSequentiallyWithMalformedLastLink(String lastPageNumber) {
+        ExecutorService pageExecutor = Executors.newFixedThreadPool(2);
+        gitHubClient = GitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .restTemplate(restTemplate)
+                .pageExecutor(pageExecutor)
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + PAGE_2 + ">; rel=\"next\", <" + BASE_URL + "/orgs/Netflix/repos?per_page=2&page="
+                + lastPageNumber + ">; rel=\"last\"");
+        stubPage(PAGE_1, new ResponseEntity<>("[{\"id\":1},{\"id\":2}]", headers, HttpStatus.OK));
+        stubPage(PAGE_2, page("[{\"id\":3}]", null, null));
+
+        try {
+            assertNull(GitHubClient.getRemainingPageUris(new ResponseEntity<>("[]", headers, HttpStatus.OK)));
+            assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3}]", gitHubClient.readPaginatedData("/orgs/Netflix/repos"));
+        } finally {
+            pageExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getNextPageLinkFromResponseHeader_ReturnsNextLink() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, "<" + PAGE_2 + ">; rel=\"next\", <" + PAGE_2 + ">; rel=\"last\"");
+
+        URI next = GitHubClient.getNextPageLinkFromResponseHeader(new ResponseEntity<>("[]", headers, HttpStatus.OK));
+
+        assertEquals(PAGE_2, next);
+        assertNull(GitHubClient.getNextPageLinkFromResponseHeader(ResponseEntity.ok("[]")));
+        assertEquals(PAGE_2, GitHubClient.getPageLinkFromResponseHeader(new ResponseEntity<>("[]", headers, HttpStatus.OK), "last"));
+    }
+
+    @SafeVarargs
+    private void stubPage(URI uri, ResponseEntity<String>... responses) {
+        var stubbing = when(restTemplate.exchange(argThat((RequestEntity<?> request) -> request != null && uri.equals(request.getUrl())), eq(String.class)));
+        for (ResponseEntity<String> response : responses) {
+            stubbing = stubbing.thenReturn(response);
+        }
+    }
+
+    private static ResponseEntity<String> page(String body, String etag, URI next) {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setETag(etag);
+        }
+        if (next != null) {
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static ResponseEntity<String> notModified() {
+        return new ResponseEntity<>(null, new HttpHeaders(), HttpStatus.NOT_MODIFIED);
+    }
+
+    private static ArgumentMatcher<RequestEntity<?>> conditionalRequest(URI uri, String etag) {
+        return request -> request != null && uri.equals(request.getUrl())
+                && List.of(etag).equals(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH));
+    }
+}
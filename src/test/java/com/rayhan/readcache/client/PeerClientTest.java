@@ -0,0 +1,107 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.ClusterProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Clock;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.PEER_REQUEST_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class PeerClientTest {
+    private static final String SELF = "http://localhost:8080";
+    private static final String PEER = "http://localhost:8081";
+
+    @Test
+    public void ownerOf_NullWhenClusterModeDisabled() {
+        PeerClient peerClient = new PeerClient(new ClusterProperties(), new RestTemplate(), Clock.systemUTC());
+
+        assertNull(peerClient.ownerOf("/orgs/Netflix"));
+    }
+
+    @Test
+    public void ownerOf_SplitsPathsBetweenSelfAndPeers() {
+        PeerClient peerClient = new PeerClient(cluster(SELF + "/"), new RestTemplate(), Clock.systemUTC());
+
+        int ownedByPeer = 0;
+        for (int i = 0; i < 100; i++) {
+            String owner = peerClient.ownerOf("/orgs/org" + i);
+            if (owner != null) {
+                assertEquals(PEER, owner);
+                ownedByPeer++;
+            }
+        }
+
+        assertNotEquals(0, ownedByPeer);
+        assertNotEquals(100, ownedByPeer);
+    }
+
+    @Test
+    public void read_MarksRequestAsPeerRequest() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(PEER + "/orgs/Netflix/repos"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(PEER_REQUEST_HEADER, SELF))
+                .andRespond(withSuccess("[{}]", MediaType.APPLICATION_JSON));
+
+        String body = new PeerClient(cluster(SELF), restTemplate, Clock.systemUTC()).read(PEER, "/orgs/Netflix/repos");
+
+        assertEquals("[{}]", body);
+        server.verify();
+    }
+
+    @Test
+    public void read_SkipsUnreachableOwnerForBackoff() throws IOException {
+        String unreachablePeer;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachablePeer = "http://localhost:" + socket.getLocalPort();
+        }
+        ClusterProperties properties = cluster(SELF);
+        properties.setPeers(List.of(SELF, unreachablePeer));
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(0L);
+        PeerClient peerClient = new PeerClient(properties, new RestTemplate(), clock);
+        String path = IntStream.range(0, 100).mapToObj(i -> "/orgs/org" + i).filter(p -> peerClient.ownerOf(p) != null).findFirst().orElseThrow();
+
+        assertThrows(ResourceAccessException.class, () -> peerClient.read(unreachablePeer, path));
+
+        // Misses of the paths it owns go to GitHub right away until the backoff elapses, then it's tried again
+        assertNull(peerClient.ownerOf(path));
+        when(clock.millis()).thenReturn(properties.getPeerBackoff().toMillis() - 1);
+        assertNull(peerClient.ownerOf(path));
+        when(clock.millis()).thenReturn(properties.getPeerBackoff().toMillis());
+        assertEquals(unreachablePeer, peerClient.ownerOf(path));
+    }
+
+    @Test
+    public void constructor_RequiresSelfInClusterMode() {
+        assertThrows(IllegalArgumentException.class, () -> new PeerClient(cluster(null), new RestTemplate(), Clock.systemUTC()));
+    }
+
+    private static ClusterProperties cluster(String self) {
+        ClusterProperties properties = new ClusterProperties();
+        properties.setEnabled(true);
+        properties.setSelf(self);
+        properties.setPeers(List.of(SELF, PEER));
+        return properties;
+    }
+}
@@ -0,0 +1,119 @@
+package com.rayhan.readcache.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReactiveGitHubClientTest {
+    private static final String BASE_URL = "https://api.github.test";
+    private static final URI PAGE_1 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2");
+    private static final URI PAGE_2 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2&page=2");
+    private static final URI PAGE_3 = URI.create(BASE_URL + "/orgs/Netflix/repos?per_page=2&page=3");
+
+    // Requests received by the stubbed GitHub API, in order
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void readPaginatedData_FollowsNextLinks() {
+        ReactiveGitHubClient client = client(1, Map.of(
+                PAGE_1, page("[{\"id\":1},{\"id\":2}]", null, "<" + PAGE_2 + ">; rel=\"next\""),
+                PAGE_2, page("[{\"id\":3}]", null, null)));
+
+        String result = client.readPaginatedData("/orgs/Netflix/repos").block();
+
+        assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3}]", result);
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void readPaginatedData_FetchesRemainingPagesConcurrentlyInPageOrder() {
+        ReactiveGitHubClient client = client(4, Map.of(
+                PAGE_1, page("[{\"id\":1},{\"id\":2}]", null, "<" + PAGE_2 + ">; rel=\"next\", <" + PAGE_3 + ">; rel=\"last\""),
+                // Page 2 answers last, it must still be merged before page 3
+                PAGE_2, page("[{\"id\":3},{\"id\":4}]", null, null).delayElement(Duration.ofMillis(100)),
+                PAGE_3, page("[{\"id\":5}]", null, null)));
+
+        String result = client.readPaginatedData("/orgs/Netflix/repos").block();
+
+        assertEquals("[{\"id\":1},{\"id\":2},{\"id\":3},{\"id\":4},{\"id\":5}]", result);
+    }
+
+    @Test
+    public void readPaginatedData_RevalidatesCachedPages() {
+        ReactiveGitHubClient client = client(1, Map.of(PAGE_1, Mono.defer(() -> requests.size() == 1
+                ? page("[{\"id\":1}]", "\"etag-1\"", null)
+                : Mono.just(ClientResponse.create(HttpStatus.NOT_MODIFIED).build()))));
+
+        client.readPaginatedData("/orgs/Netflix/repos").block();
+        String result = client.readPaginatedData("/orgs/Netflix/repos").block();
+
+        assertEquals("[{\"id\":1}]", result);
+        assertEquals("\"etag-1\"", requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    public void readPaginatedData_MergesPagesOnParallelScheduler() {
+        ReactiveGitHubClient client = client(1, Map.of(
+                PAGE_1, page("[{\"id\":1},{\"id\":2}]", null, "<" + PAGE_2 + ">; rel=\"next\""),
+                PAGE_2, page("[{\"id\":3}]", null, null)));
+
+        String thread = client.readPaginatedData("/orgs/Netflix/repos").map(result -> Thread.currentThread().getName()).block();
+
+        assertTrue(thread.startsWith("parallel-"), thread);
+    }
+
+    @Test
+    public void readPaginatedData_PropagatesUpstreamError() {
+        ReactiveGitHubClient client = client(1, Map.of(PAGE_1, Mono.just(ClientResponse.create(HttpStatus.FORBIDDEN).build())));
+
+        assertThrows(WebClientResponseException.Forbidden.class, () -> client.readPaginatedData("/orgs/Netflix/repos").block());
+    }
+
+    private ReactiveGitHubClient client(int pageConcurrency, Map<URI, Mono<ClientResponse>> pages) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return pages.get(request.url());
+                })
+                .build();
+
+        return ReactiveGitHubClient.builder()
+                .baseUrl(BASE_URL)
+                .pageSize(2)
+                .mapper(new ObjectMapper())
+                .webClient(webClient)
+                .pageCache(Caffeine.newBuilder().build())
+                .pageConcurrency(pageConcurrency)
+                .build();
+    }
+
+    private static Mono<ClientResponse> page(String body, String etag, String link) {
+        ClientResponse.Builder builder = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .body(body);
+        if (etag != null) {
+            builder.header(HttpHeaders.ETAG, etag);
+        }
+        if (link != null) {
+            builder.header(HttpHeaders.LINK, link);
+        }
+        return Mono.fromSupplier(builder::build);
+    }
+}
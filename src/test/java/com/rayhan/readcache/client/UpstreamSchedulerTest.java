@@ -0,0 +1,121 @@
+package com.rayhan.readcache.client;
+
+import com.rayhan.readcache.ReadCacheProperties.RateLimitProperties;
+import com.rayhan.readcache.client.UpstreamScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_LIMIT_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_REMAINING_HEADER;
+import static com.rayhan.readcache.constants.ApplicationConstant.RATE_LIMIT_RESET_HEADER;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamSchedulerTest {
+    // 100 ms before the window of RESET_IN_SECONDS resets
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1_699_999_999_900L), ZoneOffset.UTC);
+    private static final long RESET_IN_SECONDS = 1_700_000_000L;
+    private static final long FAR_RESET_IN_SECONDS = 1_700_003_600L;
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final UpstreamScheduler scheduler = new UpstreamScheduler(properties, CLOCK);
+
+    @Test
+    public void acquire_AdmitsRequestsWhileQuotaIsUnknown() {
+        assertDoesNotThrow(() -> scheduler.acquire(Priority.PASSTHROUGH));
+        assertEquals(-1, scheduler.getRemaining());
+    }
+
+    @Test
+    public void acquire_KeepsReserveForCacheableData() {
+        scheduler.update(rateLimitHeaders(101, FAR_RESET_IN_SECONDS));
+
+        scheduler.acquire(Priority.PASSTHROUGH);
+
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.PASSTHROUGH));
+        scheduler.acquire(Priority.CACHE);
+        assertEquals(99, scheduler.getRemaining());
+    }
+
+    @Test
+    public void acquire_ScalesReserveWithAnonymousQuota() {
+        scheduler.update(rateLimitHeaders(60, 59, FAR_RESET_IN_SECONDS));
+
+        // 2% of 60 requests leaves a single one to cacheable data
+        for (int i = 0; i < 58; i++) {
+            scheduler.acquire(Priority.PASSTHROUGH);
+        }
+
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.PASSTHROUGH));
+        scheduler.acquire(Priority.CACHE);
+        assertEquals(0, scheduler.getRemaining());
+    }
+
+    @Test
+    public void acquire_RejectsEveryPriorityWhenQuotaIsExhausted() {
+        scheduler.update(rateLimitHeaders(0, FAR_RESET_IN_SECONDS));
+
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.CACHE));
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.PASSTHROUGH));
+    }
+
+    @Test
+    public void acquire_WaitsForCloseReset() {
+        scheduler.update(rateLimitHeaders(0, RESET_IN_SECONDS));
+
+        long start = System.nanoTime();
+        scheduler.acquire(Priority.PASSTHROUGH);
+
+        assertEquals(true, System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    public void acquire_HonorsRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "60");
+        scheduler.update(headers);
+
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.CACHE));
+    }
+
+    @Test
+    public void acquire_AdmitsEverythingWhenDisabled() {
+        properties.setEnabled(false);
+        scheduler.update(rateLimitHeaders(0, FAR_RESET_IN_SECONDS));
+
+        assertDoesNotThrow(() -> scheduler.acquire(Priority.PASSTHROUGH));
+    }
+
+    @Test
+    public void bindTo_PublishesQuotaState() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduler.bindTo(registry);
+        scheduler.update(rateLimitHeaders(0, FAR_RESET_IN_SECONDS));
+        assertThrows(RateLimitedException.class, () -> scheduler.acquire(Priority.PASSTHROUGH));
+
+        assertEquals(0, registry.get("readcache.upstream.ratelimit.remaining").gauge().value());
+        assertEquals(5000, registry.get("readcache.upstream.ratelimit.limit").gauge().value());
+        assertEquals(3600.1, registry.get("readcache.upstream.ratelimit.reset").gauge().value(), 0.001);
+        assertEquals(1, registry.get("readcache.upstream.ratelimit.rejected").tag("priority", "passthrough").functionCounter().count());
+        assertEquals(0, registry.get("readcache.upstream.ratelimit.rejected").tag("priority", "cache").functionCounter().count());
+    }
+
+    private static HttpHeaders rateLimitHeaders(long remaining, long resetInSeconds) {
+        return rateLimitHeaders(5000, remaining, resetInSeconds);
+    }
+
+    private static HttpHeaders rateLimitHeaders(long limit, long remaining, long resetInSeconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(RATE_LIMIT_LIMIT_HEADER, String.valueOf(limit));
+        headers.add(RATE_LIMIT_REMAINING_HEADER, String.valueOf(remaining));
+        headers.add(RATE_LIMIT_RESET_HEADER, String.valueOf(resetInSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,46 @@
+package com.rayhan.readcache.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteBufferHttpMessageConverterTest {
+
+    private final ByteBufferHttpMessageConverter converter = new ByteBufferHttpMessageConverter();
+
+    @Test
+    void write_WritesHeapBuffer() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(ByteBuffer.wrap("{\"login\":\"Netflix\"}".getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_JSON, output);
+
+        assertEquals("{\"login\":\"Netflix\"}", output.getBodyAsString());
+        assertEquals(19, output.getHeaders().getContentLength());
+    }
+
+    @Test
+    void write_WritesDirectBufferWithoutMovingIt() throws IOException {
+        byte[] body = "[{\"full_name\":\"Netflix/repo\"}]".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(body.length).put(body).flip();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(direct, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(new String(body, StandardCharsets.UTF_8), output.getBodyAsString());
+        assertEquals(0, direct.position());
+    }
+
+    @Test
+    void canWrite_OnlyByteBuffers() {
+        assertTrue(converter.canWrite(ByteBuffer.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+    }
+}
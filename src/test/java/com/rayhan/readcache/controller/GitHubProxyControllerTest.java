@@ -1,5 +1,6 @@
 package com.rayhan.readcache.controller;
 
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.service.GitHubProxyService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,10 +8,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.PEER_REQUEST_HEADER;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GitHubProxyControllerTest {
@@ -31,51 +47,131 @@ class GitHubProxyControllerTest {
 
     @Test
     void getData_ReturnsData() {
-        when(service.proxyGet(any())).thenReturn("Mocked result");
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(CachedResponse.of("Mocked result", -1));
 
-        String result = controller.getData(request);
+        ResponseEntity<ByteBuffer> result = controller.getData(request);
 
-        assertEquals("Mocked result", result);
+        assertEquals("Mocked result", StandardCharsets.UTF_8.decode(result.getBody()).toString());
+        assertEquals(MediaType.APPLICATION_JSON, result.getHeaders().getContentType());
+        assertNull(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void getData_ReturnsStatusOfNegativelyCachedResponse() {
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(CachedResponse.of(404, "{\"message\":\"Not Found\"}", -1));
+
+        ResponseEntity<ByteBuffer> result = controller.getData(request);
+
+        assertEquals(404, result.getStatusCode().value());
+        assertEquals("{\"message\":\"Not Found\"}", StandardCharsets.UTF_8.decode(result.getBody()).toString());
+    }
+
+    @Test
+    void getData_MarksPeerRequests() {
+        when(request.getRequestURI()).thenReturn("/orgs/Netflix");
+        when(request.getHeader(PEER_REQUEST_HEADER)).thenReturn("http://localhost:8081");
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(CachedResponse.of("{}", -1));
+
+        controller.getData(request);
+
+        verify(service).proxyGet(eq("/orgs/Netflix"), eq(true));
+    }
+
+    @Test
+    void getData_ReturnsGzipVariantWhenAccepted() {
+        CachedResponse response = CachedResponse.of("[" + "{\"full_name\":\"Netflix/repo\"},".repeat(100) + "{}]", 0);
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(response);
+        when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip, deflate, br");
+
+        ResponseEntity<ByteBuffer> result = controller.getData(request);
+
+        assertSame(response.getGzipBody(), result.getBody().array());
+        assertEquals("gzip", result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), result.getHeaders().getVary());
+    }
+
+    @Test
+    void getData_ReturnsIdentityBodyWhenGzipNotAccepted() {
+        CachedResponse response = CachedResponse.of("[" + "{\"full_name\":\"Netflix/repo\"},".repeat(100) + "{}]", 0);
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(response);
+        when(request.getHeader(HttpHeaders.ACCEPT_ENCODING)).thenReturn("br, gzip;q=0");
+
+        ResponseEntity<ByteBuffer> result = controller.getData(request);
+
+        assertEquals(response.getBodyBuffer(), result.getBody());
+        assertNull(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void acceptsGzip() {
+        assertTrue(GitHubProxyController.acceptsGzip("gzip"));
+        assertTrue(GitHubProxyController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(GitHubProxyController.acceptsGzip("*"));
+        assertFalse(GitHubProxyController.acceptsGzip(null));
+        assertFalse(GitHubProxyController.acceptsGzip("identity"));
+        assertFalse(GitHubProxyController.acceptsGzip("gzip;q=0"));
+        assertFalse(GitHubProxyController.acceptsGzip("*;q=1, gzip;q=0.0"));
     }
 
     @Test
     void getData_ThrowsRuntimeException_WhenServiceThrowsException() {
-        when(service.proxyGet(any())).thenThrow(new RuntimeException("Mocked exception"));
+        when(service.proxyGet(any(), anyBoolean())).thenThrow(new RuntimeException("Mocked exception"));
 
         assertThrows(RuntimeException.class, () -> controller.getData(request));
     }
 
     @Test
     void getData_ReturnsEmptyString() {
-        when(service.proxyGet(any())).thenReturn("");
+        when(service.proxyGet(any(), anyBoolean())).thenReturn(CachedResponse.of("", 0));
 
-        String result = controller.getData(request);
+        ResponseEntity<ByteBuffer> result = controller.getData(request);
 
-        assertEquals("", result);
+        assertEquals(0, result.getBody().remaining());
     }
 
     @Test
     void getBottomNRepos_ReturnsValidResult() {
-        when(service.getBottomNRepos(5, "stars")).thenReturn("Mocked result");
+        when(service.getBottomNRepos("Netflix", 5, "stars")).thenReturn("Mocked result");
 
-        String result = controller.getBottomNRepos(5, "stars");
+        String result = controller.getBottomNRepos(null, 5, "stars");
 
         assertEquals("Mocked result", result);
     }
 
     @Test
     void getBottomNRepos_ThrowsException_WhenServiceThrowsException() {
-        when(service.getBottomNRepos(5, "stars")).thenThrow(new RuntimeException("Mocked exception"));
+        when(service.getBottomNRepos("Netflix", 5, "stars")).thenThrow(new RuntimeException("Mocked exception"));
 
-        assertThrows(RuntimeException.class, () -> controller.getBottomNRepos(5, "stars"));
+        assertThrows(RuntimeException.class, () -> controller.getBottomNRepos(null, 5, "stars"));
     }
 
     @Test
     void getBottomNRepos_ReturnsEmptyString() {
-        when(service.getBottomNRepos(5, "stars")).thenReturn("");
+        when(service.getBottomNRepos("Netflix", 5, "stars")).thenReturn("");
 
-        String result = controller.getBottomNRepos(5, "stars");
+        String result = controller.getBottomNRepos(null, 5, "stars");
 
         assertEquals("", result);
     }
+
+    @Test
+    void getTopNRepos_ReturnsValidResult() {
+        when(service.getTopNRepos("Netflix", 5, "stars")).thenReturn("Mocked result");
+
+        assertEquals("Mocked result", controller.getTopNRepos(null, 5, "stars"));
+    }
+
+    @Test
+    void getRepoRange_ReturnsValidResult() {
+        when(service.getRepoRange("Netflix", 10, 5, "stars")).thenReturn("Mocked result");
+
+        assertEquals("Mocked result", controller.getRepoRange(null, 10, 5, "stars"));
+    }
+
+    @Test
+    void getBottomNRepos_PassesRequestedOrg() {
+        when(service.getBottomNRepos("Google", 5, "stars")).thenReturn("Mocked result");
+
+        assertEquals("Mocked result", controller.getBottomNRepos("Google", 5, "stars"));
+    }
 }
@@ -1,10 +1,13 @@
 package com.rayhan.readcache.controller;
 
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.service.WarmupService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -19,12 +22,19 @@ class HealthCheckControllerTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private WarmupService warmupService;
+
+    @Spy
+    private ReadCacheProperties properties = new ReadCacheProperties();
+
     @InjectMocks
     private HealthCheckController healthCheckController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(warmupService.isReady()).thenReturn(true);
     }
 
     @Test
@@ -32,9 +42,10 @@ class HealthCheckControllerTest {
         when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
                 .thenReturn(new ResponseEntity<>("", HttpStatus.OK));
 
-        int result = healthCheckController.healthCheck();
+        ResponseEntity<Integer> result = healthCheckController.healthCheck();
 
-        assertEquals(HttpStatus.OK.value(), result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(HttpStatus.OK.value(), result.getBody());
         verify(restTemplate, times(1)).getForEntity(any(URI.class), eq(String.class));
     }
 
@@ -43,9 +54,31 @@ class HealthCheckControllerTest {
         when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
                 .thenThrow(new RuntimeException("Service Unavailable"));
 
-        int result = healthCheckController.healthCheck();
+        ResponseEntity<Integer> result = healthCheckController.healthCheck();
 
-        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), result);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), result.getBody());
         verify(restTemplate, times(1)).getForEntity(any(URI.class), eq(String.class));
     }
+
+    @Test
+    void healthCheck_ReturnsServiceUnavailableDuringWarmup() {
+        when(warmupService.isReady()).thenReturn(false);
+
+        ResponseEntity<Integer> result = healthCheckController.healthCheck();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, result.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), result.getBody());
+        verify(restTemplate, never()).getForEntity(any(URI.class), eq(String.class));
+    }
+
+    @Test
+    void healthCheck_PingsConfiguredBaseUrl() {
+        properties.getUpstream().setBaseUrl("http://localhost:9999");
+        when(restTemplate.getForEntity(any(URI.class), eq(String.class)))
+                .thenReturn(new ResponseEntity<>("", HttpStatus.OK));
+
+        healthCheckController.healthCheck();
+
+        verify(restTemplate).getForEntity(URI.create("http://localhost:9999"), String.class);
+    }
 }
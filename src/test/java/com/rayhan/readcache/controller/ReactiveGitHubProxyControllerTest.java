@@ -0,0 +1,96 @@
+package com.rayhan.readcache.controller;
+
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.service.GitHubProxyService;
+import com.rayhan.readcache.service.ReactiveGitHubProxyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the application with the "reactive" profile, so requests are routed by WebFlux instead of Spring MVC.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveGitHubProxyControllerTest {
+
+    @MockBean
+    private ReactiveGitHubProxyService service;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void reactiveProfile_ReplacesServletStack() {
+        assertTrue(context.getBeansOfType(GitHubProxyService.class).isEmpty());
+        assertTrue(context.getBeansOfType(GitHubProxyController.class).isEmpty());
+    }
+
+    @Test
+    void getData_ReturnsData() {
+        when(service.proxyGet("/orgs/Netflix")).thenReturn(Mono.just(CachedResponse.of("{\"login\":\"Netflix\"}", -1)));
+
+        webTestClient.get().uri("/orgs/Netflix")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectBody(String.class).isEqualTo("{\"login\":\"Netflix\"}");
+    }
+
+    @Test
+    void getData_ReturnsGzipVariantWhenAccepted() {
+        CachedResponse response = CachedResponse.of("[" + "{\"full_name\":\"Netflix/repo\"},".repeat(100) + "{}]", 0);
+        when(service.proxyGet("/orgs/Netflix/repos")).thenReturn(Mono.just(response));
+
+        webTestClient.get().uri("/orgs/Netflix/repos")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectBody(byte[].class).isEqualTo(response.getGzipBody());
+    }
+
+    @Test
+    void getBottomNRepos_ReturnsData() {
+        when(service.getBottomNRepos("Netflix", 5, "forks")).thenReturn(Mono.just("[[\"Netflix/a\", 1]]"));
+
+        webTestClient.get().uri("/view/bottom/5/forks")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("[[\"Netflix/a\", 1]]");
+    }
+
+    @Test
+    void getRepoRange_ReturnsData() {
+        when(service.getRepoRange("Netflix", 1, 2, "stars")).thenReturn(Mono.just("[[\"Netflix/b\", 2]]"));
+
+        webTestClient.get().uri("/view/range/1/2/stars")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("[[\"Netflix/b\", 2]]");
+    }
+
+    @Test
+    void getTopNRepos_ReturnsDataOfRequestedOrg() {
+        when(service.getTopNRepos("Google", 1, "stars")).thenReturn(Mono.just("[[\"Google/a\", 9]]"));
+
+        webTestClient.get().uri("/view/Google/top/1/stars")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("[[\"Google/a\", 9]]");
+    }
+}
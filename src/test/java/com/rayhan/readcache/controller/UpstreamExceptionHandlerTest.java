@@ -0,0 +1,62 @@
+package com.rayhan.readcache.controller;
+
+import com.rayhan.readcache.service.GitHubProxyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UpstreamExceptionHandlerTest {
+
+    @Mock
+    private GitHubProxyService service;
+
+    @InjectMocks
+    private GitHubProxyController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new UpstreamExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void handleUpstreamError_PassesClientErrorsThrough() throws Exception {
+        HttpClientErrorException notFound = HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(),
+                "{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        when(service.proxyGet(anyString(), anyBoolean())).thenThrow(new RuntimeException("Caught exception while making GET call", notFound));
+
+        mockMvc.perform(get("/orgs/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"message\":\"Not Found\"}"));
+    }
+
+    @Test
+    void handleUpstreamError_AnswersServerErrorsWithBadGateway() throws Exception {
+        when(service.proxyGet(anyString(), anyBoolean()))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", new HttpHeaders(), null, null));
+
+        mockMvc.perform(get("/orgs/Netflix/members"))
+                .andExpect(status().isBadGateway());
+    }
+}
@@ -0,0 +1,93 @@
+package com.rayhan.readcache.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachedResponseTest {
+
+    @Test
+    public void of_BuildsGzipVariantOfLargeBody() throws IOException {
+        String body = "[{\"name\":\"repo\"}]".repeat(100);
+
+        CachedResponse response = CachedResponse.of(body, 1024);
+
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), response.getBody());
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(response.getGzipBody()))) {
+            assertEquals(body, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void of_SkipsGzipVariantOfSmallBody() {
+        CachedResponse response = CachedResponse.of("{\"login\":\"Netflix\"}", 1024);
+
+        assertNull(response.getGzipBody());
+    }
+
+    @Test
+    public void of_TreatsNullBodyAsEmpty() {
+        CachedResponse response = CachedResponse.of(null, 0);
+
+        assertEquals(0, response.getBody().length);
+        assertNull(response.getGzipBody());
+    }
+
+    @Test
+    public void toOffHeap_KeepsBodiesAndLoadTime() {
+        String body = "[{\"name\":\"repo\"}]".repeat(100);
+        CachedResponse response = CachedResponse.of(body, 1024);
+
+        CachedResponse offHeap = response.toOffHeap();
+
+        assertFalse(response.isOffHeap());
+        assertTrue(offHeap.isOffHeap());
+        assertArrayEquals(response.getBody(), offHeap.getBody());
+        assertArrayEquals(response.getGzipBody(), offHeap.getGzipBody());
+        assertEquals(response.getLoadedAt(), offHeap.getLoadedAt());
+        assertEquals(response.getBody().length + response.getGzipBody().length, offHeap.offHeapSizeInBytes());
+        assertTrue(offHeap.estimatedSizeInBytes() < response.estimatedSizeInBytes());
+    }
+
+    @Test
+    public void revalidated_SharesBodies() {
+        CachedResponse response = CachedResponse.of("{\"login\":\"Netflix\"}", -1);
+
+        CachedResponse revalidated = response.revalidated();
+
+        assertSame(response.getBody(), revalidated.getBody());
+        assertTrue(revalidated.getLoadedAt() >= response.getLoadedAt());
+    }
+
+    @Test
+    public void loadedAgo_BackdatesLoadTime() {
+        CachedResponse response = CachedResponse.of("{\"login\":\"Netflix\"}", -1);
+
+        CachedResponse restored = response.loadedAgo(Duration.ofMinutes(5));
+
+        assertSame(response.getBody(), restored.getBody());
+        assertTrue(System.nanoTime() - restored.getLoadedAt() >= Duration.ofMinutes(5).toNanos());
+    }
+
+    @Test
+    public void of_KeepsErrorStatus() {
+        CachedResponse response = CachedResponse.of(404, "{\"message\":\"Not Found\"}", -1);
+
+        assertEquals(404, response.getStatus());
+        assertFalse(response.isSuccessful());
+        assertEquals(404, response.toOffHeap().getStatus());
+        assertEquals(404, response.revalidated().getStatus());
+        assertTrue(CachedResponse.of("{}", -1).isSuccessful());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rayhan.readcache.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RepoViewIndexTest {
+
+    private final List<GitHubRepoData<Integer>> repos = List.of(
+            new GitHubRepoData<>("Netflix/a", 30),
+            new GitHubRepoData<>("Netflix/b", 20),
+            new GitHubRepoData<>("Netflix/c", 10));
+
+    private final RepoViewIndex view = RepoViewIndex.of(repos);
+
+    @Test
+    public void bottom_MatchesPreviousListFormat() {
+        assertEquals(repos.subList(1, 3).toString(), view.bottom(2));
+        assertEquals(repos.toString(), view.bottom(10));
+    }
+
+    @Test
+    public void top_ReturnsFirstRepositories() {
+        assertEquals("[[\"Netflix/a\", 30]]", view.top(1));
+        assertEquals(repos.toString(), view.top(3));
+    }
+
+    @Test
+    public void range_ClampsToView() {
+        assertEquals("[[\"Netflix/b\", 20], [\"Netflix/c\", 10]]", view.range(1, 5));
+        assertEquals("[]", view.range(3, 1));
+        assertEquals("[[\"Netflix/a\", 30]]", view.range(-1, 2));
+        assertEquals(repos.toString(), view.range(0, Integer.MAX_VALUE));
+        assertEquals("[]", view.range(Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void slices_AreEmptyForNonPositiveLimits() {
+        assertEquals("[]", view.top(0));
+        assertEquals("[]", view.bottom(-1));
+        assertEquals("[]", view.range(0, -5));
+    }
+}
@@ -0,0 +1,185 @@
+package com.rayhan.readcache.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.AppConfig;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.cache.CacheSnapshot;
+import com.rayhan.readcache.cache.CacheSnapshot.SnapshotResponse;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.StaleStore;
+import com.rayhan.readcache.client.CachedPage;
+import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class CacheSnapshotServiceTest {
+    private static final String REPO_JSON = "[{\"full_name\":\"Netflix/a\",\"forks_count\":3},{\"full_name\":\"Netflix/b\",\"forks_count\":1}]";
+    private static final URI PAGE_URI = URI.create("https://api.github.com/orgs/Netflix/repos?per_page=150&page=1");
+
+    @TempDir
+    Path directory;
+
+    private ReadCacheProperties properties;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new ReadCacheProperties();
+        properties.getSnapshot().setEnabled(true);
+        properties.getSnapshot().setFile(directory.resolve("readcache-snapshot.bin"));
+    }
+
+    @Test
+    public void restoreSnapshot_ServesSavedResponsesAndRevalidatesThem() {
+        CacheSnapshotService before = newService();
+        before.routeTable.require(GITHUB_REPOS_PATH).getCache().put(GITHUB_REPOS_PATH, CachedResponse.of(REPO_JSON, 0));
+        before.routeTable.require(GITHUB_NETFLIX_ORG).getCache().put(GITHUB_NETFLIX_ORG, CachedResponse.of("{\"login\":\"Netflix\"}", 0));
+        before.gitHubClient.getPageCache().put(PAGE_URI, new CachedPage("\"etag\"", null, null, REPO_JSON));
+        before.saveSnapshot();
+
+        CacheSnapshotService after = newService();
+        after.restoreSnapshot();
+
+        CachedResponse repos = after.routeTable.require(GITHUB_REPOS_PATH).getCache().getIfPresent(GITHUB_REPOS_PATH);
+        assertEquals(REPO_JSON, new String(repos.getBody(), StandardCharsets.UTF_8));
+        assertNotNull(after.routeTable.require(GITHUB_NETFLIX_ORG).getCache().getIfPresent(GITHUB_NETFLIX_ORG));
+        assertEquals("[[\"Netflix/a\", 3]]", after.gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG).getView("forks").top(1));
+        assertEquals("\"etag\"", after.gitHubClient.getPageCache().getIfPresent(PAGE_URI).getEtag());
+        verify(after.gitHubProxyService).revalidateInBackground(GITHUB_REPOS_PATH);
+        verify(after.gitHubProxyService).revalidateInBackground(GITHUB_NETFLIX_ORG);
+    }
+
+    @Test
+    public void restoreSnapshot_DropsResponsesOlderThanMaxAge() {
+        CacheSnapshotService before = newService();
+        before.routeTable.require(GITHUB_NETFLIX_ORG).getCache().put(GITHUB_NETFLIX_ORG, CachedResponse.of("{}", 0));
+        before.saveSnapshot();
+
+        properties.getSnapshot().setMaxAge(Duration.ZERO.minusMillis(1));
+        CacheSnapshotService after = newService();
+        after.restoreSnapshot();
+
+        assertNull(after.routeTable.require(GITHUB_NETFLIX_ORG).getCache().getIfPresent(GITHUB_NETFLIX_ORG));
+        verify(after.gitHubProxyService, never()).revalidateInBackground(GITHUB_NETFLIX_ORG);
+    }
+
+    @Test
+    public void restoreSnapshot_KeepsAgeOfRestoredResponses() throws IOException {
+        writeSnapshot(new SnapshotResponse(GITHUB_NETFLIX_ORG, Duration.ofSeconds(30).toMillis(), "{}".getBytes(StandardCharsets.UTF_8)));
+        CacheSnapshotService service = newService();
+
+        service.restoreSnapshot();
+
+        CachedResponse restored = service.routeTable.require(GITHUB_NETFLIX_ORG).getCache().getIfPresent(GITHUB_NETFLIX_ORG);
+        assertTrue(System.nanoTime() - restored.getLoadedAt() >= Duration.ofSeconds(30).toNanos());
+        verify(service.gitHubProxyService).revalidateInBackground(GITHUB_NETFLIX_ORG);
+    }
+
+    @Test
+    public void restoreSnapshot_KeepsResponsesPastRouteTtlAsLastGoodResponses() throws IOException {
+        writeSnapshot(new SnapshotResponse(GITHUB_REPOS_PATH, Duration.ofMinutes(30).toMillis(), REPO_JSON.getBytes(StandardCharsets.UTF_8)));
+        CacheSnapshotService service = newService();
+
+        service.restoreSnapshot();
+
+        assertNull(service.routeTable.require(GITHUB_REPOS_PATH).getCache().getIfPresent(GITHUB_REPOS_PATH));
+        assertNull(service.gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG));
+        assertEquals(REPO_JSON, new String(service.staleStore.get(GITHUB_REPOS_PATH).getBody(), StandardCharsets.UTF_8));
+        verify(service.gitHubProxyService).revalidateInBackground(GITHUB_REPOS_PATH);
+    }
+
+    @Test
+    public void saveSnapshot_IncludesOffHeapResponses() {
+        CacheSnapshotService before = newService();
+        before.offHeapStore = new OffHeapStore(1024);
+        before.offHeapStore.demote(GITHUB_NETFLIX_ORG, CachedResponse.of("{\"login\":\"Netflix\"}", 0), Duration.ofMinutes(1));
+        before.saveSnapshot();
+
+        CacheSnapshotService after = newService();
+        after.restoreSnapshot();
+
+        CachedResponse restored = after.routeTable.require(GITHUB_NETFLIX_ORG).getCache().getIfPresent(GITHUB_NETFLIX_ORG);
+        assertEquals("{\"login\":\"Netflix\"}", new String(restored.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void restoreSnapshot_StartsColdWithUnreadableSnapshot() throws IOException {
+        Files.writeString(properties.getSnapshot().getFile(), "corrupted");
+        CacheSnapshotService service = newService();
+
+        service.restoreSnapshot();
+
+        assertNull(service.routeTable.require(GITHUB_NETFLIX_ORG).getCache().getIfPresent(GITHUB_NETFLIX_ORG));
+        verifyNoInteractions(service.gitHubProxyService);
+    }
+
+    @Test
+    public void saveSnapshot_DoesNothingWhenDisabled() {
+        properties.getSnapshot().setEnabled(false);
+        CacheSnapshotService service = newService();
+        service.routeTable.require(GITHUB_NETFLIX_ORG).getCache().put(GITHUB_NETFLIX_ORG, CachedResponse.of("{}", 0));
+
+        service.saveSnapshot();
+
+        assertFalse(Files.exists(properties.getSnapshot().getFile()));
+    }
+
+    @Test
+    public void snapshotProperties_BindFileFromPath() {
+        ReadCacheProperties bound = new Binder(new MapConfigurationPropertySource(Map.of("readcache.snapshot.file", "/var/lib/readcache/snapshot.bin")))
+                .bind("readcache", ReadCacheProperties.class).get();
+
+        assertEquals(Path.of("/var/lib/readcache/snapshot.bin"), bound.getSnapshot().getFile());
+    }
+
+    private CacheSnapshotService newService() {
+        AppConfig appConfig = new AppConfig();
+        CacheSnapshotService service = new CacheSnapshotService();
+        service.properties = properties;
+        service.staleStore = new StaleStore(1024 * 1024, Duration.ofHours(24));
+        service.routeTable = appConfig.provideRouteTable(properties, new OffHeapStore(0), service.staleStore);
+        service.gitHubRepoViewCache = Caffeine.newBuilder().build();
+        service.repoViewBuilder = new RepoViewBuilder(properties.getView());
+        service.gitHubProxyService = mock(GitHubProxyService.class);
+        service.offHeapStore = new OffHeapStore(0);
+        service.gitHubClient = mock(GitHubClient.class);
+        Cache<URI, CachedPage> pageCache = Caffeine.newBuilder().build();
+        when(service.gitHubClient.getPageCache()).thenReturn(pageCache);
+        return service;
+    }
+
+    /**
+     * Writes a snapshot taken now, holding the given responses and no pages.
+     */
+    private void writeSnapshot(SnapshotResponse... responses) throws IOException {
+        new CacheSnapshot(System.currentTimeMillis(), List.of(responses), Map.of()).writeTo(properties.getSnapshot().getFile());
+    }
+}
@@ -1,21 +1,54 @@
 package com.rayhan.readcache.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.AppConfig;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.cache.StaleStore;
+import com.rayhan.readcache.client.CircuitOpenException;
 import com.rayhan.readcache.client.GitHubClient;
+import com.rayhan.readcache.client.PaginatedResponse;
+import com.rayhan.readcache.client.PeerClient;
+import com.rayhan.readcache.model.CachedResponse;
 import com.rayhan.readcache.model.GitHubRepoData;
 import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import com.rayhan.readcache.utils.RepoViewBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static com.rayhan.readcache.constants.ApplicationConstant.REPO_VIEW_CACHE_KEY;
+import static com.rayhan.readcache.cache.RequestCoalescerTest.runInThread;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -28,6 +61,7 @@ public class GitHubProxyServiceTest {
     private final String NON_CACHEABLE_ENDPOINT = "/orgs/Netflix/non-cacheable";
     private final int LIMIT = 10;
     private final String ORDERED_BY = "forks";
+    private final String REPO_JSON = "[{\"full_name\":\"repo1\",\"forks_count\":1,\"stargazers_count\":2,\"open_issues_count\":3,\"updated_at\":\"2023-11-29\"}]";
 
 
     // Create dummy GitHubRepoData objects
@@ -46,15 +80,15 @@ public class GitHubProxyServiceTest {
     );
 
     // Create GitHubRepoViewData with dummy data
-    GitHubRepoViewData dummyGitHubRepoViewData = new GitHubRepoViewData(
-            orderedByForks,
-            orderedByStars,
-            orderedByOpenIssues,
-            orderedByLastUpdated
-    );
+    GitHubRepoViewData dummyGitHubRepoViewData = new GitHubRepoViewData(Map.of(
+            "forks", RepoViewIndex.of(orderedByForks),
+            "stars", RepoViewIndex.of(orderedByStars),
+            "open_issues", RepoViewIndex.of(orderedByOpenIssues),
+            "last_updated", RepoViewIndex.of(orderedByLastUpdated)
+    ));
 
     @Mock
-    private Cache<String, String> sharedReadCache;
+    private Cache<String, CachedResponse> sharedReadCache;
 
     @Mock
     private Cache<String, GitHubRepoViewData> gitHubRepoViewCache;
@@ -73,18 +107,87 @@ public class GitHubProxyServiceTest {
         gitHubRepoViewCache = mock(Cache.class);
         gitHubProxyService.restTemplate = mock(RestTemplate.class);
         gitHubProxyService.gitHubClient = mock(GitHubClient.class);
-        gitHubProxyService.sharedReadCache = sharedReadCache;
         gitHubProxyService.gitHubRepoViewCache = gitHubRepoViewCache;
+        gitHubProxyService.offHeapStore = new OffHeapStore(0);
+        gitHubProxyService.staleStore = new StaleStore(1024 * 1024, Duration.ofHours(1));
+        gitHubProxyService.peerClient = mock(PeerClient.class);
+        gitHubProxyService.properties = new ReadCacheProperties();
+        gitHubProxyService.passthroughCache = new AppConfig().providePassthroughCache(gitHubProxyService.properties);
+        useSharedReadCache(sharedReadCache);
+        gitHubProxyService.repoViewBuilder = new RepoViewBuilder(gitHubProxyService.properties.getView());
+        gitHubProxyService.cacheRefreshExecutor = Runnable::run;
+    }
+
+    @Test
+    public void proxyGet_ServesDemotedResponseFromOffHeapTier() {
+        gitHubProxyService.offHeapStore = new OffHeapStore(1024 * 1024);
+        gitHubProxyService.offHeapStore.demote(CACHEABLE_ENDPOINT, CachedResponse.of("demoted-data", -1), Duration.ofMinutes(1));
+
+        CachedResponse result = gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+
+        assertTrue(result.isOffHeap());
+        assertEquals("demoted-data", StandardCharsets.UTF_8.decode(result.getBodyBuffer()).toString());
+        verify(gitHubProxyService.gitHubClient, never()).readPaginatedDataIfModified(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void proxyGet_FillsCacheFromOwningPeer() {
+        when(gitHubProxyService.peerClient.ownerOf(CACHEABLE_ENDPOINT)).thenReturn("http://localhost:8081");
+        when(gitHubProxyService.peerClient.read("http://localhost:8081", CACHEABLE_ENDPOINT)).thenReturn("peer-data");
+
+        CachedResponse result = gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+
+        assertEquals("peer-data", new String(result.getBody(), StandardCharsets.UTF_8));
+        verify(sharedReadCache).put(CACHEABLE_ENDPOINT, result);
+        verify(gitHubProxyService.gitHubClient, never()).readPaginatedDataIfModified(anyString(), anyBoolean());
+    }
+
+    @Test
+    public void proxyGet_LoadsFromGitHubWhenOwningPeerIsUnreachable() {
+        when(gitHubProxyService.peerClient.ownerOf(CACHEABLE_ENDPOINT)).thenReturn("http://localhost:8081");
+        when(gitHubProxyService.peerClient.read("http://localhost:8081", CACHEABLE_ENDPOINT)).thenThrow(new ResourceAccessException("Connection refused"));
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(CACHEABLE_ENDPOINT, false)).thenReturn(new PaginatedResponse("github-data", false));
+
+        CachedResponse result = gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+
+        assertEquals("github-data", new String(result.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void proxyGet_LoadsPeerRequestsFromGitHub() {
+        when(gitHubProxyService.peerClient.ownerOf(GITHUB_REPOS_PATH)).thenReturn("http://localhost:8081");
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(GITHUB_REPOS_PATH, false)).thenReturn(new PaginatedResponse(REPO_JSON, false));
+
+        gitHubProxyService.proxyGet(GITHUB_REPOS_PATH, true);
+
+        verify(gitHubProxyService.peerClient, never()).read(anyString(), anyString());
+        verify(gitHubRepoViewCache).put(eq(GITHUB_DEFAULT_ORG), argThat(viewData -> viewData.getView(ORDERED_BY) != null));
+    }
+
+    @Test
+    public void revalidateInBackground_RevalidatesFreshResponse() {
+        CachedResponse cachedResponse = CachedResponse.of("cache-data", -1);
+        when(sharedReadCache.getIfPresent(CACHEABLE_ENDPOINT)).thenReturn(cachedResponse);
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(CACHEABLE_ENDPOINT, true)).thenReturn(new PaginatedResponse(null, true));
+
+        gitHubProxyService.revalidateInBackground(CACHEABLE_ENDPOINT);
+        gitHubProxyService.revalidateInBackground(NON_CACHEABLE_ENDPOINT);
+
+        verify(gitHubProxyService.gitHubClient).readPaginatedDataIfModified(CACHEABLE_ENDPOINT, true);
+        verify(sharedReadCache).put(eq(CACHEABLE_ENDPOINT), argThat(response -> response.getBody() == cachedResponse.getBody()));
+        verify(gitHubProxyService.gitHubClient, never()).readPaginatedDataIfModified(eq(NON_CACHEABLE_ENDPOINT), anyBoolean());
     }
 
     @Test
     public void proxyGet_ReturnsFromCacheWhenAvailable() {
-        when(sharedReadCache.getIfPresent(CACHEABLE_ENDPOINT)).thenReturn("cache-data");
+        CachedResponse cachedResponse = CachedResponse.of("cache-data", -1);
+        when(sharedReadCache.getIfPresent(CACHEABLE_ENDPOINT)).thenReturn(cachedResponse);
 
-        String result = gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+        CachedResponse result = gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
 
-        assertEquals("cache-data", result);
+        assertSame(cachedResponse, result);
         verify(gitHubProxyService.gitHubClient, never()).readPaginatedData(anyString());
+        verify(gitHubProxyService.gitHubClient, never()).readPaginatedDataIfModified(anyString(), anyBoolean());
     }
 
     @Test
@@ -94,18 +197,300 @@ public class GitHubProxyServiceTest {
         when(sharedReadCache.getIfPresent(NON_CACHEABLE_ENDPOINT)).thenReturn(null);
         when(gitHubProxyService.gitHubClient.readPaginatedData(NON_CACHEABLE_ENDPOINT)).thenReturn(directGitHubCallResponse);
 
-        String result = gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT);
+        CachedResponse result = gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT);
 
-        assertEquals(directGitHubCallResponse, result);
+        assertEquals(directGitHubCallResponse, body(result));
+    }
+
+    @Test
+    void proxyGet_MicroCachesNonCacheableEndpoint() {
+        gitHubProxyService.properties.getCache().getPassthrough().setEnabled(true);
+        when(gitHubProxyService.gitHubClient.readPaginatedData(NON_CACHEABLE_ENDPOINT)).thenReturn("passthrough-data");
+
+        CachedResponse first = gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT);
+        CachedResponse second = gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT + "/");
+
+        assertSame(first, second);
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedData(NON_CACHEABLE_ENDPOINT);
+    }
+
+    @Test
+    void proxyGet_NegativelyCachesMissingResource() throws Exception {
+        gitHubProxyService.properties.getCache().getPassthrough().setEnabled(true);
+        gitHubProxyService.properties.getCache().getPassthrough().setTtl(Duration.ZERO);
+        CountDownLatch upstreamCalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gitHubProxyService.gitHubClient.readPaginatedData(NON_CACHEABLE_ENDPOINT)).thenAnswer(invocation -> {
+            upstreamCalled.countDown();
+            release.await();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(),
+                    "{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        });
+
+        CompletableFuture<CachedResponse> leader = CompletableFuture.supplyAsync(() -> gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT));
+        assertTrue(upstreamCalled.await(5, TimeUnit.SECONDS));
+        CompletableFuture<CachedResponse> follower = CompletableFuture.supplyAsync(() -> gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals(404, leader.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals("{\"message\":\"Not Found\"}", body(follower.get(5, TimeUnit.SECONDS)));
+        assertEquals(404, gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT).getStatus());
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedData(NON_CACHEABLE_ENDPOINT);
+    }
+
+    @Test
+    void proxyGet_DoesNotCacheServerErrors() {
+        gitHubProxyService.properties.getCache().getPassthrough().setEnabled(true);
+        when(gitHubProxyService.gitHubClient.readPaginatedData(NON_CACHEABLE_ENDPOINT))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", new HttpHeaders(), null, null));
+
+        assertThrows(HttpServerErrorException.class, () -> gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT));
+        assertThrows(HttpServerErrorException.class, () -> gitHubProxyService.proxyGet(NON_CACHEABLE_ENDPOINT));
+        verify(gitHubProxyService.gitHubClient, times(2)).readPaginatedData(NON_CACHEABLE_ENDPOINT);
     }
 
     @Test
     void getBottomNReposWithCachedData_SuccessWithValidData() {
-        when(gitHubRepoViewCache.getIfPresent(REPO_VIEW_CACHE_KEY)).thenReturn(dummyGitHubRepoViewData);
+        when(gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG)).thenReturn(dummyGitHubRepoViewData);
 
-        String result = gitHubProxyService.getBottomNRepos(LIMIT, ORDERED_BY);
+        String result = gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY);
 
-        verify(gitHubRepoViewCache, times(2)).getIfPresent(REPO_VIEW_CACHE_KEY);
+        verify(gitHubRepoViewCache, times(1)).getIfPresent(GITHUB_DEFAULT_ORG);
         assertEquals(result, orderedByForks.stream().toList().toString());
     }
+
+    @Test
+    void getTopNReposAndRange_SliceCachedView() {
+        when(gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG)).thenReturn(dummyGitHubRepoViewData);
+
+        assertEquals("[[\"Repo3\", 150], [\"Repo1\", 100]]", gitHubProxyService.getTopNRepos(GITHUB_DEFAULT_ORG, 2, "stars"));
+        assertEquals("[[\"Repo1\", 100], [\"Repo2\", 200]]", gitHubProxyService.getRepoRange(GITHUB_DEFAULT_ORG, 1, 5, "stars"));
+        assertEquals("[[\"Repo6\", \"2022-03-20\"]]", gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "last_updated"));
+        assertEquals("[]", gitHubProxyService.getTopNRepos(GITHUB_DEFAULT_ORG, 2, "watchers"));
+    }
+
+    @Test
+    void proxyGet_ConcurrentMissesShareOneUpstreamFetch() throws Exception {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await();
+            return new PaginatedResponse("upstream-data", false);
+        });
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        fetchStarted.await();
+        CompletableFuture<String> follower = runInThread(() -> body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT + "/")));
+        releaseFetch.countDown();
+
+        assertEquals("upstream-data", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("upstream-data", follower.get(5, TimeUnit.SECONDS));
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean());
+    }
+
+    @Test
+    void getBottomNRepos_BuildsViewOnceOnMiss() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        gitHubProxyService.gitHubRepoViewCache = Caffeine.newBuilder().build();
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean()))
+                .thenReturn(new PaginatedResponse(REPO_JSON, false));
+
+        assertEquals("[[\"repo1\", 1]]", gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY));
+        assertEquals("[[\"repo1\", 2]]", gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, "stars"));
+        gitHubProxyService.proxyGet(GITHUB_REPOS_PATH);
+
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean());
+    }
+
+    @Test
+    void proxyGet_RefreshAheadServesCachedDataAndReloadsAfterSoftTtl() {
+        AtomicLong nanos = new AtomicLong();
+        gitHubProxyService.properties.getCache().getRefreshAhead().setEnabled(true);
+        gitHubProxyService.properties.getCache().getRefreshAhead().setSoftTtl(Duration.ofSeconds(60));
+        useSharedReadCache(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(300))
+                .ticker(nanos::get)
+                .build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenReturn(new PaginatedResponse("v1", false), new PaginatedResponse("v2", false));
+
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean());
+
+        // Past the soft TTL the stale value is still served, and the reload happens off the request path
+        nanos.addAndGet(Duration.ofSeconds(45).toNanos());
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        verify(gitHubProxyService.gitHubClient).readPaginatedDataIfModified(CACHEABLE_ENDPOINT, true);
+        assertEquals("v2", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+    }
+
+    @Test
+    void proxyGet_RefreshAheadKeepsCachedDataWhenReloadFails() {
+        AtomicLong nanos = new AtomicLong();
+        gitHubProxyService.properties.getCache().getRefreshAhead().setEnabled(true);
+        useSharedReadCache(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(300))
+                .ticker(nanos::get)
+                .build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenReturn(new PaginatedResponse("v1", false))
+                .thenThrow(new RuntimeException("GitHub unavailable"));
+
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        nanos.addAndGet(Duration.ofSeconds(90).toNanos());
+
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        assertEquals("v1", body(sharedReadCache.getIfPresent(CACHEABLE_ENDPOINT)));
+    }
+
+    @Test
+    void proxyGet_ReusesViewWhenRepositoriesNotModified() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        gitHubProxyService.gitHubRepoViewCache = Caffeine.newBuilder().build();
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean()))
+                .thenReturn(new PaginatedResponse(REPO_JSON, false), new PaginatedResponse(REPO_JSON, true));
+
+        gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY);
+        GitHubRepoViewData viewData = gitHubProxyService.gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG);
+        sharedReadCache.invalidate(GITHUB_REPOS_PATH);
+
+        assertEquals(REPO_JSON, body(gitHubProxyService.proxyGet(GITHUB_REPOS_PATH)));
+        assertSame(viewData.getViews(), gitHubProxyService.gitHubRepoViewCache.getIfPresent(GITHUB_DEFAULT_ORG).getViews());
+        verify(gitHubProxyService.gitHubClient, times(2)).readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean());
+    }
+
+    @Test
+    void proxyGet_CachesEndpointsMatchingRoutePattern() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq("/orgs/Google/members"), anyBoolean()))
+                .thenReturn(new PaginatedResponse("members", false));
+
+        assertEquals("members", body(gitHubProxyService.proxyGet("/orgs/Google/members")));
+        assertEquals("members", body(gitHubProxyService.proxyGet("/orgs/Google/members/")));
+
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedDataIfModified(eq("/orgs/Google/members"), anyBoolean());
+    }
+
+    @Test
+    void proxyGet_RouteRefreshAheadOverridesCacheSettings() {
+        AtomicLong nanos = new AtomicLong();
+        gitHubProxyService.properties.getRoutes().get("org").setRefreshAhead(true);
+        gitHubProxyService.properties.getRoutes().get("org").setSoftTtl(Duration.ofSeconds(10));
+        useSharedReadCache(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(300))
+                .ticker(nanos::get)
+                .build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenReturn(new PaginatedResponse("v1", false), new PaginatedResponse("v2", false));
+
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        nanos.addAndGet(Duration.ofSeconds(15).toNanos());
+        assertEquals("v1", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        assertEquals("v2", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+    }
+
+    @Test
+    void getBottomNRepos_CoalescesViewBuildsPerOrg() throws Exception {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        gitHubProxyService.gitHubRepoViewCache = Caffeine.newBuilder().build();
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq("/orgs/Google/repos"), anyBoolean())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            releaseFetch.await();
+            return new PaginatedResponse("[{\"full_name\":\"Google/x\",\"forks_count\":7}]", false);
+        });
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean()))
+                .thenReturn(new PaginatedResponse(REPO_JSON, false));
+
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> gitHubProxyService.getBottomNRepos("Google", LIMIT, ORDERED_BY));
+        fetchStarted.await();
+        CompletableFuture<String> follower = runInThread(() -> gitHubProxyService.getTopNRepos("Google", LIMIT, ORDERED_BY));
+        // Another organization is not held up by the in-flight build
+        assertEquals("[[\"repo1\", 1]]", gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY));
+        releaseFetch.countDown();
+
+        assertEquals("[[\"Google/x\", 7]]", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("[[\"Google/x\", 7]]", follower.get(5, TimeUnit.SECONDS));
+        verify(gitHubProxyService.gitHubClient, times(1)).readPaginatedDataIfModified(eq("/orgs/Google/repos"), anyBoolean());
+    }
+
+    @Test
+    void proxyGet_ServesStaleDataWhenGitHubFails() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenReturn(new PaginatedResponse("good-data", false))
+                .thenThrow(HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", new HttpHeaders(), null, null))
+                .thenThrow(new CircuitOpenException("GitHub circuit breaker is OPEN"));
+
+        gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+        sharedReadCache.invalidateAll();
+
+        assertEquals("good-data", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+        assertEquals("good-data", body(gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT)));
+    }
+
+    @Test
+    void proxyGet_DoesNotHideClientErrorsWithStaleData() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenReturn(new PaginatedResponse("good-data", false))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", new HttpHeaders(), null, null));
+
+        gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT);
+        sharedReadCache.invalidateAll();
+
+        assertThrows(RuntimeException.class, () -> gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT));
+    }
+
+    @Test
+    void proxyGet_FailsWithoutStaleData() {
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(CACHEABLE_ENDPOINT), anyBoolean()))
+                .thenThrow(new CircuitOpenException("GitHub circuit breaker is OPEN"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> gitHubProxyService.proxyGet(CACHEABLE_ENDPOINT));
+        assertInstanceOf(CircuitOpenException.class, e.getCause());
+    }
+
+    @Test
+    void getBottomNRepos_BuildsViewFromStaleRepositoriesWhenGitHubFails() {
+        useSharedReadCache(Caffeine.newBuilder().build());
+        gitHubProxyService.gitHubRepoViewCache = Caffeine.newBuilder().build();
+        when(gitHubProxyService.gitHubClient.readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean()))
+                .thenReturn(new PaginatedResponse(REPO_JSON, false))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        gitHubProxyService.proxyGet(GITHUB_REPOS_PATH);
+        sharedReadCache.invalidateAll();
+        gitHubProxyService.gitHubRepoViewCache.invalidateAll();
+
+        assertEquals("[[\"repo1\", 1]]", gitHubProxyService.getBottomNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY));
+        assertEquals("[[\"repo1\", 1]]", gitHubProxyService.getTopNRepos(GITHUB_DEFAULT_ORG, LIMIT, ORDERED_BY));
+        verify(gitHubProxyService.gitHubClient, times(2)).readPaginatedDataIfModified(eq(GITHUB_REPOS_PATH), anyBoolean());
+    }
+
+    @Test
+    void getBottomNRepos_RejectsInvalidOrg() {
+        assertEquals("[]", gitHubProxyService.getBottomNRepos("../users", LIMIT, ORDERED_BY));
+        assertEquals("[]", gitHubProxyService.getBottomNRepos("-netflix", LIMIT, ORDERED_BY));
+
+        verify(gitHubProxyService.gitHubClient, never()).readPaginatedDataIfModified(anyString(), anyBoolean());
+    }
+
+    /**
+     * Routes every cacheable endpoint to the given cache, with the refresh-ahead settings currently in the properties.
+     */
+    private void useSharedReadCache(Cache<String, CachedResponse> cache) {
+        sharedReadCache = cache;
+        gitHubProxyService.routeTable = RouteTable.of(gitHubProxyService.properties, policy -> cache);
+    }
+
+    private static String body(CachedResponse response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,177 @@
+package com.rayhan.readcache.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.RouteTable;
+import com.rayhan.readcache.client.ReactiveGitHubClient;
+import com.rayhan.readcache.model.CachedResponse;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.utils.RepoViewBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_DEFAULT_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ReactiveGitHubProxyServiceTest {
+    private static final String CACHEABLE_ENDPOINT = "/orgs/Netflix";
+    private static final String NON_CACHEABLE_ENDPOINT = "/users/Netflix";
+    private static final String REPO_JSON = "[{\"full_name\":\"Netflix/a\",\"forks_count\":3,\"stargazers_count\":1,\"open_issues_count\":0,\"updated_at\":\"2022-01-01T00:00:00Z\"},"
+            + "{\"full_name\":\"Netflix/b\",\"forks_count\":1,\"stargazers_count\":2,\"open_issues_count\":5,\"updated_at\":\"2023-01-01T00:00:00Z\"}]";
+
+    private ReactiveGitHubProxyService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new ReactiveGitHubProxyService();
+        service.gitHubClient = mock(ReactiveGitHubClient.class);
+        service.properties = new ReadCacheProperties();
+        service.routeTable = RouteTable.of(service.properties, policy -> Caffeine.newBuilder().buildAsync());
+        service.gitHubRepoViewCache = Caffeine.newBuilder().buildAsync();
+        service.offHeapStore = new OffHeapStore(0);
+        service.repoViewBuilder = new RepoViewBuilder(service.properties.getView());
+    }
+
+    @Test
+    public void proxyGet_ServesDemotedResponseFromOffHeapTier() {
+        service.offHeapStore = new OffHeapStore(1024 * 1024);
+        service.offHeapStore.demote(CACHEABLE_ENDPOINT, CachedResponse.of("{\"login\":\"Netflix\"}", -1), Duration.ofMinutes(1));
+
+        CachedResponse result = service.proxyGet(CACHEABLE_ENDPOINT).block();
+
+        assertTrue(result.isOffHeap());
+        assertEquals("{\"login\":\"Netflix\"}", body(result));
+        verify(service.gitHubClient, never()).readPaginatedData(anyString());
+    }
+
+    @Test
+    public void proxyGet_CachesCacheableEndpoint() {
+        when(service.gitHubClient.readPaginatedData(CACHEABLE_ENDPOINT)).thenReturn(Mono.just("{\"login\":\"Netflix\"}"));
+
+        assertEquals("{\"login\":\"Netflix\"}", body(service.proxyGet(CACHEABLE_ENDPOINT).block()));
+        assertEquals("{\"login\":\"Netflix\"}", body(service.proxyGet(CACHEABLE_ENDPOINT + "/").block()));
+
+        verify(service.gitHubClient, times(1)).readPaginatedData(CACHEABLE_ENDPOINT);
+    }
+
+    @Test
+    public void proxyGet_ConcurrentMissesShareOneUpstreamFetch() {
+        Sinks.One<String> upstream = Sinks.one();
+        when(service.gitHubClient.readPaginatedData(CACHEABLE_ENDPOINT)).thenReturn(upstream.asMono());
+
+        CompletableFuture<CachedResponse> leader = service.proxyGet(CACHEABLE_ENDPOINT).toFuture();
+        CompletableFuture<CachedResponse> follower = service.proxyGet(CACHEABLE_ENDPOINT).toFuture();
+        assertFalse(leader.isDone());
+
+        upstream.tryEmitValue("{\"login\":\"Netflix\"}");
+
+        assertEquals("{\"login\":\"Netflix\"}", body(leader.join()));
+        assertEquals("{\"login\":\"Netflix\"}", body(follower.join()));
+        verify(service.gitHubClient, times(1)).readPaginatedData(CACHEABLE_ENDPOINT);
+    }
+
+    @Test
+    public void proxyGet_DoesNotCacheFailedFetch() {
+        when(service.gitHubClient.readPaginatedData(CACHEABLE_ENDPOINT))
+                .thenReturn(Mono.error(new IllegalStateException("rate limited")), Mono.just("{}"));
+
+        assertThrows(IllegalStateException.class, () -> service.proxyGet(CACHEABLE_ENDPOINT).block());
+        assertEquals("{}", body(service.proxyGet(CACHEABLE_ENDPOINT).block()));
+    }
+
+    @Test
+    public void proxyGet_PassesNonCacheableEndpointThrough() {
+        when(service.gitHubClient.readPaginatedData(NON_CACHEABLE_ENDPOINT)).thenReturn(Mono.just("[]"), Mono.just("[1]"));
+
+        assertEquals("[]", body(service.proxyGet(NON_CACHEABLE_ENDPOINT).block()));
+        assertEquals("[1]", body(service.proxyGet(NON_CACHEABLE_ENDPOINT).block()));
+    }
+
+    @Test
+    public void getBottomNRepos_DoesNotCacheFailedBuild() {
+        when(service.gitHubClient.readPaginatedData(GITHUB_REPOS_PATH))
+                .thenReturn(Mono.error(new IllegalStateException("rate limited")), Mono.just(REPO_JSON));
+
+        assertThrows(IllegalStateException.class, () -> service.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block());
+        assertFalse(service.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block().isEmpty());
+        verify(service.gitHubClient, times(2)).readPaginatedData(GITHUB_REPOS_PATH);
+    }
+
+    @Test
+    public void getBottomNRepos_DatesViewWithCachedRepositories() {
+        CachedResponse repoData = CachedResponse.of(REPO_JSON, -1).loadedAgo(Duration.ofSeconds(50));
+        service.routeTable.require(GITHUB_REPOS_PATH).getCache().put(GITHUB_REPOS_PATH, CompletableFuture.completedFuture(repoData));
+
+        service.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block();
+
+        // The view expires with the response it was built from, not a full TTL after the build
+        assertEquals(repoData.getLoadedAt(), service.gitHubRepoViewCache.synchronous().getIfPresent(GITHUB_DEFAULT_ORG).getLoadedAt());
+        verify(service.gitHubClient, never()).readPaginatedData(anyString());
+    }
+
+    @Test
+    public void getBottomNRepos_BuildsViewFromCachedRepositories() {
+        when(service.gitHubClient.readPaginatedData(GITHUB_REPOS_PATH)).thenReturn(Mono.just(REPO_JSON));
+
+        assertEquals("[[\"Netflix/b\", 1]]", service.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block());
+        assertEquals("[[\"Netflix/b\", 2], [\"Netflix/a\", 1]]", service.getBottomNRepos(GITHUB_DEFAULT_ORG, 2, "stars").block());
+        assertEquals(REPO_JSON, body(service.proxyGet(GITHUB_REPOS_PATH).block()));
+
+        verify(service.gitHubClient, times(1)).readPaginatedData(GITHUB_REPOS_PATH);
+    }
+
+    @Test
+    public void getTopNRepos_CachesViewsPerOrg() {
+        when(service.gitHubClient.readPaginatedData(GITHUB_REPOS_PATH)).thenReturn(Mono.just(REPO_JSON));
+        when(service.gitHubClient.readPaginatedData("/orgs/Google/repos")).thenReturn(Mono.just("[{\"full_name\":\"Google/x\",\"forks_count\":7}]"));
+
+        assertEquals("[[\"Google/x\", 7]]", service.getTopNRepos("Google", 1, "forks").block());
+        assertEquals("[[\"Netflix/a\", 3]]", service.getTopNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block());
+        assertEquals("[[\"Google/x\", 7]]", service.getTopNRepos("Google", 1, "forks").block());
+        assertEquals("[]", service.getTopNRepos("..", 1, "forks").block());
+
+        verify(service.gitHubClient, times(1)).readPaginatedData("/orgs/Google/repos");
+        verify(service.gitHubClient, times(1)).readPaginatedData(GITHUB_REPOS_PATH);
+    }
+
+    @Test
+    public void getBottomNRepos_BuildsViewOffTheCallingThread() {
+        AtomicReference<String> buildThread = new AtomicReference<>();
+        service.repoViewBuilder = new RepoViewBuilder(service.properties.getView()) {
+            @Override
+            public GitHubRepoViewData build(String json) {
+                buildThread.set(Thread.currentThread().getName());
+                return super.build(json);
+            }
+        };
+        // The repositories are already cached, so the view build would otherwise run on the calling thread
+        when(service.gitHubClient.readPaginatedData(GITHUB_REPOS_PATH)).thenReturn(Mono.just(REPO_JSON));
+        service.proxyGet(GITHUB_REPOS_PATH).block();
+
+        service.getBottomNRepos(GITHUB_DEFAULT_ORG, 1, "forks").block();
+
+        assertTrue(buildThread.get().startsWith("parallel-"), buildThread.get());
+    }
+
+    private static String body(CachedResponse response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.rayhan.readcache.service;
+
+import com.rayhan.readcache.AppConfig;
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.cache.OffHeapStore;
+import com.rayhan.readcache.cache.StaleStore;
+import com.rayhan.readcache.model.CachedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_NETFLIX_ORG;
+import static com.rayhan.readcache.constants.ApplicationConstant.GITHUB_REPOS_PATH;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WarmupServiceTest {
+
+    private WarmupService warmupService;
+
+    @BeforeEach
+    public void setUp() {
+        ReadCacheProperties properties = new ReadCacheProperties();
+        properties.getWarmup().setEnabled(true);
+
+        warmupService = new WarmupService();
+        warmupService.properties = properties;
+        warmupService.routeTable = new AppConfig().provideRouteTable(properties, new OffHeapStore(0), new StaleStore(0, Duration.ofHours(1)));
+        warmupService.gitHubProxyService = mock(GitHubProxyService.class);
+    }
+
+    @Test
+    public void warmUp_LoadsCacheablePathsBeforeReady() {
+        warmupService.properties.getWarmup().setPaths(List.of(GITHUB_NETFLIX_ORG, GITHUB_REPOS_PATH, "/orgs/Netflix/non-cacheable"));
+        when(warmupService.gitHubProxyService.proxyGet(GITHUB_NETFLIX_ORG)).thenReturn(CachedResponse.of("{}", -1));
+        when(warmupService.gitHubProxyService.proxyGet(GITHUB_REPOS_PATH)).thenThrow(new RuntimeException("GitHub unavailable"));
+        assertFalse(warmupService.isReady());
+
+        warmupService.warmUp();
+
+        assertTrue(warmupService.isReady());
+        verify(warmupService.gitHubProxyService).proxyGet(GITHUB_NETFLIX_ORG);
+        verify(warmupService.gitHubProxyService).proxyGet(GITHUB_REPOS_PATH);
+        verify(warmupService.gitHubProxyService, never()).proxyGet("/orgs/Netflix/non-cacheable");
+    }
+
+    @Test
+    public void warmUp_BecomesReadyAfterTimeout() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        warmupService.properties.getWarmup().setPaths(List.of(GITHUB_NETFLIX_ORG));
+        warmupService.properties.getWarmup().setTimeout(Duration.ofMillis(50));
+        when(warmupService.gitHubProxyService.proxyGet(GITHUB_NETFLIX_ORG)).thenAnswer(invocation -> {
+            release.await();
+            loaded.countDown();
+            return CachedResponse.of("{}", -1);
+        });
+
+        warmupService.warmUp();
+
+        assertTrue(warmupService.isReady());
+        release.countDown();
+        // The load still in flight at the timeout isn't interrupted, so it completes and fills the cache
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void isReady_WithoutWarmup() {
+        warmupService.properties.getWarmup().setEnabled(false);
+
+        assertTrue(warmupService.isReady());
+        warmupService.warmUp();
+        verify(warmupService.gitHubProxyService, never()).proxyGet(GITHUB_NETFLIX_ORG);
+    }
+}
@@ -0,0 +1,37 @@
+package com.rayhan.readcache.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GitHubPathsTest {
+
+    @Test
+    public void isValidOrg_AcceptsGitHubLogins() {
+        assertTrue(GitHubPaths.isValidOrg("Netflix"));
+        assertTrue(GitHubPaths.isValidOrg("aws-samples"));
+        assertTrue(GitHubPaths.isValidOrg("a".repeat(39)));
+
+        assertFalse(GitHubPaths.isValidOrg(null));
+        assertFalse(GitHubPaths.isValidOrg(""));
+        assertFalse(GitHubPaths.isValidOrg("-netflix"));
+        assertFalse(GitHubPaths.isValidOrg("net--flix"));
+        assertFalse(GitHubPaths.isValidOrg("Netflix/repos"));
+        assertFalse(GitHubPaths.isValidOrg(".."));
+        assertFalse(GitHubPaths.isValidOrg("a".repeat(40)));
+    }
+
+    @Test
+    public void orgOfReposPath_IsInverseOfReposPath() {
+        assertEquals("/orgs/Netflix/repos", GitHubPaths.reposPath("Netflix"));
+        assertEquals("Netflix", GitHubPaths.orgOfReposPath(GitHubPaths.reposPath("Netflix")));
+
+        assertNull(GitHubPaths.orgOfReposPath("/orgs/Netflix"));
+        assertNull(GitHubPaths.orgOfReposPath("/orgs/repos"));
+        assertNull(GitHubPaths.orgOfReposPath("/orgs/Netflix/teams/repos"));
+        assertNull(GitHubPaths.orgOfReposPath("/users/Netflix/repos"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.rayhan.readcache.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexSorterTest {
+
+    @Test
+    public void sortedIndexes_IsStable() {
+        int[] keys = new Random(42).ints(1_000, 0, 10).toArray();
+        int[] expected = IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.comparingInt(i -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        assertArrayEquals(expected, IndexSorter.sortedIndexes(keys.length, (left, right) -> Integer.compare(keys[left], keys[right]), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void sortedIndexes_SortsLargeInputsInParallel() {
+        long[] keys = new Random(7).longs(100_000).toArray();
+
+        int[] parallel = IndexSorter.sortedIndexes(keys.length, (left, right) -> Long.compare(keys[left], keys[right]), 1_000);
+        int[] sequential = IndexSorter.sortedIndexes(keys.length, (left, right) -> Long.compare(keys[left], keys[right]), Integer.MAX_VALUE);
+
+        assertArrayEquals(sequential, parallel);
+        for (int i = 1; i < parallel.length; i++) {
+            assertTrue(keys[parallel[i - 1]] <= keys[parallel[i]]);
+        }
+    }
+
+    @Test
+    public void sortedIndexes_HandlesEmptyInput() {
+        assertArrayEquals(new int[0], IndexSorter.sortedIndexes(0, (left, right) -> 0, 0));
+    }
+}
@@ -0,0 +1,45 @@
+package com.rayhan.readcache.utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonArrayMergerTest {
+    private final JsonFactory factory = new JsonFactory();
+
+    @Test
+    public void merge_CopiesElementsOfAllPagesInOrder() {
+        List<String> pages = List.of(
+                "[ {\"full_name\": \"repo1\", \"topics\": [\"a\", \"b\"], \"license\": null},\n {\"full_name\": \"repo2\", \"score\": 1.5} ]",
+                "[]",
+                "[{\"full_name\":\"r\\u00e9po3\",\"private\":false,\"size\":12345678901}]");
+
+        String result = JsonArrayMerger.merge(factory, pages);
+
+        assertEquals("[{\"full_name\":\"repo1\",\"topics\":[\"a\",\"b\"],\"license\":null},{\"full_name\":\"repo2\",\"score\":1.5}," +
+                "{\"full_name\":\"répo3\",\"private\":false,\"size\":12345678901}]", result);
+    }
+
+    @Test
+    public void merge_ReturnsNonArrayBodyAsIs() {
+        String body = "{\"login\": \"Netflix\"}";
+
+        assertEquals(body, JsonArrayMerger.merge(factory, List.of(body)));
+    }
+
+    @Test
+    public void merge_ReturnsNullForNullBody() {
+        assertNull(JsonArrayMerger.merge(factory, Arrays.asList("[1]", null)));
+    }
+
+    @Test
+    public void merge_ThrowsForMalformedPage() {
+        assertThrows(RuntimeException.class, () -> JsonArrayMerger.merge(factory, List.of("[{\"full_name\":\"repo1\"}", "[2]")));
+    }
+}
@@ -0,0 +1,202 @@
+package com.rayhan.readcache.utils;
+
+import com.rayhan.readcache.ReadCacheProperties;
+import com.rayhan.readcache.ReadCacheProperties.ViewOrdering;
+import com.rayhan.readcache.ReadCacheProperties.ViewOrderingType;
+import com.rayhan.readcache.ReadCacheProperties.ViewProperties;
+import com.rayhan.readcache.model.GitHubRepoData;
+import com.rayhan.readcache.model.GitHubRepoViewData;
+import com.rayhan.readcache.model.RepoViewIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RepoViewBuilderTest {
+
+    private final RepoViewBuilder builder = new RepoViewBuilder(new ReadCacheProperties().getView());
+
+    @Test
+    public void build_WithValidJSON() {
+        String validJSON = "[{\"full_name\":\"repo1\",\"forks_count\":11,\"stargazers_count\":22,\"open_issues_count\":33,\"updated_at\":\"2023-11-29\"}," +
+                "{\"full_name\":\"repo2\",\"forks_count\":22,\"stargazers_count\":33,\"open_issues_count\":44,\"updated_at\":\"2023-11-28\"}]";
+
+        GitHubRepoViewData result = builder.build(validJSON);
+
+        RepoViewIndex orderedByForks = result.getView("forks");
+        assertEquals(2, orderedByForks.size());
+        assertEquals("[[\"repo2\", 22], [\"repo1\", 11]]", orderedByForks.top(2));
+
+        RepoViewIndex orderedByStars = result.getView("stars");
+        assertEquals(2, orderedByStars.size());
+        assertEquals("[[\"repo2\", 33], [\"repo1\", 22]]", orderedByStars.top(2));
+
+        assertEquals("[[\"repo2\", 44], [\"repo1\", 33]]", result.getView("open_issues").top(2));
+        assertEquals("[[\"repo1\", \"2023-11-29\"], [\"repo2\", \"2023-11-28\"]]", result.getView("last_updated").top(2));
+        assertNull(result.getView("watchers"));
+    }
+
+    @Test
+    public void build_WithInvalidJSON() {
+        String invalidJSON = "[{\"full_name\":\"repo1\",\"forks_count\":10,\"stargazers_count\":20,\"open_issues_count\":5,\"updated_at\":\"2021-12-01\"}," +
+                "{\"full_name\":\"repo2\",\"forks_count\":15,\"stargazers_count\":25,\"open_issues_count\":8,\"updated_at\":\"2021-11-01\","; // Malformed JSON
+
+        assertThrows(RuntimeException.class, () -> builder.build(invalidJSON));
+        assertThrows(RuntimeException.class, () -> builder.build("{\"full_name\":\"repo1\"}"));
+        assertThrows(RuntimeException.class, () -> builder.build("[1, 2]"));
+    }
+
+    @Test
+    public void build_TimesEveryBuildOnceBound() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        builder.build("[]");
+        builder.bindTo(registry);
+
+        builder.build("[{\"full_name\":\"repo1\",\"forks_count\":1}]");
+        assertThrows(RuntimeException.class, () -> builder.build("[1, 2]"));
+
+        assertEquals(2, registry.get("readcache.view.build").timer().count());
+    }
+
+    @Test
+    public void build_SkipsNestedValuesAndTiesByName() {
+        String json = "[{\"full_name\":\"b\",\"owner\":{\"forks_count\":99,\"full_name\":\"x\"},\"topics\":[\"c\"],\"forks_count\":5}," +
+                "{\"full_name\":\"a\",\"forks_count\":5,\"updated_at\":null},{\"full_name\":\"c\",\"forks_count\":7,\"updated_at\":\"2023-01-01\"}]";
+
+        GitHubRepoViewData result = builder.build(json);
+
+        assertEquals("[[\"c\", 7], [\"a\", 5], [\"b\", 5]]", result.getView("forks").top(3));
+        assertEquals("[[\"a\", 0], [\"b\", 0], [\"c\", 0]]", result.getView("stars").top(3));
+        assertEquals("[[\"c\", \"2023-01-01\"], [\"a\", null], [\"b\", null]]", result.getView("last_updated").top(3));
+    }
+
+    @Test
+    public void build_ServesConfiguredOrderings() {
+        ViewProperties properties = new ViewProperties();
+        properties.getOrderings().put("watchers", new ViewOrdering("watchers_count", ViewOrderingType.NUMBER));
+        properties.getOrderings().put("pushed", new ViewOrdering("pushed_at", ViewOrderingType.STRING));
+        String json = "[{\"full_name\":\"a\",\"watchers_count\":1,\"pushed_at\":\"2023-02-01\"},{\"full_name\":\"b\",\"watchers_count\":2,\"pushed_at\":\"2023-01-01\"}]";
+
+        GitHubRepoViewData result = new RepoViewBuilder(properties).build(json);
+
+        assertEquals("[[\"b\", 2], [\"a\", 1]]", result.getView("watchers").top(2));
+        assertEquals("[[\"a\", \"2023-02-01\"], [\"b\", \"2023-01-01\"]]", result.getView("pushed").top(2));
+        assertEquals("[[\"a\", 0], [\"b\", 0]]", result.getView("forks").top(2));
+    }
+
+    @Test
+    public void viewProperties_BindsOrderingsOnTopOfDefaults() {
+        Binder binder = new Binder(new MapConfigurationPropertySource(Map.of(
+                "readcache.view.orderings.size.field", "size",
+                "readcache.view.orderings.pushed.field", "pushed_at",
+                "readcache.view.orderings.pushed.type", "string")));
+
+        ReadCacheProperties properties = binder.bindOrCreate("readcache", ReadCacheProperties.class);
+
+        Map<String, ViewOrdering> orderings = properties.getView().getOrderings();
+        assertEquals(Set.of("forks", "stars", "open_issues", "last_updated", "size", "pushed"), orderings.keySet());
+        assertEquals(ViewOrderingType.NUMBER, orderings.get("size").getType());
+        assertEquals(ViewOrderingType.STRING, orderings.get("pushed").getType());
+    }
+
+    @Test
+    public void build_MatchesSortedRepoDataInParallel() {
+        ViewProperties properties = new ViewProperties();
+        properties.setParallelSortThreshold(100);
+        int size = 5_000;
+        String json = IntStream.range(0, size)
+                .mapToObj(i -> "{\"full_name\":\"Netflix/repo" + i + "\",\"forks_count\":" + (i * 7919 % 97) + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        RepoViewIndex view = new RepoViewBuilder(properties).build(json).getView("forks");
+
+        List<GitHubRepoData<Integer>> expected = IntStream.range(0, size)
+                .mapToObj(i -> new GitHubRepoData<>("Netflix/repo" + i, i * 7919 % 97))
+                .sorted(Comparator.comparing((GitHubRepoData<Integer> repo) -> repo.getOrder()).reversed()
+                        .thenComparing(GitHubRepoData::getName))
+                .toList();
+        assertEquals(expected.toString(), view.top(size));
+    }
+
+    @Test
+    public void build_UpdatesPreviousViewsLikeAFullBuild() {
+        ViewProperties properties = new ViewProperties();
+        properties.setParallelSortThreshold(100);
+        RepoViewBuilder incrementalBuilder = new RepoViewBuilder(properties);
+        Random random = new Random(42);
+
+        List<String> repos = new ArrayList<>();
+        for (int id = 0; id < 2_000; id++) {
+            repos.add(repo(id, "repo" + id, random.nextInt(50), "2023-11-" + (10 + random.nextInt(20))));
+        }
+        GitHubRepoViewData previous = incrementalBuilder.build("[" + String.join(",", repos) + "]");
+        String previousForks = previous.getView("forks").top(2_000);
+
+        // Change, remove, add, rename and move repositories
+        for (int i = 0; i < 100; i++) {
+            int id = random.nextInt(2_000);
+            repos.set(id, repo(id, "repo" + id, random.nextInt(50), "2023-12-0" + (1 + random.nextInt(9))));
+        }
+        repos.subList(500, 520).clear();
+        repos.add(repo(2_000, "repo2000", 25, "2023-12-01"));
+        repos.add(0, repo(2_001, "repo2001", 7, null));
+        repos.set(6, repo(5, "renamed5", 7, "2023-12-01"));
+        repos.add(repos.remove(1_000));
+        String json = "[" + String.join(",", repos) + "]";
+
+        GitHubRepoViewData updated = incrementalBuilder.build(json, previous);
+        GitHubRepoViewData rebuilt = incrementalBuilder.build(json);
+
+        for (String orderedBy : properties.getOrderings().keySet()) {
+            assertEquals(rebuilt.getView(orderedBy).top(repos.size()), updated.getView(orderedBy).top(repos.size()));
+        }
+        assertEquals(previousForks, previous.getView("forks").top(2_000));
+    }
+
+    @Test
+    public void build_ReusesFragmentsOfUnchangedRepos() {
+        String json = "[" + repo(1, "repo1", 11, "2023-11-29") + "," + repo(2, "repo2", 22, "2023-11-28") + "]";
+        GitHubRepoViewData previous = builder.build(json);
+
+        GitHubRepoViewData updated = builder.build(json, previous);
+
+        assertNotNull(updated.getRows());
+        for (int position = 0; position < 2; position++) {
+            assertSame(previous.getView("forks").fragmentAt(position), updated.getView("forks").fragmentAt(position));
+            assertSame(previous.getView("last_updated").fragmentAt(position), updated.getView("last_updated").fragmentAt(position));
+        }
+    }
+
+    @Test
+    public void build_KeepsNoRowsWhenNotIncremental() {
+        ViewProperties properties = new ViewProperties();
+        properties.setIncremental(false);
+        String json = "[" + repo(1, "repo1", 11, "2023-11-29") + "]";
+
+        GitHubRepoViewData viewData = new RepoViewBuilder(properties).build(json);
+
+        assertNull(viewData.getRows());
+        assertEquals("[[\"Netflix/repo1\", 11]]", new RepoViewBuilder(properties).build(json, viewData).getView("forks").top(1));
+    }
+
+    private static String repo(int id, String name, int count, String updatedAt) {
+        return "{\"id\":" + id + ",\"full_name\":\"Netflix/" + name + "\",\"forks_count\":" + count
+                + ",\"stargazers_count\":" + (count * 3 % 17) + ",\"open_issues_count\":" + (count % 5)
+                + ",\"updated_at\":" + (updatedAt != null ? "\"" + updatedAt + "\"" : "null") + "}";
+    }
+}